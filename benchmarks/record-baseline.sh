@@ -0,0 +1,19 @@
+#!/usr/bin/env bash
+# Records benchmarks/baseline.json with the full JMH suite on the JDK the project targets (java.version in pom.xml).
+# Refuses other JDKs: numbers from a different JDK or with --enable-preview are not comparable.
+# The 10M log params need a machine with 16 GB of RAM or more.
+#   benchmarks/record-baseline.sh [extra jmh args]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+expected="$(grep -oE '<java.version>[0-9]+</java.version>' pom.xml | grep -oE '[0-9]+')"
+actual="$(java -XshowSettings:properties -version 2>&1 | grep -E '^\s*java.specification.version' | grep -oE '[0-9]+$')"
+
+[ "$actual" = "$expected" ] || { echo "JDK $actual on PATH, the project targets $expected" >&2; exit 1; }
+
+./mvnw -B -P benchmarks test-compile exec:exec \
+  -Djmh.args="-prof gc -rf json -rff target/jmh-result.json $*"
+
+cp target/jmh-result.json benchmarks/baseline.json
+echo "benchmarks/baseline.json recorded on $(java -version 2>&1 | head -1)"
@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Time to first prompt / first incident with and without the fast-start build.
+# Needs a fast-start package (./mvnw -P fast-start -DskipTests package) and the compose Mongo + Ollama, and the
+# JDK that built the AOT cache on PATH (java.version in pom.xml). AOTMode=on fails a run whose cache is unusable
+# instead of silently timing it without one.
+#   benchmarks/startup.sh [runs]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+runs="${1:-5}"
+jar="$(ls target/fast-start/embabel-demo-*.jar)"
+cache="target/fast-start/embabel-demo.aot"
+script="src/aot/training.txt"
+results="target/startup-results.csv"
+
+[ -f "$cache" ] || { echo "missing $cache, build with -P fast-start first" >&2; exit 1; }
+
+expected="$(grep -oE '<java.version>[0-9]+</java.version>' pom.xml | grep -oE '[0-9]+')"
+actual="$(java -XshowSettings:properties -version 2>&1 | grep -E '^\s*java.specification.version' | grep -oE '[0-9]+$')"
+[ "$actual" = "$expected" ] || { echo "JDK $actual on PATH, the AOT cache needs $expected" >&2; exit 1; }
+
+# no bash 4 associative arrays: macOS still ships bash 3.2
+mode_args() {
+  case "$1" in
+    jit) echo "" ;;
+    spring-aot) echo "-Dspring.aot.enabled=true" ;;
+    spring-aot+aot-cache) echo "-Dspring.aot.enabled=true -XX:AOTCache=$cache -XX:AOTMode=on" ;;
+  esac
+}
+
+# every run triages for real: the persistent LLM cache and the incident memo would turn later runs into lookups
+common="-Dspring.shell.interactive.enabled=false -Dapp.seed.async=false \
+  -Dapp.llm-cache.enabled=false -Dapp.incident-memo.enabled=false"
+
+run_once() {
+  # shellcheck disable=SC2086
+  java $(mode_args "$1") $common -jar "$jar" script --file "$script" 2>&1
+}
+
+# an empty database is seeded by the first run only; keep that out of the numbers
+echo "warm-up run (seeds an empty database)"
+run_once jit > target/startup-warmup.log || { echo "warm-up failed, see target/startup-warmup.log" >&2; exit 1; }
+
+echo "mode,run,first_prompt_ms,first_incident_ms" > "$results"
+
+for mode in jit spring-aot spring-aot+aot-cache; do
+  for run in $(seq 1 "$runs"); do
+    log="target/startup-$mode-$run.log"
+    run_once "$mode" > "$log" || { echo "$mode run $run failed, see $log" >&2; exit 1; }
+    prompt="$(grep -oE 'first-prompt [0-9]+ ms' "$log" | grep -oE '[0-9]+' | head -1 || true)"
+    incident="$(grep -oE 'first-incident [0-9]+ ms' "$log" | grep -oE '[0-9]+' | head -1 || true)"
+    [ -n "$prompt" ] && [ -n "$incident" ] || { echo "$mode run $run logged no startup timing, see $log" >&2; exit 1; }
+    echo "$mode,$run,$prompt,$incident" >> "$results"
+  done
+done
+
+# medians per mode
+awk -F, 'NR > 1 { p[$1] = p[$1] " " $3; i[$1] = i[$1] " " $4 }
+  function median(list,   n, v, k, j, t) {
+    n = split(list, v, " ")
+    for (k = 1; k <= n; k++) for (j = k + 1; j <= n; j++) if (v[j] + 0 < v[k] + 0) { t = v[k]; v[k] = v[j]; v[j] = t }
+    return n ? v[int((n + 1) / 2)] : "-"
+  }
+  END {
+    printf "%-22s %16s %18s\n", "mode", "first prompt ms", "first incident ms"
+    n = split("jit spring-aot spring-aot+aot-cache", order, " ")
+    for (k = 1; k <= n; k++) printf "%-22s %16s %18s\n", order[k], median(p[order[k]]), median(i[order[k]])
+  }' "$results"
+
+echo "raw results: $results"
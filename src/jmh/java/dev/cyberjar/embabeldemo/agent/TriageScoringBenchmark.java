@@ -0,0 +1,79 @@
+package dev.cyberjar.embabeldemo.agent;
+
+import dev.cyberjar.embabeldemo.bench.SyntheticTelemetry;
+import dev.cyberjar.embabeldemo.civilian.dto.ImplantOwner;
+import dev.cyberjar.embabeldemo.implantlog.dto.ImplantAnomalySummary;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricAnomaly;
+import dev.cyberjar.embabeldemo.incident.domain.AffectedImplant;
+import dev.cyberjar.embabeldemo.incident.domain.EstimatedBlastRadius;
+import dev.cyberjar.embabeldemo.incident.domain.IncidentSignal;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// One operation is one pass over every implant of the window, as a triage run makes it
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TriageScoringBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int implants;
+
+    private IncidentSignal signal;
+    private List<ImplantAnomalySummary> summaries;
+    private Map<String, ImplantOwner> owners;
+    private List<AffectedImplant> affected;
+    private long[] exceedCounts;
+    private double[] maxValues;
+    private double[] thresholds;
+
+    @Setup
+    public void setup() {
+        signal = SyntheticTelemetry.signal();
+        summaries = SyntheticTelemetry.summaries(implants, 42);
+        owners = SyntheticTelemetry.owners(implants);
+        affected = IncidentTriageAgent.rankAffected(summaries, owners);
+
+        exceedCounts = new long[implants];
+        maxValues = new double[implants];
+        thresholds = new double[implants];
+        for (int i = 0; i < implants; i++) {
+            MetricAnomaly latency = summaries.get(i).metrics().getFirst();
+            exceedCounts[i] = latency.exceedCount() * (i % 7);
+            maxValues[i] = latency.maxValue();
+            thresholds[i] = latency.threshold();
+        }
+    }
+
+    @Benchmark
+    public void classifyRisk(Blackhole blackhole) {
+        for (long exceedCount : exceedCounts) {
+            blackhole.consume(IncidentTriageAgent.classifyRisk(exceedCount, implants));
+        }
+    }
+
+    @Benchmark
+    public void calculateAnomalyScore(Blackhole blackhole) {
+        for (int i = 0; i < maxValues.length; i++) {
+            blackhole.consume(IncidentTriageAgent.calculateAnomalyScore(maxValues[i], thresholds[i]));
+        }
+    }
+
+    @Benchmark
+    public EstimatedBlastRadius estimateRadius() {
+        return IncidentTriageAgent.estimateRadius(signal, affected);
+    }
+
+    // the findAffectedImplants stream: score every metric, build AffectedImplant, sort by score
+    @Benchmark
+    public List<AffectedImplant> rankAffected() {
+        return IncidentTriageAgent.rankAffected(summaries, owners);
+    }
+}
@@ -0,0 +1,106 @@
+package dev.cyberjar.embabeldemo.bench;
+
+import dev.cyberjar.embabeldemo.civilian.dto.ImplantOwner;
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.domain.TelemetryMetric;
+import dev.cyberjar.embabeldemo.implantlog.dto.ImplantAnomalySummary;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricAnomaly;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricThreshold;
+import dev.cyberjar.embabeldemo.incident.domain.IncidentSignal;
+import dev.cyberjar.embabeldemo.incident.domain.MetricCondition;
+import org.springframework.data.geo.Point;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Deterministic fleet and telemetry for the benchmarks: roughly one implant in ten runs hot,
+// spread over a few dozen lots, models and manufacturers around Manhattan.
+public final class SyntheticTelemetry {
+
+    public static final List<MetricThreshold> THRESHOLDS = List.of(
+            new MetricThreshold(TelemetryMetric.NEURAL_LATENCY_MS, 120),
+            new MetricThreshold(TelemetryMetric.CPU_USAGE_PCT, 85));
+
+    public static final LocalDateTime WINDOW_START = LocalDateTime.of(2026, 2, 2, 0, 0);
+
+    private static final String[] MANUFACTURERS = {"MechaMed", "SynthForge", "NeuroCore", "OptiCyb", "VitaLink"};
+    private static final double CENTER_LON = -73.9855;
+    private static final double CENTER_LAT = 40.7580;
+
+    private SyntheticTelemetry() {
+    }
+
+    public static IncidentSignal signal() {
+        return new IncidentSignal(CENTER_LON, CENTER_LAT, 5_000, WINDOW_START, WINDOW_START.plusDays(1),
+                THRESHOLDS.stream().map(t -> new MetricCondition(t.metric().field(), t.threshold())).toList());
+    }
+
+    public static String serial(int implant) {
+        return "SYN-%06d".formatted(implant);
+    }
+
+    public static boolean isHot(int implant) {
+        return implant % 10 == 3;
+    }
+
+    public static Map<String, ImplantOwner> owners(int implants) {
+        Map<String, ImplantOwner> owners = new HashMap<>(implants * 2);
+        for (int i = 0; i < implants; i++) {
+            owners.put(serial(i), new ImplantOwner(
+                    serial(i),
+                    "CIV-%08d".formatted(i),
+                    100 + i % 40,
+                    "Model-%02d".formatted(i % 25),
+                    MANUFACTURERS[i % MANUFACTURERS.length]));
+        }
+        return owners;
+    }
+
+    // One summary per implant as the window aggregation would return it
+    public static List<ImplantAnomalySummary> summaries(int implants, long seed) {
+        Random random = new Random(seed);
+        List<ImplantAnomalySummary> summaries = new ArrayList<>(implants);
+
+        for (int i = 0; i < implants; i++) {
+            boolean hot = isHot(i);
+            List<MetricAnomaly> metrics = new ArrayList<>(THRESHOLDS.size());
+
+            for (MetricThreshold threshold : THRESHOLDS) {
+                double max = threshold.threshold() * (hot ? 1.0 + random.nextDouble() : 0.5 + 0.4 * random.nextDouble());
+                long exceeded = hot ? 1 + random.nextInt(30) : 0;
+                metrics.add(new MetricAnomaly(threshold.metric(), threshold.threshold(), max, exceeded,
+                        hot ? WINDOW_START.plusMinutes(10) : null,
+                        hot ? WINDOW_START.plusMinutes(10 + exceeded * 2) : null));
+            }
+            summaries.add(new ImplantAnomalySummary(serial(i), 24 + random.nextInt(24), metrics));
+        }
+        return summaries;
+    }
+
+    // count samples spread round-robin over the implants, two minutes apart per implant
+    public static List<ImplantMonitoringLog> logs(int count, int implants, long seed) {
+        Random random = new Random(seed);
+        List<ImplantMonitoringLog> logs = new ArrayList<>(count);
+
+        for (int n = 0; n < count; n++) {
+            int implant = n % implants;
+            boolean hot = isHot(implant);
+
+            logs.add(new ImplantMonitoringLog(
+                    Integer.toHexString(n),
+                    serial(implant),
+                    "CIV-%08d".formatted(implant),
+                    WINDOW_START.plusMinutes(2L * (n / implants)),
+                    1.6 + random.nextGaussian() * 0.6,
+                    (hot ? 92.0 : 18.0) + random.nextGaussian() * 5.0,
+                    (hot ? 150.0 : 18.0) + random.nextGaussian() * 8.0,
+                    new Point(CENTER_LON + (random.nextDouble() - 0.5) * 0.05,
+                            CENTER_LAT + (random.nextDouble() - 0.5) * 0.05)));
+        }
+        return logs;
+    }
+}
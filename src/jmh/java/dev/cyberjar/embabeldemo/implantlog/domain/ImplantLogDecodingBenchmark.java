@@ -0,0 +1,59 @@
+package dev.cyberjar.embabeldemo.implantlog.domain;
+
+import dev.cyberjar.embabeldemo.bench.SyntheticTelemetry;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Document -> ImplantMonitoringLog as MongoTemplate does it for find() and the grouped window queries.
+// Documents are produced by the same converter, so their shape matches what the app stores.
+// 10M documents take about 12 GB of heap.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx14g")
+public class ImplantLogDecodingBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    int logs;
+
+    private MappingMongoConverter converter;
+    private List<Document> documents;
+
+    @Setup
+    public void setup() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        documents = new ArrayList<>(logs);
+        for (ImplantMonitoringLog log : SyntheticTelemetry.logs(logs, Math.max(1, logs / 100), 42)) {
+            Document document = new Document();
+            converter.write(log, document);
+            documents.add(document);
+        }
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) {
+        for (Document document : documents) {
+            blackhole.consume(converter.read(ImplantMonitoringLog.class, document));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package dev.cyberjar.embabeldemo.implantlog.domain;
+
+import dev.cyberjar.embabeldemo.bench.SyntheticTelemetry;
+import dev.cyberjar.embabeldemo.implantlog.dto.ImplantAnomalySummary;
+import dev.cyberjar.embabeldemo.implantlog.scan.AnomalyAccumulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Metric value dispatch over in-memory logs (the LOGS triage mode). 10M logs take about 4 GB of heap.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class TelemetryMetricBenchmark {
+
+    private static final TelemetryMetric[] METRICS = TelemetryMetric.values();
+
+    @Param({"10000", "1000000", "10000000"})
+    int logs;
+
+    @Param({"1000"})
+    int implants;
+
+    private List<ImplantMonitoringLog> samples;
+    private Map<String, List<ImplantMonitoringLog>> byImplant;
+
+    @Setup
+    public void setup() {
+        samples = SyntheticTelemetry.logs(logs, implants, 42);
+        byImplant = samples.stream().collect(Collectors.groupingBy(ImplantMonitoringLog::getImplantSerialNumber));
+    }
+
+    // every metric of every log through TelemetryMetric.valueOf
+    @Benchmark
+    public double metricDispatch() {
+        double sum = 0;
+        for (ImplantMonitoringLog log : samples) {
+            for (TelemetryMetric metric : METRICS) {
+                sum += metric.valueOf(log);
+            }
+        }
+        return sum;
+    }
+
+    // the same reads through the getters, as the floor for metricDispatch
+    @Benchmark
+    public double directGetters() {
+        double sum = 0;
+        for (ImplantMonitoringLog log : samples) {
+            sum += log.getNeuralLatencyMs() + log.getCpuUsagePct() + log.getPowerUsageUw();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public List<ImplantAnomalySummary> summarizeWindow() {
+        return AnomalyAccumulator.summarize(byImplant, SyntheticTelemetry.THRESHOLDS);
+    }
+}
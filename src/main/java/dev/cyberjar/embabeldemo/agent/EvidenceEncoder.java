@@ -0,0 +1,107 @@
+package dev.cyberjar.embabeldemo.agent;
+
+import dev.cyberjar.embabeldemo.incident.domain.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Compact text for prompt evidence: one line per fact, values factored out of repeated records,
+// implants grouped by lot/model/manufacturer and numbers rounded to what matters for the decision.
+// Numbers are always formatted with Locale.ROOT: the prompt must not change with the JVM's locale.
+final class EvidenceEncoder {
+
+    private EvidenceEncoder() {
+    }
+
+    static String signal(IncidentSignal signal) {
+        return String.format(Locale.ROOT, "area: %.5f,%.5f r=%.0fm\nwindow: %s..%s\nthresholds: %s",
+                signal.latitude(),
+                signal.longitude(),
+                signal.radiusMeters(),
+                signal.from(),
+                signal.to(),
+                signal.metrics().stream()
+                        .map(m -> m.metric() + ">=" + number(m.threshold()))
+                        .collect(Collectors.joining(", ")));
+    }
+
+    // the assessment's signal is the one encoded by signal(), so it is not repeated
+    static String assessment(IncidentAssessment assessment) {
+        StringBuilder out = new StringBuilder()
+                .append("risk: ").append(assessment.riskLevel())
+                .append(" (").append(assessment.numberOfLogs()).append(" implants in window)");
+
+        if (assessment.metrics() != null && !assessment.metrics().isEmpty()) {
+            out.append("\nmetric|exceeding samples|exceeding implants|risk");
+            for (MetricAssessment metric : assessment.metrics()) {
+                out.append('\n').append(metric.metric())
+                        .append('|').append(metric.exceedCount())
+                        .append('|').append(metric.implantsExceeding())
+                        .append('|').append(metric.riskLevel());
+            }
+        }
+        return out.toString();
+    }
+
+    // Scores as two-decimal fractions without the leading zero; per-metric scores only when there is more than one
+    static String affected(List<AffectedImplant> affected, int limit) {
+        if (affected.isEmpty()) return "affected: none";
+
+        List<AffectedImplant> top = affected.stream().limit(limit).toList();
+        List<String> metricNames = top.getFirst().metricScores() == null ? List.of()
+                : top.getFirst().metricScores().stream().map(MetricScore::metric).toList();
+        boolean perMetric = metricNames.size() > 1;
+
+        // manufacturer is part of the key: one manufacturer across lots and models points at ATTACK_PATTERN
+        Map<String, List<AffectedImplant>> byLotAndModel = new LinkedHashMap<>();
+        for (AffectedImplant implant : top) {
+            byLotAndModel.computeIfAbsent(
+                            "lot " + implant.lotNumber() + " " + implant.model() + " " + implant.manufacturer(),
+                            k -> new ArrayList<>())
+                    .add(implant);
+        }
+
+        StringBuilder out = new StringBuilder()
+                .append("affected: top ").append(top.size()).append(" of ").append(affected.size())
+                .append(" by score");
+        if (perMetric) out.append(" (max; ").append(String.join("/", metricNames)).append(')');
+
+        byLotAndModel.forEach((group, implants) -> {
+            out.append('\n').append(group).append(": ");
+            out.append(implants.stream()
+                    .map(implant -> implant.serialNumber() + " " + score(implant.anomalyScore())
+                            + (perMetric ? " " + implant.metricScores().stream()
+                            .map(s -> score(s.anomalyScore()))
+                            .collect(Collectors.joining("/")) : ""))
+                    .collect(Collectors.joining(", ")));
+        });
+        return out.toString();
+    }
+
+    static String hypothesis(RootCauseHypothesis hypothesis) {
+        String evidence = hypothesis.evidence() == null ? "" : String.join("; ", hypothesis.evidence());
+        return "%s confidence %s; evidence: %s".formatted(hypothesis.type(), score(hypothesis.confidence()), evidence);
+    }
+
+    static String blastRadius(EstimatedBlastRadius radius) {
+        return String.format(Locale.ROOT, "%d implants; lots %s; models %s; %s; %s",
+                radius.affectedImplantsEstimate(),
+                String.join(",", radius.affectedLots()),
+                String.join(",", radius.affectedModels()),
+                radius.geoSummary(),
+                radius.timeSummary());
+    }
+
+    private static String score(double value) {
+        String formatted = String.format(Locale.ROOT, "%.2f", value);
+        return formatted.startsWith("0.") ? formatted.substring(1) : formatted;
+    }
+
+    private static String number(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
@@ -0,0 +1,77 @@
+package dev.cyberjar.embabeldemo.agent;
+
+import dev.cyberjar.embabeldemo.incident.domain.*;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Builds the evidence prompts of the triage agent and records their estimated token count
+@Component
+public class IncidentPrompts {
+
+    // Implants listed in the hypothesis prompt; the rest only count towards the totals
+    static final int TOP_AFFECTED = 10;
+
+    private final MeterRegistry meterRegistry;
+
+    public IncidentPrompts(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public String rootCauseHypothesis(IncidentSignal signal,
+                                      IncidentAssessment assessment,
+                                      List<AffectedImplant> affectedImplants) {
+        String prompt = """
+                Based on the incident details, choose a root cause hypothesis.
+                
+                Rules:
+                - type must be one of: FIRMWARE_REGRESSION, BAD_LOT, ATTACK_PATTERN, ENVIRONMENTAL
+                - confidence is 0..1
+                - evidence is a short bullet list of specific signals from the inputs
+                
+                %s
+                %s
+                %s
+                """.formatted(
+                EvidenceEncoder.signal(signal),
+                EvidenceEncoder.assessment(assessment),
+                EvidenceEncoder.affected(affectedImplants, TOP_AFFECTED));
+
+        return recorded("makeRootCauseHypothesis", prompt);
+    }
+
+    public String containmentPlan(RiskLevel riskLevel,
+                                  RootCauseHypothesis hypothesis,
+                                  EstimatedBlastRadius radius) {
+        String prompt = """
+                Produce a ContainmentPlan JSON object.
+                
+                Rules:
+                - steps must be a list of objects like: { "text": "..." }
+                - 4-8 steps max, short imperative text
+                
+                Inputs:
+                - riskLevel: %s
+                - hypothesis: %s
+                - blastRadius: %s
+                """.formatted(riskLevel, EvidenceEncoder.hypothesis(hypothesis), EvidenceEncoder.blastRadius(radius));
+
+        return recorded("planContainment", prompt);
+    }
+
+    // Rough BPE estimate for English/JSON-ish text: about four characters per token
+    static int estimateTokens(String prompt) {
+        return (prompt.length() + 3) / 4;
+    }
+
+    private String recorded(String action, String prompt) {
+        DistributionSummary.builder("llm.prompt.tokens")
+                .tag("action", action)
+                .baseUnit("tokens")
+                .register(meterRegistry)
+                .record(estimateTokens(prompt));
+        return prompt;
+    }
+}
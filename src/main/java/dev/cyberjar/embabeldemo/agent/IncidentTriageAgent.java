@@ -5,69 +5,150 @@ import com.embabel.agent.api.annotation.Action;
 import com.embabel.agent.api.annotation.Agent;
 import com.embabel.agent.api.common.OperationContext;
 import com.embabel.agent.domain.io.UserInput;
-import dev.cyberjar.embabeldemo.civilian.domain.Civilian;
-import dev.cyberjar.embabeldemo.civilian.domain.Implant;
+import dev.cyberjar.embabeldemo.civilian.dto.ImplantOwner;
 import dev.cyberjar.embabeldemo.civilian.service.CivilianService;
+import dev.cyberjar.embabeldemo.implantlog.cache.LogWindowCache;
+import dev.cyberjar.embabeldemo.implantlog.cache.LogWindowKey;
 import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.domain.TelemetryMetric;
+import dev.cyberjar.embabeldemo.implantlog.dto.ImplantAnomalySummary;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricThreshold;
+import dev.cyberjar.embabeldemo.implantlog.scan.AnomalyAccumulator;
+import dev.cyberjar.embabeldemo.implantlog.scan.IncrementalAnomalyScanner;
 import dev.cyberjar.embabeldemo.implantlog.service.ImplantMonitoringLogService;
+import dev.cyberjar.embabeldemo.incident.classifier.RootCauseClassifier;
 import dev.cyberjar.embabeldemo.incident.domain.*;
+import dev.cyberjar.embabeldemo.incident.parser.IncidentSignalParser;
+import dev.cyberjar.embabeldemo.incident.service.IncidentCaseStore;
+import dev.cyberjar.embabeldemo.llm.service.LlmResponseCache;
+import dev.cyberjar.embabeldemo.utils.TaskScope;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.geo.Point;
+import reactor.core.publisher.Flux;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Agent(description = "Investigates and assesses implant telemetry anomalies in a geo/time window using MongoDB logs")
 public class IncidentTriageAgent {
 
     private final ImplantMonitoringLogService logService;
     private final CivilianService civilianService;
-
-    public IncidentTriageAgent(ImplantMonitoringLogService logService, CivilianService civilianService) {
+    private final LogWindowCache logWindowCache;
+    private final IncrementalAnomalyScanner incrementalScanner;
+    private final IncidentSignalParser signalParser;
+    private final LlmResponseCache llmCache;
+    private final IncidentPrompts prompts;
+    private final RootCauseClassifier rootCauseClassifier;
+    private final IncidentCaseStore incidentCaseStore;
+    private final TriageMetrics triageMetrics;
+    private final TriageMode triageMode;
+    private final long streamingThreshold;
+    private final TriageExecution execution;
+    private final TriageIo io;
+    private final int ownerLookupBatchSize;
+    private final int maxConcurrency;
+
+    public IncidentTriageAgent(ImplantMonitoringLogService logService,
+                               CivilianService civilianService,
+                               LogWindowCache logWindowCache,
+                               IncrementalAnomalyScanner incrementalScanner,
+                               IncidentSignalParser signalParser,
+                               LlmResponseCache llmCache,
+                               IncidentPrompts prompts,
+                               RootCauseClassifier rootCauseClassifier,
+                               IncidentCaseStore incidentCaseStore,
+                               TriageMetrics triageMetrics,
+                               @Value("${app.triage.mode:logs}") TriageMode triageMode,
+                               @Value("${app.triage.streaming-threshold:200000}") long streamingThreshold,
+                               @Value("${app.triage.execution:sequential}") TriageExecution execution,
+                               @Value("${app.triage.io:blocking}") TriageIo io,
+                               @Value("${app.triage.owner-lookup-batch-size:500}") int ownerLookupBatchSize,
+                               @Value("${app.triage.max-concurrency:8}") int maxConcurrency) {
         this.logService = logService;
         this.civilianService = civilianService;
+        this.logWindowCache = logWindowCache;
+        this.incrementalScanner = incrementalScanner;
+        this.signalParser = signalParser;
+        this.llmCache = llmCache;
+        this.prompts = prompts;
+        this.rootCauseClassifier = rootCauseClassifier;
+        this.incidentCaseStore = incidentCaseStore;
+        this.triageMetrics = triageMetrics;
+        this.triageMode = triageMode;
+        this.streamingThreshold = streamingThreshold;
+        this.execution = execution;
+        this.io = io;
+        this.ownerLookupBatchSize = ownerLookupBatchSize;
+        this.maxConcurrency = maxConcurrency;
     }
 
 
     @Action(description = "Parse user's message into an IncidentSignal")
     public IncidentSignal parseIncidentSignal(UserInput input, OperationContext context) {
-        return context.ai().withDefaultLlm().createObject(
-                """
-                        Extract an IncidentSignal from the user's message.
-                        
-                        Output rules:
-                        - lon is a number in [-180, 180]
-                        - lat is a number in [-90, 90]
-                        - radiusMeters is a number in meters
-                        - from/to are ISO-8601 LocalDateTime (e.g. 2026-02-02T02:00:00)
-                        - metric is one of: neuralLatencyMs, cpuUsagePct, powerUsageUw
-                        - threshold is a finite number
-                        
-                        User message:
-                        %s
-                        """.formatted(input.getContent()), IncidentSignal.class);
-
+        return action("parseIncidentSignal", context, () -> {
+            // Structured prompts are parsed deterministically; only free-form text goes to the LLM
+            Optional<IncidentSignal> parsed = signalParser.parse(input.getContent());
+            if (parsed.isPresent()) return parsed.get();
+
+            // today is part of the prompt, so cached answers to relative dates ("yesterday") expire with the day
+            String prompt = """
+                            Extract an IncidentSignal from the user's message.
+                            Today is %s.
+                            
+                            Output rules:
+                            - lon is a number in [-180, 180]
+                            - lat is a number in [-90, 90]
+                            - radiusMeters is a number in meters
+                            - from/to are ISO-8601 LocalDateTime (e.g. 2026-02-02T02:00:00)
+                            - metrics is a non-empty list of { "metric": ..., "threshold": ... } objects,
+                              one per metric the user asks about
+                            - metric is one of: neuralLatencyMs, cpuUsagePct, powerUsageUw
+                            - threshold is a finite number
+                            
+                            User message:
+                            %s
+                            """.formatted(LocalDate.now(), input.getContent());
+
+            return llmCache.getOrCreate("parseIncidentSignal", prompt, IncidentSignal.class,
+                    () -> context.ai().withDefaultLlm().createObject(prompt, IncidentSignal.class));
+        });
     }
 
     @Action(description = "Classify risk level for a signal using logs")
-    public IncidentAssessment triageIncident(IncidentSignal signal) {
-        Map<String, List<ImplantMonitoringLog>> logs = extractLogs(signal);
-
-        RiskLevel risk = classifyRisk(logs, signal);
-
-        return new IncidentAssessment(signal, logs.size(), risk);
+    public IncidentAssessment triageIncident(IncidentSignal signal, OperationContext context) {
+        return action("triageIncident", context, () -> {
+            // A fresh case for an equivalent signal answers every later action of this run as well
+            Optional<IncidentCase> recalled = recall(signal, context);
+            if (recalled.isPresent()) return recalled.get().assessment();
+
+            if (execution == TriageExecution.SEQUENTIAL) return assess(signal, context);
+
+            // Affected implants only depend on the signal too: gather them alongside, findAffectedImplants then
+            // picks them up from the run cache. Both share the single window query of this run.
+            try (TaskScope scope = TaskScope.open("triage")) {
+                Supplier<IncidentAssessment> assessment = scope.fork(() -> assess(signal, context));
+                scope.fork(() -> affectedImplants(signal, context));
+
+                scope.join();
+                return assessment.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Triage interrupted");
+            }
+        });
     }
 
     @Action(description = "Find implants affected by the anomaly and assign anomaly scores")
-    public List<AffectedImplant> findAffectedImplants(IncidentSignal signal) {
-
-        Map<String, List<ImplantMonitoringLog>> logs = extractLogs(signal);
-
-        return logs.entrySet().stream()
-                .map(entry -> toAffectedImplant(entry.getKey(), entry.getValue(), signal))
-                .sorted(Comparator.comparingDouble(AffectedImplant::anomalyScore).reversed())
-                .toList();
-
-
+    public List<AffectedImplant> findAffectedImplants(IncidentSignal signal, OperationContext context) {
+        return action("findAffectedImplants", context, () -> recall(signal, context)
+                .map(IncidentCase::affected)
+                .orElseGet(() -> affectedImplants(signal, context)));
     }
 
     @Action(description = "Infer a root cause hypothesis from the evidence")
@@ -76,21 +157,19 @@ public class IncidentTriageAgent {
                                                        List<AffectedImplant> affectedImplants,
                                                        OperationContext context) {
 
-        return context.ai().withDefaultLlm().createObject(
-                """
-                        Based on the incident details, choose a root cause hypothesis.
-                        
-                        Rules:
-                        - type must be one of: FIRMWARE_REGRESSION, BAD_LOT, ATTACK_PATTERN, ENVIRONMENTAL
-                        - confidence is 0..1
-                        - evidence is a short bullet list of specific signals from the inputs
-                        
-                        IncidentSignal: %s
-                        Triage: %s
-                        Top affected implants: %s
-                        """.formatted(signal, assessment, affectedImplants.stream().limit(10).toList()),
-                RootCauseHypothesis.class
-        );
+        return action("makeRootCauseHypothesis", context, () -> {
+            Optional<IncidentCase> recalled = recall(signal, context);
+            if (recalled.isPresent()) return recalled.get().hypothesis();
+
+            // Conclusive lot or fleet-wide patterns are decided from the evidence; only ambiguous cases reach the LLM
+            Optional<RootCauseHypothesis> classified = rootCauseClassifier.classify(affectedImplants);
+            if (classified.isPresent()) return classified.get();
+
+            String prompt = prompts.rootCauseHypothesis(signal, assessment, affectedImplants);
+
+            return llmCache.getOrCreate("makeRootCauseHypothesis", prompt, RootCauseHypothesis.class,
+                    () -> context.ai().withDefaultLlm().createObject(prompt, RootCauseHypothesis.class));
+        });
     }
 
     @Action(description = "Create a containment plan based on the hypothesis and blast radius")
@@ -100,28 +179,22 @@ public class IncidentTriageAgent {
             List<AffectedImplant> affectedImplants,
             OperationContext context) {
 
-        boolean requiresApproval =
-                assessment.riskLevel() == RiskLevel.HIGH
-                        || assessment.riskLevel() == RiskLevel.CRITICAL
-                        || hypothesis.type() == HypothesisType.ATTACK_PATTERN;
-
-        EstimatedBlastRadius radius = estimateRadius(assessment.signal(), affectedImplants);
-
-        return context.ai().withDefaultLlm().createObject(
-                """
-                Produce a ContainmentPlan JSON object.
-    
-                Rules:
-                - steps must be a list of objects like: { "text": "..." }
-                - 4-8 steps max, short imperative text
-    
-                Inputs:
-                - riskLevel: %s
-                - hypothesis: %s
-                - blastRadius: %s
-                """.formatted(assessment.riskLevel(), hypothesis, radius),
-                ContainmentPlan.class
-        );
+        return action("planContainment", context, () -> {
+            Optional<IncidentCase> recalled = recall(assessment.signal(), context);
+            if (recalled.isPresent()) return recalled.get().plan();
+
+            boolean requiresApproval =
+                    assessment.riskLevel() == RiskLevel.HIGH
+                            || assessment.riskLevel() == RiskLevel.CRITICAL
+                            || hypothesis.type() == HypothesisType.ATTACK_PATTERN;
+
+            EstimatedBlastRadius radius = estimateRadius(assessment.signal(), affectedImplants);
+
+            String prompt = prompts.containmentPlan(assessment.riskLevel(), hypothesis, radius);
+
+            return llmCache.getOrCreate("planContainment", prompt, ContainmentPlan.class,
+                    () -> context.ai().withDefaultLlm().createObject(prompt, ContainmentPlan.class));
+        });
     }
 
     @AchievesGoal(description = "Investigate an incident signal and produce a complete incident case",
@@ -135,25 +208,146 @@ public class IncidentTriageAgent {
             IncidentAssessment assessment,
             List<AffectedImplant> affected,
             RootCauseHypothesis hypothesis,
-            ContainmentPlan plan) {
-
-        return new IncidentCase(
-                UUID.randomUUID().toString(),
-                Instant.now(),
-                signal,
-                assessment,
-                affected,
-                hypothesis,
-                plan
-        );
+            ContainmentPlan plan,
+            OperationContext context) {
+
+        return action("buildIncidentCase", context, () -> {
+            try {
+                Optional<IncidentCase> recalled = recall(signal, context);
+                triageMetrics.incidentBuilt();
+
+                if (recalled.isPresent()) return recalled.get();
+
+                return incidentCaseStore.save(new IncidentCase(
+                        UUID.randomUUID().toString(),
+                        IncidentCaseStore.fingerprint(signal),
+                        Instant.now(),
+                        signal,
+                        assessment,
+                        affected,
+                        hypothesis,
+                        plan
+                ));
+            } finally {
+                release(context);
+            }
+        });
     }
 
 
     // helper methods
 
 
-    private EstimatedBlastRadius estimateRadius(IncidentSignal signal,
-                                                List<AffectedImplant> affectedImplants) {
+    // A failed action fails the run, so buildIncidentCase never gets to release its scopes: release them here
+    private <T> T action(String name, OperationContext context, Supplier<T> body) {
+        try {
+            return triageMetrics.timeAction(name, body);
+        } catch (RuntimeException | Error e) {
+            release(context);
+            throw e;
+        }
+    }
+
+    private void release(OperationContext context) {
+        logWindowCache.release(runId(context));
+        incidentCaseStore.release(runId(context));
+    }
+
+    private IncidentAssessment assess(IncidentSignal signal, OperationContext context) {
+        List<MetricThreshold> thresholds = resolveThresholds(signal);
+        List<ImplantAnomalySummary> summaries = evaluate(signal, thresholds, context);
+
+        List<MetricAssessment> metrics = new ArrayList<>(thresholds.size());
+        for (int i = 0; i < thresholds.size(); i++) {
+            metrics.add(assessMetric(thresholds.get(i), i, summaries));
+        }
+
+        RiskLevel risk = metrics.stream()
+                .map(MetricAssessment::riskLevel)
+                .max(Comparator.naturalOrder())
+                .orElse(RiskLevel.LOW);
+
+        return new IncidentAssessment(signal, summaries.size(), risk, metrics);
+    }
+
+    private List<AffectedImplant> affectedImplants(IncidentSignal signal, OperationContext context) {
+        List<MetricThreshold> thresholds = resolveThresholds(signal);
+        Point center = toSpringPoint(signal.longitude(), signal.latitude());
+        LogWindowKey key = LogWindowKey.of(center, signal.radiusMeters(), signal.from(), signal.to());
+
+        return logWindowCache.getOrLoad(runId(context), key, "affected:" + thresholdsKey(thresholds), () -> {
+            List<ImplantAnomalySummary> summaries = evaluate(signal, thresholds, context);
+
+            Map<String, ImplantOwner> owners = findOwners(
+                    summaries.stream().map(ImplantAnomalySummary::implantSerialNumber).toList());
+            triageMetrics.matched(summaries.size(),
+                    (int) owners.values().stream().map(ImplantOwner::civilianNationalId).distinct().count());
+
+            return rankAffected(summaries, owners);
+        });
+    }
+
+    // One bulk lookup for all serials instead of one civilian query per implant; in concurrent mode large
+    // windows are split into batches looked up in parallel, at most maxConcurrency at a time
+    private Map<String, ImplantOwner> findOwners(List<String> serialNumbers) {
+        if (io == TriageIo.REACTIVE) return findOwnersReactive(serialNumbers);
+
+        if (execution == TriageExecution.SEQUENTIAL || serialNumbers.size() <= ownerLookupBatchSize) {
+            return civilianService.findImplantOwnersBySerialNumbers(serialNumbers);
+        }
+
+        Semaphore permits = new Semaphore(maxConcurrency);
+        List<Supplier<Map<String, ImplantOwner>>> batches = new ArrayList<>();
+
+        try (TaskScope scope = TaskScope.open("owner-lookup")) {
+            for (int from = 0; from < serialNumbers.size(); from += ownerLookupBatchSize) {
+                List<String> batch = serialNumbers.subList(from, Math.min(from + ownerLookupBatchSize, serialNumbers.size()));
+
+                batches.add(scope.fork(() -> {
+                    permits.acquire();
+                    try {
+                        return civilianService.findImplantOwnersBySerialNumbers(batch);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            scope.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Owner lookup interrupted");
+        }
+
+        Map<String, ImplantOwner> owners = new HashMap<>();
+        batches.forEach(batch -> owners.putAll(batch.get()));
+        return owners;
+    }
+
+    // Same batches, fanned out over the reactive driver instead of virtual threads: flatMap keeps at most
+    // maxConcurrency lookups in flight and only requests the next batch when one completes
+    private Map<String, ImplantOwner> findOwnersReactive(List<String> serialNumbers) {
+        int concurrency = execution == TriageExecution.SEQUENTIAL ? 1 : maxConcurrency;
+        int batches = (serialNumbers.size() + ownerLookupBatchSize - 1) / ownerLookupBatchSize;
+
+        return Flux.range(0, batches)
+                .map(i -> serialNumbers.subList(
+                        i * ownerLookupBatchSize,
+                        Math.min((i + 1) * ownerLookupBatchSize, serialNumbers.size())))
+                .flatMap(civilianService::findImplantOwnersBySerialNumbersReactive, concurrency)
+                .collectMap(ImplantOwner::serialNumber)
+                .block();
+    }
+
+    // rankAffected, estimateRadius, calculateAnomalyScore and classifyRisk are package-private for the JMH suite (src/jmh)
+    static List<AffectedImplant> rankAffected(List<ImplantAnomalySummary> summaries, Map<String, ImplantOwner> owners) {
+        return summaries.stream()
+                .map(summary -> toAffectedImplant(summary, owners))
+                .sorted(Comparator.comparingDouble(AffectedImplant::anomalyScore).reversed())
+                .toList();
+    }
+
+    static EstimatedBlastRadius estimateRadius(IncidentSignal signal,
+                                               List<AffectedImplant> affectedImplants) {
 
         if (affectedImplants == null) affectedImplants = List.of();
 
@@ -173,8 +367,9 @@ public class IncidentTriageAgent {
                 .limit(5)
                 .toList();
 
-        String geoSummary = "Within %.0fm of (%.5f, %.5f)"
-                .formatted(signal.radiusMeters(), signal.latitude(), signal.longitude());
+        // part of the containment-plan prompt, which must not change with the JVM's locale (see EvidenceEncoder)
+        String geoSummary = String.format(Locale.ROOT, "Within %.0fm of (%.5f, %.5f)",
+                signal.radiusMeters(), signal.latitude(), signal.longitude());
 
         String timeSummary = "From %s to %s".formatted(signal.from(), signal.to());
 
@@ -188,104 +383,218 @@ public class IncidentTriageAgent {
     }
 
 
-    private AffectedImplant toAffectedImplant(
-            String serialNumber,
-            List<ImplantMonitoringLog> logsPerImplant,
-            IncidentSignal signal) {
-
-
-        if (logsPerImplant == null || logsPerImplant.isEmpty()) {
-            // No logs means no evidence; score 0, rest unknown.
-            return new AffectedImplant(
-                    serialNumber,
-                    null,
-                    null,
-                    null,
-                    0.0);
-        }
+    private static AffectedImplant toAffectedImplant(
+            ImplantAnomalySummary summary,
+            Map<String, ImplantOwner> owners) {
 
-        double anomalyScore = calculateAnomalyScore(logsPerImplant, signal);
+        String serialNumber = summary.implantSerialNumber();
 
-        Optional<Civilian> civilian = civilianService.findCivilianByImplantSerialNumber(serialNumber);
-        if (civilian.isEmpty()) {
+        ImplantOwner owner = owners.get(serialNumber);
+        if (owner == null) {
             throw new RuntimeException("No civilian found for implant serial number " + serialNumber);
         }
 
-        Civilian c = civilian.get();
-        String civilianNationalId = c.getNationalId();
-
-        Implant implant = c.getImplants()
-                .stream()
-                .filter(i -> serialNumber.equals(i.getSerialNumber()))
-                .findFirst()
-                .orElseThrow();
+        List<MetricScore> metricScores = summary.metrics().stream()
+                .map(m -> new MetricScore(
+                        m.metric().field(),
+                        m.maxValue(),
+                        calculateAnomalyScore(m.maxValue(), m.threshold())))
+                .toList();
 
+        double anomalyScore = metricScores.stream()
+                .mapToDouble(MetricScore::anomalyScore)
+                .max()
+                .orElse(0.0);
 
-        String lotNumber = String.valueOf(implant.getLotNumber());
-        String model = implant.getModel();
+        String lotNumber = String.valueOf(owner.lotNumber());
 
         return new AffectedImplant(
                 serialNumber,
                 lotNumber,
-                model,
-                civilianNationalId,
-                anomalyScore);
+                owner.model(),
+                owner.manufacturer(),
+                owner.civilianNationalId(),
+                anomalyScore,
+                metricScores);
 
     }
 
-    private double calculateAnomalyScore(List<ImplantMonitoringLog> logsPerImplant, IncidentSignal signal) {
+    static double calculateAnomalyScore(double max, double threshold) {
 
-        double threshold = signal.threshold();
         if (threshold <= 0.0) return 0.0;
-
-        double max = logsPerImplant.stream()
-                .mapToDouble(l -> getMetricValue(l, signal.metric()))
-                .max()
-                .orElse(0.0);
-
         if (max <= threshold) return 0.0;
 
         double score = (max - threshold) / threshold; // exceed ratio
         return Math.min(1.0, score);
     }
 
-    private Map<String, List<ImplantMonitoringLog>> extractLogs(IncidentSignal signal) {
-        return logService.findLogsByAreaAndTime(
-                toSpringPoint(signal.longitude(), signal.latitude()),
+    private Map<String, List<ImplantMonitoringLog>> extractLogs(IncidentSignal signal, OperationContext context) {
+        Point center = toSpringPoint(signal.longitude(), signal.latitude());
+        LogWindowKey key = LogWindowKey.of(center, signal.radiusMeters(), signal.from(), signal.to());
+
+        return logWindowCache.getOrLoad(runId(context), key, () -> logService.findLogsByAreaAndTime(
+                center,
+                signal.radiusMeters(),
+                signal.from(),
+                signal.to()));
+    }
+
+    // Every requested metric is evaluated in the same pass, whichever source answers the window
+    private List<ImplantAnomalySummary> evaluate(IncidentSignal signal,
+                                                 List<MetricThreshold> thresholds,
+                                                 OperationContext context) {
+        if (usesSummaries(signal, context)) return extractSummaries(signal, thresholds, context);
+
+        Point center = toSpringPoint(signal.longitude(), signal.latitude());
+        LogWindowKey key = LogWindowKey.of(center, signal.radiusMeters(), signal.from(), signal.to());
+
+        // reactive: logs are folded into accumulators as they stream in; only the per-implant result is waited for
+        if (io == TriageIo.REACTIVE) {
+            return logWindowCache.getOrLoad(runId(context), key, "logs-summary:" + thresholdsKey(thresholds),
+                    () -> triageMetrics.scanned(logService.summarizeLogsByAreaAndTimeReactive(
+                            center,
+                            signal.radiusMeters(),
+                            signal.from(),
+                            signal.to(),
+                            thresholds).collectList().block()));
+        }
+
+        return logWindowCache.getOrLoad(runId(context), key, "logs-summary:" + thresholdsKey(thresholds),
+                () -> triageMetrics.scanned(AnomalyAccumulator.summarize(extractLogs(signal, context), thresholds)));
+    }
+
+    private List<ImplantAnomalySummary> extractSummaries(IncidentSignal signal,
+                                                         List<MetricThreshold> thresholds,
+                                                         OperationContext context) {
+        Point center = toSpringPoint(signal.longitude(), signal.latitude());
+        LogWindowKey key = LogWindowKey.of(center, signal.radiusMeters(), signal.from(), signal.to());
+        String view = "summary:" + thresholdsKey(thresholds);
+
+        if (triageMode == TriageMode.INCREMENTAL) {
+            return logWindowCache.getOrLoad(runId(context), key, view, () -> incrementalScanner.summarize(
+                    center,
+                    signal.radiusMeters(),
+                    signal.from(),
+                    signal.to(),
+                    thresholds,
+                    triageMetrics::scanned));
+        }
+
+        if (io == TriageIo.REACTIVE) {
+            return logWindowCache.getOrLoad(runId(context), key, view, () -> triageMetrics.scanned(
+                    summariesReactive(signal, center, thresholds).collectList().block()));
+        }
+
+        // In LOGS mode summaries are only used for windows too large to materialise: stream those from a cursor
+        if (triageMode == TriageMode.LOGS) {
+            return logWindowCache.getOrLoad(runId(context), key, view, () -> triageMetrics.scanned(
+                    logService.streamAnomalySummariesByAreaAndTime(
+                            center,
+                            signal.radiusMeters(),
+                            signal.from(),
+                            signal.to(),
+                            thresholds)));
+        }
+
+        return logWindowCache.getOrLoad(runId(context), key, view, () -> triageMetrics.scanned(
+                logService.summarizeAnomaliesByAreaAndTime(
+                        center,
+                        signal.radiusMeters(),
+                        signal.from(),
+                        signal.to(),
+                        thresholds)));
+    }
+
+    private Flux<ImplantAnomalySummary> summariesReactive(IncidentSignal signal,
+                                                          Point center,
+                                                          List<MetricThreshold> thresholds) {
+        if (triageMode == TriageMode.LOGS) {
+            return logService.streamAnomalySummariesByAreaAndTimeReactive(
+                    center,
+                    signal.radiusMeters(),
+                    signal.from(),
+                    signal.to(),
+                    thresholds);
+        }
+
+        return logService.summarizeAnomaliesByAreaAndTimeReactive(
+                center,
                 signal.radiusMeters(),
                 signal.from(),
-                signal.to());
+                signal.to(),
+                thresholds);
     }
 
-    private static RiskLevel classifyRisk(
-            Map<String, List<ImplantMonitoringLog>> logs,
-            IncidentSignal signal) {
+    private boolean usesSummaries(IncidentSignal signal, OperationContext context) {
+        return triageMode != TriageMode.LOGS || isLargeWindow(signal, context);
+    }
 
-        if (logs.isEmpty()) return RiskLevel.LOW;
+    private boolean isLargeWindow(IncidentSignal signal, OperationContext context) {
+        Point center = toSpringPoint(signal.longitude(), signal.latitude());
+        LogWindowKey key = LogWindowKey.of(center, signal.radiusMeters(), signal.from(), signal.to());
+
+        long count = logWindowCache.getOrLoad(runId(context), key, "count", () -> io == TriageIo.REACTIVE
+                ? logService.countLogsByAreaAndTimeReactive(
+                        center,
+                        signal.radiusMeters(),
+                        signal.from(),
+                        signal.to(),
+                        streamingThreshold + 1).block()
+                : logService.countLogsByAreaAndTime(
+                        center,
+                        signal.radiusMeters(),
+                        signal.from(),
+                        signal.to(),
+                        streamingThreshold + 1));
+
+        return count > streamingThreshold;
+    }
+
+    private Optional<IncidentCase> recall(IncidentSignal signal, OperationContext context) {
+        return incidentCaseStore.recall(runId(context), signal);
+    }
 
-        long distinctImplants = logs.size();
+    private static String runId(OperationContext context) {
+        return context.getProcessContext().getAgentProcess().getId();
+    }
 
-        long exceedCount = logs.values()
-                .stream()
-                .flatMap(List::stream)
-                .mapToDouble(log -> getMetricValue(log, signal.metric()))
-                .filter(value -> value >= signal.threshold())
-                .count();
+    // Metric accessors are resolved here, once per action, never per sample
+    private static List<MetricThreshold> resolveThresholds(IncidentSignal signal) {
+        return signal.metrics().stream()
+                .map(c -> new MetricThreshold(TelemetryMetric.fromField(c.metric()), c.threshold()))
+                .toList();
+    }
+
+    private static String thresholdsKey(List<MetricThreshold> thresholds) {
+        return thresholds.stream()
+                .map(t -> t.metric().field() + ">=" + t.threshold())
+                .collect(Collectors.joining(","));
+    }
+
+    private static MetricAssessment assessMetric(MetricThreshold threshold,
+                                                 int index,
+                                                 List<ImplantAnomalySummary> summaries) {
+        long exceedCount = 0;
+        int implantsExceeding = 0;
+
+        for (ImplantAnomalySummary summary : summaries) {
+            long exceeded = summary.metrics().get(index).exceedCount();
+            exceedCount += exceeded;
+            if (exceeded > 0) implantsExceeding++;
+        }
 
+        RiskLevel risk = summaries.isEmpty() ? RiskLevel.LOW : classifyRisk(exceedCount, summaries.size());
 
-        if (exceedCount >= 60 && distinctImplants >= 5) return RiskLevel.CRITICAL;
-        if (exceedCount >= 30 && distinctImplants >= 3) return RiskLevel.HIGH;
-        if (exceedCount >= 10) return RiskLevel.MEDIUM;
-        return RiskLevel.LOW;
+        return new MetricAssessment(
+                threshold.metric().field(),
+                threshold.threshold(),
+                exceedCount,
+                implantsExceeding,
+                risk);
     }
 
-    private static double getMetricValue(ImplantMonitoringLog log, String metric) {
-        return switch (metric) {
-            case "neuralLatencyMs" -> log.getNeuralLatencyMs();
-            case "cpuUsagePct" -> log.getCpuUsagePct();
-            case "powerUsageUw" -> log.getPowerUsageUw();
-            default -> 0.0;
-        };
+    static RiskLevel classifyRisk(long exceedCount, long distinctImplants) {
+        return RiskLevel.classify(exceedCount, distinctImplants);
     }
 
     private static Point toSpringPoint(double lon, double lat) {
@@ -0,0 +1,70 @@
+package dev.cyberjar.embabeldemo.agent;
+
+import com.embabel.agent.api.common.autonomy.AgentInvocation;
+import com.embabel.agent.core.AgentPlatform;
+import dev.cyberjar.embabeldemo.incident.domain.IncidentCase;
+import dev.cyberjar.embabeldemo.subscription.dto.SubscriptionAlert;
+import dev.cyberjar.embabeldemo.subscription.service.SubscriptionAlertHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Runs IncidentTriageAgent for subscription alerts, each on its own virtual thread. The alert's signal is bound as
+// the run input, so parseIncidentSignal (and its LLM call) is skipped. At most max-concurrent-triages runs are in
+// flight; further alerts are declined and fire again on the subscription's next sample.
+@Component
+public class SubscriptionTriageLauncher implements SubscriptionAlertHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(SubscriptionTriageLauncher.class);
+
+    private final AgentPlatform agentPlatform;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("subscription-triage-", 0).factory());
+
+    private final Counter completed;
+    private final Counter failed;
+
+    public SubscriptionTriageLauncher(AgentPlatform agentPlatform,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.subscriptions.max-concurrent-triages:2}") int maxConcurrentTriages) {
+        this.agentPlatform = agentPlatform;
+        this.permits = new Semaphore(maxConcurrentTriages);
+        this.completed = meterRegistry.counter("subscription.triages", "outcome", "completed");
+        this.failed = meterRegistry.counter("subscription.triages", "outcome", "failed");
+    }
+
+    @Override
+    public boolean onAlert(SubscriptionAlert alert) {
+        if (!permits.tryAcquire()) return false;
+
+        executor.execute(() -> {
+            try {
+                IncidentCase incidentCase = AgentInvocation.create(agentPlatform, IncidentCase.class)
+                        .invoke(alert.signal());
+                completed.increment();
+                log.info("Subscription {} triaged as incident case {} ({})",
+                        alert.subscription().name(), incidentCase.id(), incidentCase.assessment().riskLevel());
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.warn("Triage for subscription {} failed: {}", alert.subscription().name(), e.getMessage());
+            } finally {
+                permits.release();
+            }
+        });
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,8 @@
+package dev.cyberjar.embabeldemo.agent;
+
+public enum TriageExecution {
+    // Each action gathers its own data when the planner runs it
+    SEQUENTIAL,
+    // The first data-gathering action forks the independent ones on virtual threads; later actions hit the run cache
+    CONCURRENT
+}
@@ -0,0 +1,10 @@
+package dev.cyberjar.embabeldemo.agent;
+
+public enum TriageIo {
+    // MongoTemplate: the calling thread waits on every round trip
+    BLOCKING,
+    // ReactiveMongoTemplate: Mongo I/O runs on the driver's event loop and raw logs are reduced as they stream in.
+    // Embabel actions are synchronous, so the agent itself stays blocking: each action waits once for the reduced,
+    // per-implant result (summaries, owners), never for a materialised window of logs
+    REACTIVE
+}
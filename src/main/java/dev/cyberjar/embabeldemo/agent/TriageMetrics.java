@@ -0,0 +1,66 @@
+package dev.cyberjar.embabeldemo.agent;
+
+import dev.cyberjar.embabeldemo.implantlog.dto.ImplantAnomalySummary;
+import dev.cyberjar.embabeldemo.metrics.StartupTimings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+// Per-action timers and counters for what a triage run touched. Counters are only fed from cache loaders,
+// so a window served from the run cache is not counted twice.
+@Component
+public class TriageMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Counter logsScanned;
+    private final Counter implantsMatched;
+    private final Counter civiliansResolved;
+    private final StartupTimings startupTimings;
+
+    public TriageMetrics(MeterRegistry meterRegistry, StartupTimings startupTimings) {
+        this.meterRegistry = meterRegistry;
+        this.startupTimings = startupTimings;
+        this.logsScanned = meterRegistry.counter("incident.logs.scanned");
+        this.implantsMatched = meterRegistry.counter("incident.implants.matched");
+        this.civiliansResolved = meterRegistry.counter("incident.civilians.resolved");
+    }
+
+    public <T> T timeAction(String action, Supplier<T> body) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = body.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder("incident.action")
+                    .tag("action", action)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    public List<ImplantAnomalySummary> scanned(List<ImplantAnomalySummary> summaries) {
+        logsScanned.increment(summaries.stream().mapToLong(ImplantAnomalySummary::sampleCount).sum());
+        return summaries;
+    }
+
+    // for loaders that merge cached partial results: only what was actually read counts as scanned
+    public void scanned(long samples) {
+        logsScanned.increment(samples);
+    }
+
+    public void matched(int implants, int civilians) {
+        implantsMatched.increment(implants);
+        civiliansResolved.increment(civilians);
+    }
+
+    public void incidentBuilt() {
+        startupTimings.incidentBuilt();
+    }
+}
@@ -0,0 +1,11 @@
+package dev.cyberjar.embabeldemo.agent;
+
+public enum TriageMode {
+    // Full log documents are loaded and reduced in the JVM
+    LOGS,
+    // Per-implant max/exceed counts are reduced inside Mongo
+    SUMMARY,
+    // Like SUMMARY, but per-implant accumulators of fixed time slices are kept across runs and merged:
+    // repeated or sliding windows only scan slices no earlier window covered
+    INCREMENTAL
+}
@@ -21,6 +21,8 @@ public class Civilian {
     private String nationalId;
     private LocalDate birthDate;
     private boolean criminalRecord;
+    // serves findAllByUnderSurveillance
+    @Indexed
     private boolean underSurveillance;
     @CreatedDate
     private final LocalDateTime registeredInSystemAt;
@@ -0,0 +1,8 @@
+package dev.cyberjar.embabeldemo.civilian.dto;
+
+public record ImplantOwner(String serialNumber,
+                           String civilianNationalId,
+                           int lotNumber,
+                           String model,
+                           String manufacturer) {
+}
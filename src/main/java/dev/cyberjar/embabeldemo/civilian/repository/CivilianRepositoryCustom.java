@@ -2,14 +2,19 @@ package dev.cyberjar.embabeldemo.civilian.repository;
 
 
 import dev.cyberjar.embabeldemo.civilian.domain.Civilian;
+import dev.cyberjar.embabeldemo.civilian.dto.ImplantOwner;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface CivilianRepositoryCustom {
 
     Optional<Civilian> findCivilianByImplantSerialNumber(String implantSerialNumber);
 
+    Map<String, ImplantOwner> findImplantOwnersBySerialNumbers(Collection<String> implantSerialNumbers);
+
     List<Civilian> findAllByImplantLotNumber(int lotNumber);
 
     List<Civilian> findAllByImplantLotNumberGreaterThanEqual(int lotNumber);
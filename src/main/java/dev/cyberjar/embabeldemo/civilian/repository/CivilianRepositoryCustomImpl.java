@@ -1,12 +1,18 @@
 package dev.cyberjar.embabeldemo.civilian.repository;
 
 import dev.cyberjar.embabeldemo.civilian.domain.Civilian;
+import dev.cyberjar.embabeldemo.civilian.dto.ImplantOwner;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
@@ -25,6 +31,39 @@ public class CivilianRepositoryCustomImpl implements CivilianRepositoryCustom {
         return Optional.ofNullable(mongoTemplate.findOne(query, Civilian.class));
     }
 
+    @Override
+    public Map<String, ImplantOwner> findImplantOwnersBySerialNumbers(Collection<String> implantSerialNumbers) {
+        if (implantSerialNumbers.isEmpty()) return Map.of();
+
+        AggregationResults<ImplantOwner> results = mongoTemplate.aggregate(
+                implantOwnersAggregation(implantSerialNumbers), Civilian.class, ImplantOwner.class);
+
+        Map<String, ImplantOwner> owners = new HashMap<>();
+        for (ImplantOwner owner : results.getMappedResults()) {
+            owners.put(owner.serialNumber(), owner);
+        }
+
+        return owners;
+    }
+
+    // also run by ReactiveCivilianRepository
+    static Aggregation implantOwnersAggregation(Collection<String> implantSerialNumbers) {
+        Criteria serialIn = Criteria.where("implants.serialNumber").in(implantSerialNumbers);
+
+        // First match narrows civilians (index on implants.serialNumber), second one drops their other implants
+        return Aggregation.newAggregation(
+                Aggregation.match(serialIn),
+                Aggregation.unwind("implants"),
+                Aggregation.match(serialIn),
+                Aggregation.project()
+                        .andExclude("_id")
+                        .and("implants.serialNumber").as("serialNumber")
+                        .and("nationalId").as("civilianNationalId")
+                        .and("implants.lotNumber").as("lotNumber")
+                        .and("implants.model").as("model")
+                        .and("implants.manufacturer").as("manufacturer"));
+    }
+
     @Override
     public List<Civilian> findAllByImplantLotNumber(int lotNumber) {
         Query query = new Query(Criteria.where("implants.lotNumber").is(lotNumber));
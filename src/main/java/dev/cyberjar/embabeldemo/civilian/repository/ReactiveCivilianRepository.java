@@ -0,0 +1,33 @@
+package dev.cyberjar.embabeldemo.civilian.repository;
+
+import dev.cyberjar.embabeldemo.civilian.domain.Civilian;
+import dev.cyberjar.embabeldemo.civilian.dto.ImplantOwner;
+import dev.cyberjar.embabeldemo.metrics.RepositoryInvocationTimer;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+// Non-blocking owner resolution, same pipeline as CivilianRepositoryCustomImpl, timed like the Spring Data repositories
+@Repository
+public class ReactiveCivilianRepository {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final RepositoryInvocationTimer timer;
+
+    public ReactiveCivilianRepository(ReactiveMongoTemplate reactiveMongoTemplate, RepositoryInvocationTimer timer) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.timer = timer;
+    }
+
+    public Flux<ImplantOwner> findImplantOwnersBySerialNumbers(Collection<String> implantSerialNumbers) {
+        if (implantSerialNumbers.isEmpty()) return Flux.empty();
+
+        return timer.time(ReactiveCivilianRepository.class, "findImplantOwnersBySerialNumbers",
+                reactiveMongoTemplate.aggregate(
+                        CivilianRepositoryCustomImpl.implantOwnersAggregation(implantSerialNumbers),
+                        Civilian.class,
+                        ImplantOwner.class));
+    }
+}
@@ -3,19 +3,27 @@ package dev.cyberjar.embabeldemo.civilian.service;
 
 import dev.cyberjar.embabeldemo.civilian.domain.Civilian;
 import dev.cyberjar.embabeldemo.civilian.domain.Implant;
+import dev.cyberjar.embabeldemo.civilian.dto.ImplantOwner;
 import dev.cyberjar.embabeldemo.civilian.repository.CivilianRepository;
+import dev.cyberjar.embabeldemo.civilian.repository.ReactiveCivilianRepository;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class CivilianService {
 
     private final CivilianRepository civilianRepository;
+    private final ReactiveCivilianRepository reactiveCivilianRepository;
 
-    public CivilianService(CivilianRepository civilianRepository) {
+    public CivilianService(CivilianRepository civilianRepository,
+                           ReactiveCivilianRepository reactiveCivilianRepository) {
         this.civilianRepository = civilianRepository;
+        this.reactiveCivilianRepository = reactiveCivilianRepository;
     }
 
     public Civilian saveCivilian(Civilian civilian) {
@@ -44,6 +52,14 @@ public class CivilianService {
         return civilianRepository.findCivilianByImplantSerialNumber(serialNumber);
     }
 
+    public Map<String, ImplantOwner> findImplantOwnersBySerialNumbers(Collection<String> serialNumbers) {
+        return civilianRepository.findImplantOwnersBySerialNumbers(serialNumbers);
+    }
+
+    public Flux<ImplantOwner> findImplantOwnersBySerialNumbersReactive(Collection<String> serialNumbers) {
+        return reactiveCivilianRepository.findImplantOwnersBySerialNumbers(serialNumbers);
+    }
+
     public List<Civilian> getAllCivilians() {
         return civilianRepository.findAll();
     }
@@ -0,0 +1,213 @@
+package dev.cyberjar.embabeldemo.implantlog.cache;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.ingest.ImplantLogsRewrittenEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Window scans shared by all actions of one agent run (one query per run),
+// plus an optional cross-run tier enabled with a positive TTL. Cross-run entries for a window whose logs were
+// rewritten (backfill, --replace) are dropped; a run in flight keeps the snapshot it started with.
+@Component
+public class LogWindowCache {
+
+    private static final Logger log = LoggerFactory.getLogger(LogWindowCache.class);
+
+    // Upper bound on concurrently tracked runs, in case a run never gets released (e.g. its process was killed).
+    // Finished and failed runs release their scope (see IncidentTriageAgent.action).
+    private static final int MAX_TRACKED_RUNS = 64;
+
+    private final Duration ttl;
+    private final int maxEntries;
+
+    private final Map<String, RunScope> runs = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RunScope> eldest) {
+            return size() > MAX_TRACKED_RUNS;
+        }
+    };
+
+    private final Map<Slot, SharedEntry> shared;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public LogWindowCache(@Value("${app.log-window-cache.ttl:0s}") Duration ttl,
+                          @Value("${app.log-window-cache.max-entries:32}") int maxEntries) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.shared = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Slot, SharedEntry> eldest) {
+                return size() > LogWindowCache.this.maxEntries;
+            }
+        };
+    }
+
+    public Map<String, List<ImplantMonitoringLog>> getOrLoad(
+            String runId,
+            LogWindowKey key,
+            Supplier<Map<String, List<ImplantMonitoringLog>>> loader) {
+
+        return getOrLoad(runId, key, "logs", () -> Collections.unmodifiableMap(loader.get()));
+    }
+
+    // view distinguishes different reductions of the same window (raw logs, per-metric summaries, ...)
+    @SuppressWarnings("unchecked")
+    public <T> T getOrLoad(String runId, LogWindowKey key, String view, Supplier<T> loader) {
+
+        RunScope scope = scopeFor(runId);
+        Slot slot = new Slot(key, view);
+
+        // One load per slot and run even if actions race on the same window: the first caller runs the load
+        // outside the map (loaders may themselves load other slots), everyone else waits on its future
+        Future<Object> entry = scope.windows.get(slot);
+        if (entry == null) {
+            FutureTask<Object> task = new FutureTask<>(() -> load(scope, slot, loader));
+            entry = scope.windows.putIfAbsent(slot, task);
+            if (entry == null) {
+                entry = task;
+                task.run();
+            } else {
+                countHit(scope);
+            }
+        } else {
+            countHit(scope);
+        }
+
+        return (T) await(scope, slot, entry);
+    }
+
+    public void release(String runId) {
+        RunScope scope;
+        synchronized (runs) {
+            scope = runs.remove(runId);
+        }
+        if (scope != null) {
+            log.info("Log window cache for run {}: {} hit(s), {} miss(es)",
+                    runId, scope.hits.get(), scope.misses.get());
+        }
+    }
+
+    public void clear() {
+        synchronized (runs) {
+            runs.clear();
+        }
+        synchronized (shared) {
+            shared.clear();
+        }
+    }
+
+    @EventListener
+    public void rewritten(ImplantLogsRewrittenEvent range) {
+        synchronized (shared) {
+            shared.keySet().removeIf(slot -> range.overlaps(slot.window().from(), slot.window().to()));
+        }
+    }
+
+    public Stats stats() {
+        int sharedSize;
+        synchronized (shared) {
+            sharedSize = shared.size();
+        }
+        return new Stats(hits.get(), misses.get(), sharedSize);
+    }
+
+    private Object load(RunScope scope, Slot slot, Supplier<?> loader) {
+        Object fromShared = getShared(slot);
+        if (fromShared != null) {
+            countHit(scope);
+            return fromShared;
+        }
+
+        scope.misses.incrementAndGet();
+        misses.incrementAndGet();
+
+        Object loaded = loader.get();
+        putShared(slot, loaded);
+        return loaded;
+    }
+
+    private static Object await(RunScope scope, Slot slot, Future<Object> entry) {
+        try {
+            return entry.get();
+        } catch (ExecutionException e) {
+            // failed loads are not cached; the next caller retries
+            scope.windows.remove(slot, entry);
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a log window");
+        }
+    }
+
+    private void countHit(RunScope scope) {
+        scope.hits.incrementAndGet();
+        hits.incrementAndGet();
+    }
+
+    private RunScope scopeFor(String runId) {
+        synchronized (runs) {
+            return runs.computeIfAbsent(runId, id -> new RunScope());
+        }
+    }
+
+    private boolean sharedEnabled() {
+        return !ttl.isZero() && !ttl.isNegative() && maxEntries > 0;
+    }
+
+    private Object getShared(Slot key) {
+        if (!sharedEnabled()) return null;
+
+        synchronized (shared) {
+            SharedEntry entry = shared.get(key);
+            if (entry == null) return null;
+            if (entry.expiresAtNanos - System.nanoTime() <= 0) {
+                shared.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    private void putShared(Slot key, Object value) {
+        if (!sharedEnabled()) return;
+
+        synchronized (shared) {
+            shared.put(key, new SharedEntry(value, System.nanoTime() + ttl.toNanos()));
+        }
+    }
+
+    public record Stats(long hits, long misses, int sharedEntries) {
+    }
+
+    private record Slot(LogWindowKey window, String view) {
+    }
+
+    private record SharedEntry(Object value, long expiresAtNanos) {
+    }
+
+    private static final class RunScope {
+        private final Map<Slot, Future<Object>> windows = new ConcurrentHashMap<>();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+    }
+}
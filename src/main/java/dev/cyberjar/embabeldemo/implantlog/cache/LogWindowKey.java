@@ -0,0 +1,29 @@
+package dev.cyberjar.embabeldemo.implantlog.cache;
+
+import org.springframework.data.geo.Point;
+
+import java.time.LocalDateTime;
+
+public record LogWindowKey(
+        double longitude,
+        double latitude,
+        double radiusMeters,
+        LocalDateTime from,
+        LocalDateTime to
+) {
+
+    // Canonical form: ~1cm precision for coordinates and radius, so the same window
+    // parsed twice (e.g. 40.758 vs 40.75800000001) maps to the same key.
+    public static LogWindowKey of(Point center, double radiusMeters, LocalDateTime from, LocalDateTime to) {
+        return new LogWindowKey(
+                round(center.getX(), 1e7),
+                round(center.getY(), 1e7),
+                round(radiusMeters, 1e2),
+                from,
+                to);
+    }
+
+    private static double round(double value, double scale) {
+        return Math.round(value * scale) / scale + 0.0; // + 0.0 folds -0.0 into 0.0
+    }
+}
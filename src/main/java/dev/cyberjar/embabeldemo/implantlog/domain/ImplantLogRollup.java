@@ -0,0 +1,30 @@
+package dev.cyberjar.embabeldemo.implantlog.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// One document per implant and time bucket, written by $merge jobs (see ImplantLogRollupService)
+@Document(collection = "implant_log_rollups")
+@CompoundIndex(name = "rollup_bucket_idx",
+        def = "{'implantSerialNumber': 1, 'granularity': 1, 'bucketStart': 1}",
+        unique = true)
+public record ImplantLogRollup(
+        @Id String id,
+        String implantSerialNumber,
+        RollupGranularity granularity,
+        LocalDateTime bucketStart,
+        long count,
+        double minPowerUsageUw,
+        double maxPowerUsageUw,
+        double sumPowerUsageUw,
+        double minCpuUsagePct,
+        double maxCpuUsagePct,
+        double sumCpuUsagePct,
+        double minNeuralLatencyMs,
+        double maxNeuralLatencyMs,
+        double sumNeuralLatencyMs
+) {
+}
@@ -6,16 +6,17 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.geo.Point;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
-import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
-import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Document(collection = "implant_logs")
-@CompoundIndex(name = "implant_ts_idx",
-        def = "{'implant_serial_number': 1, 'timestamp': -1}")
+@CompoundIndex(name = "implant_serial_ts_idx",
+        def = "{'implantSerialNumber': 1, 'timestamp': -1}")
+// Serves the $geoNear window scans; must stay the only 2dsphere index on the collection
+@CompoundIndex(name = "location_ts_idx",
+        def = "{'location': '2dsphere', 'timestamp': 1}")
 public class ImplantMonitoringLog {
 
     @Id
@@ -28,7 +29,6 @@ public class ImplantMonitoringLog {
     private double cpuUsagePct;
     private double neuralLatencyMs;
     @JsonDeserialize(using = PointFromXYDeserializer.class)
-    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
     private Point location;
 
     public ImplantMonitoringLog(String id,
@@ -0,0 +1,30 @@
+package dev.cyberjar.embabeldemo.implantlog.domain;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES, "minute"),
+    HOUR(ChronoUnit.HOURS, "hour");
+
+    private final ChronoUnit unit;
+    private final String mongoUnit;
+
+    RollupGranularity(ChronoUnit unit, String mongoUnit) {
+        this.unit = unit;
+        this.mongoUnit = mongoUnit;
+    }
+
+    public String mongoUnit() {
+        return mongoUnit;
+    }
+
+    public LocalDateTime floor(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    public LocalDateTime ceil(LocalDateTime time) {
+        LocalDateTime floor = floor(time);
+        return floor.equals(time) ? floor : floor.plus(1, unit);
+    }
+}
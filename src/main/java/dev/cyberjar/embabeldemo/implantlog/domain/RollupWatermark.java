@@ -0,0 +1,18 @@
+package dev.cyberjar.embabeldemo.implantlog.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Rollups of a granularity are complete for every bucket that ends at or before processedUntil
+@Document(collection = "implant_log_rollup_watermarks")
+public record RollupWatermark(
+        @Id String granularity,
+        LocalDateTime processedUntil
+) {
+
+    public RollupWatermark(RollupGranularity granularity, LocalDateTime processedUntil) {
+        this(granularity.name(), processedUntil);
+    }
+}
@@ -0,0 +1,34 @@
+package dev.cyberjar.embabeldemo.implantlog.domain;
+
+import java.util.function.ToDoubleFunction;
+
+public enum TelemetryMetric {
+
+    NEURAL_LATENCY_MS("neuralLatencyMs", ImplantMonitoringLog::getNeuralLatencyMs),
+    CPU_USAGE_PCT("cpuUsagePct", ImplantMonitoringLog::getCpuUsagePct),
+    POWER_USAGE_UW("powerUsageUw", ImplantMonitoringLog::getPowerUsageUw);
+
+    private final String field;
+    private final ToDoubleFunction<ImplantMonitoringLog> accessor;
+
+    TelemetryMetric(String field, ToDoubleFunction<ImplantMonitoringLog> accessor) {
+        this.field = field;
+        this.accessor = accessor;
+    }
+
+    // Document field name, also the name used in prompts and signals
+    public String field() {
+        return field;
+    }
+
+    public double valueOf(ImplantMonitoringLog log) {
+        return accessor.applyAsDouble(log);
+    }
+
+    public static TelemetryMetric fromField(String field) {
+        for (TelemetryMetric metric : values()) {
+            if (metric.field.equals(field)) return metric;
+        }
+        throw new IllegalArgumentException("Unsupported metric: " + field);
+    }
+}
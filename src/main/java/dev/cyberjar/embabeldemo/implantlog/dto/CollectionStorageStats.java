@@ -0,0 +1,9 @@
+package dev.cyberjar.embabeldemo.implantlog.dto;
+
+public record CollectionStorageStats(long documents,
+                                     long dataSizeBytes,
+                                     long storageSizeBytes,
+                                     long indexSizeBytes) {
+
+    public static final CollectionStorageStats EMPTY = new CollectionStorageStats(0, 0, 0, 0);
+}
@@ -0,0 +1,18 @@
+package dev.cyberjar.embabeldemo.implantlog.dto;
+
+public record GeoCrossCheckReport(
+        int queries,
+        long mongoSamples,
+        long indexSamples,
+        long missingFromIndex,
+        long extraInIndex,
+        long onBoundary,
+        double meanMongoMillis,
+        double meanIndexMillis
+) {
+
+    // Differences within a few centimetres of the radius are floating point noise between the two haversine implementations
+    public boolean consistent() {
+        return missingFromIndex + extraInIndex == onBoundary;
+    }
+}
@@ -0,0 +1,18 @@
+package dev.cyberjar.embabeldemo.implantlog.dto;
+
+import java.time.LocalDateTime;
+
+public record HotWindowStats(
+        boolean enabled,
+        boolean serving,
+        boolean memoryMapped,
+        int implants,
+        long samples,
+        long offHeapBytes,
+        LocalDateTime coverageFrom,
+        LocalDateTime evictedUntil,
+        LocalDateTime uncoveredUntil,
+        long hotQueries,
+        long fallbackQueries
+) {
+}
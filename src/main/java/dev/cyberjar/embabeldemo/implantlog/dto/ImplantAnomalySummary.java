@@ -0,0 +1,9 @@
+package dev.cyberjar.embabeldemo.implantlog.dto;
+
+import java.util.List;
+
+// One entry per requested metric, in the order the thresholds were given
+public record ImplantAnomalySummary(String implantSerialNumber,
+                                    long sampleCount,
+                                    List<MetricAnomaly> metrics) {
+}
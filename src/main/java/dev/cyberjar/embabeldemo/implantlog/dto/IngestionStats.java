@@ -0,0 +1,12 @@
+package dev.cyberjar.embabeldemo.implantlog.dto;
+
+public record IngestionStats(long acceptedSamples,
+                             long writtenSamples,
+                             long failedSamples,
+                             double writtenPerSecond,
+                             long batches,
+                             double meanBatchSize,
+                             int queueDepth,
+                             double meanWriteLatencyMs,
+                             double maxWriteLatencyMs) {
+}
@@ -0,0 +1,13 @@
+package dev.cyberjar.embabeldemo.implantlog.dto;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.TelemetryMetric;
+
+import java.time.LocalDateTime;
+
+public record MetricAnomaly(TelemetryMetric metric,
+                            double threshold,
+                            double maxValue,
+                            long exceedCount,
+                            LocalDateTime firstExceedAt,
+                            LocalDateTime lastExceedAt) {
+}
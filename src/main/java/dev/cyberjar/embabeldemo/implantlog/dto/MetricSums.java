@@ -0,0 +1,33 @@
+package dev.cyberjar.embabeldemo.implantlog.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public record MetricSums(long count,
+                         double sumPowerUsageUw,
+                         double sumCpuUsagePct,
+                         double sumNeuralLatencyMs) {
+
+    public static final MetricSums EMPTY = new MetricSums(0, 0.0, 0.0, 0.0);
+
+    public MetricSums plus(MetricSums other) {
+        return new MetricSums(
+                count + other.count,
+                sumPowerUsageUw + other.sumPowerUsageUw,
+                sumCpuUsagePct + other.sumCpuUsagePct,
+                sumNeuralLatencyMs + other.sumNeuralLatencyMs);
+    }
+
+    // Same rounding as the $round stage of the raw aggregateStats pipeline (2 places, half to even)
+    public MonitoringStats toStats(String implantSerialNumber) {
+        return new MonitoringStats(
+                implantSerialNumber,
+                roundedAverage(sumPowerUsageUw),
+                roundedAverage(sumCpuUsagePct),
+                roundedAverage(sumNeuralLatencyMs));
+    }
+
+    private double roundedAverage(double sum) {
+        return BigDecimal.valueOf(sum / count).setScale(2, RoundingMode.HALF_EVEN).doubleValue();
+    }
+}
@@ -0,0 +1,6 @@
+package dev.cyberjar.embabeldemo.implantlog.dto;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.TelemetryMetric;
+
+public record MetricThreshold(TelemetryMetric metric, double threshold) {
+}
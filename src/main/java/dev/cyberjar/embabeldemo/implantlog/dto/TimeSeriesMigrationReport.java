@@ -0,0 +1,10 @@
+package dev.cyberjar.embabeldemo.implantlog.dto;
+
+import java.time.Duration;
+
+public record TimeSeriesMigrationReport(long copiedLogs,
+                                        CollectionStorageStats before,
+                                        CollectionStorageStats after,
+                                        Duration windowQueryBefore,
+                                        Duration windowQueryAfter) {
+}
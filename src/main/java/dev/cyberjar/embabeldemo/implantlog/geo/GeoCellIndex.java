@@ -0,0 +1,208 @@
+package dev.cyberjar.embabeldemo.implantlog.geo;
+
+import dev.cyberjar.embabeldemo.utils.GeoMath;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Fixed-size lat/lon grid cells (geohash-style) holding primitive posting arrays of (ref, lon, lat, timestamp).
+// A radius query visits only the cells covering the circle's bounding box and refines each posting with haversine;
+// results come unordered, unlike $geoNear which always sorts by distance.
+// Refs are opaque to the index. When a Liveness check is given, postings whose ref no longer holds that sample
+// (e.g. an overwritten ring row) are skipped on read and dropped when their cell is compacted.
+public final class GeoCellIndex {
+
+    private static final int INITIAL_CELL_CAPACITY = 16;
+
+    private final double cellDegrees;
+    private final int lonCells;
+    private final Liveness liveness;
+
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long postings;
+
+    public GeoCellIndex(double cellDegrees, Liveness liveness) {
+        if (cellDegrees <= 0 || cellDegrees > 90) {
+            throw new IllegalArgumentException("Cell size must be in (0, 90] degrees: " + cellDegrees);
+        }
+        this.cellDegrees = cellDegrees;
+        this.lonCells = (int) Math.ceil(360.0 / cellDegrees);
+        this.liveness = liveness;
+    }
+
+    public GeoCellIndex(double cellDegrees) {
+        this(cellDegrees, null);
+    }
+
+    public void add(long ref, double longitude, double latitude, long timestampMillis) {
+        long key = cellKey(latIndex(latitude), lonIndex(longitude));
+
+        lock.writeLock().lock();
+        try {
+            Cell cell = cells.computeIfAbsent(key, k -> new Cell());
+            if (cell.size == cell.refs.length) {
+                postings -= cell.compact(liveness);
+                if (cell.size * 4 >= cell.refs.length * 3) cell.grow();
+            }
+            cell.append(ref, longitude, latitude, timestampMillis);
+            postings++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            postings = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Postings held, including stale ones not yet compacted away
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return postings;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void query(double longitude,
+                      double latitude,
+                      double radiusMeters,
+                      long fromMillis,
+                      long toMillis,
+                      Visitor visitor) {
+
+        double latSpan = Math.toDegrees(radiusMeters / GeoMath.EARTH_RADIUS_METERS);
+        double minLat = Math.max(-90, latitude - latSpan);
+        double maxLat = Math.min(90, latitude + latSpan);
+
+        // widest point of the circle is at the latitude closest to a pole
+        double cosLat = Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat))));
+        double lonSpan = cosLat <= 1e-9 ? 180 : Math.min(180, latSpan / cosLat);
+
+        int fromLat = latIndex(minLat);
+        int toLat = latIndex(maxLat);
+        // unwrapped column range; taken modulo lonCells when probing, so it may cross the antimeridian
+        int fromLon = (int) Math.floor((longitude - lonSpan + 180) / cellDegrees);
+        int toLon = (int) Math.floor((longitude + lonSpan + 180) / cellDegrees);
+        int lonCount = Math.min(lonCells, toLon - fromLon + 1);
+
+        lock.readLock().lock();
+        try {
+            long covering = (long) (toLat - fromLat + 1) * lonCount;
+
+            if (covering > cells.size()) {
+                // a huge radius over a sparse index: walking what exists is cheaper than probing empty cells
+                for (Cell cell : cells.values()) {
+                    cell.visit(longitude, latitude, radiusMeters, fromMillis, toMillis, liveness, visitor);
+                }
+                return;
+            }
+
+            for (int lat = fromLat; lat <= toLat; lat++) {
+                for (int i = 0; i < lonCount; i++) {
+                    Cell cell = cells.get(cellKey(lat, Math.floorMod(fromLon + i, lonCells)));
+                    if (cell != null) {
+                        cell.visit(longitude, latitude, radiusMeters, fromMillis, toMillis, liveness, visitor);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int latIndex(double latitude) {
+        return (int) Math.floor((Math.min(90, Math.max(-90, latitude)) + 90) / cellDegrees);
+    }
+
+    private int lonIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), lonCells);
+    }
+
+    private static long cellKey(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xFFFFFFFFL);
+    }
+
+    @FunctionalInterface
+    public interface Liveness {
+        boolean isLive(long ref, long timestampMillis);
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long ref, double longitude, double latitude, long timestampMillis);
+    }
+
+    private static final class Cell {
+
+        private long[] refs = new long[INITIAL_CELL_CAPACITY];
+        private long[] timestamps = new long[INITIAL_CELL_CAPACITY];
+        private double[] longitudes = new double[INITIAL_CELL_CAPACITY];
+        private double[] latitudes = new double[INITIAL_CELL_CAPACITY];
+        private int size;
+
+        void append(long ref, double longitude, double latitude, long timestampMillis) {
+            refs[size] = ref;
+            timestamps[size] = timestampMillis;
+            longitudes[size] = longitude;
+            latitudes[size] = latitude;
+            size++;
+        }
+
+        void visit(double longitude,
+                   double latitude,
+                   double radiusMeters,
+                   long fromMillis,
+                   long toMillis,
+                   Liveness liveness,
+                   Visitor visitor) {
+
+            for (int i = 0; i < size; i++) {
+                long timestamp = timestamps[i];
+                if (timestamp < fromMillis || timestamp > toMillis) continue;
+                if (GeoMath.haversineMeters(longitude, latitude, longitudes[i], latitudes[i]) > radiusMeters) continue;
+                if (liveness != null && !liveness.isLive(refs[i], timestamp)) continue;
+
+                visitor.visit(refs[i], longitudes[i], latitudes[i], timestamp);
+            }
+        }
+
+        // Returns how many stale postings were dropped
+        int compact(Liveness liveness) {
+            if (liveness == null) return 0;
+
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!liveness.isLive(refs[i], timestamps[i])) continue;
+                refs[kept] = refs[i];
+                timestamps[kept] = timestamps[i];
+                longitudes[kept] = longitudes[i];
+                latitudes[kept] = latitudes[i];
+                kept++;
+            }
+
+            int dropped = size - kept;
+            size = kept;
+            return dropped;
+        }
+
+        void grow() {
+            int capacity = refs.length * 2;
+            refs = Arrays.copyOf(refs, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+        }
+    }
+}
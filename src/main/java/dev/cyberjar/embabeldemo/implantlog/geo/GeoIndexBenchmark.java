@@ -0,0 +1,105 @@
+package dev.cyberjar.embabeldemo.implantlog.geo;
+
+import dev.cyberjar.embabeldemo.utils.GeoMath;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Synthetic load for GeoCellIndex: uniformly spread samples over a metro-sized box, timed radius queries,
+// and a brute-force haversine scan over the same arrays as the reference for both latency and results.
+public final class GeoIndexBenchmark {
+
+    // roughly New York City, where the seed data lives
+    private static final double MIN_LON = -74.05, MAX_LON = -73.75;
+    private static final double MIN_LAT = 40.55, MAX_LAT = 40.90;
+
+    private static final int BRUTE_FORCE_QUERIES = 50;
+
+    private GeoIndexBenchmark() {
+    }
+
+    public static Result run(int samples, int queries, double radiusMeters, double cellDegrees, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        double[] longitudes = new double[samples];
+        double[] latitudes = new double[samples];
+        long[] timestamps = new long[samples];
+        long now = System.currentTimeMillis();
+
+        for (int i = 0; i < samples; i++) {
+            longitudes[i] = random.nextDouble(MIN_LON, MAX_LON);
+            latitudes[i] = random.nextDouble(MIN_LAT, MAX_LAT);
+            timestamps[i] = now - random.nextLong(6 * 3_600_000L);
+        }
+
+        GeoCellIndex index = new GeoCellIndex(cellDegrees);
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < samples; i++) {
+            index.add(i, longitudes[i], latitudes[i], timestamps[i]);
+        }
+        double buildMillis = (System.nanoTime() - buildStart) / 1e6;
+
+        long[] latencies = new long[queries];
+        long[] hits = new long[1];
+        long totalHits = 0;
+        long mismatches = 0;
+        long bruteForceNanos = 0;
+        int bruteForceRuns = 0;
+
+        for (int q = 0; q < queries; q++) {
+            double lon = random.nextDouble(MIN_LON, MAX_LON);
+            double lat = random.nextDouble(MIN_LAT, MAX_LAT);
+            long from = now - 3_600_000L;
+
+            hits[0] = 0;
+            long start = System.nanoTime();
+            index.query(lon, lat, radiusMeters, from, now, (ref, x, y, t) -> hits[0]++);
+            latencies[q] = System.nanoTime() - start;
+            totalHits += hits[0];
+
+            if (bruteForceRuns < BRUTE_FORCE_QUERIES) {
+                start = System.nanoTime();
+                long expected = 0;
+                for (int i = 0; i < samples; i++) {
+                    if (timestamps[i] < from || timestamps[i] > now) continue;
+                    if (GeoMath.haversineMeters(lon, lat, longitudes[i], latitudes[i]) <= radiusMeters) expected++;
+                }
+                bruteForceNanos += System.nanoTime() - start;
+                bruteForceRuns++;
+                if (expected != hits[0]) mismatches++;
+            }
+        }
+
+        Arrays.sort(latencies);
+        return new Result(
+                samples,
+                queries,
+                buildMillis,
+                micros(percentile(latencies, 0.50)),
+                micros(percentile(latencies, 0.99)),
+                micros(latencies.length == 0 ? 0 : latencies[latencies.length - 1]),
+                bruteForceRuns == 0 ? 0 : bruteForceNanos / 1e3 / bruteForceRuns,
+                queries == 0 ? 0 : (double) totalHits / queries,
+                mismatches);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1e3;
+    }
+
+    public record Result(int samples,
+                         int queries,
+                         double buildMillis,
+                         double p50Micros,
+                         double p99Micros,
+                         double maxMicros,
+                         double bruteForceMeanMicros,
+                         double meanHits,
+                         long mismatches) {
+    }
+}
@@ -0,0 +1,112 @@
+package dev.cyberjar.embabeldemo.implantlog.hotwindow;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.dto.GeoCrossCheckReport;
+import dev.cyberjar.embabeldemo.implantlog.repository.ImplantMonitoringLogRepository;
+import dev.cyberjar.embabeldemo.utils.GeoMath;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Runs the same radius/time windows through $geoNear and the hot window cell index and compares the samples returned
+@Component
+public class HotWindowCrossCheck {
+
+    private static final double BOUNDARY_TOLERANCE_METERS = 0.05;
+
+    private final HotWindowStore hotWindowStore;
+    private final ImplantMonitoringLogRepository logRepository;
+    private final MongoTemplate mongoTemplate;
+
+    public HotWindowCrossCheck(HotWindowStore hotWindowStore,
+                               ImplantMonitoringLogRepository logRepository,
+                               MongoTemplate mongoTemplate) {
+        this.hotWindowStore = hotWindowStore;
+        this.logRepository = logRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public GeoCrossCheckReport run(int queries, double radiusMeters, Duration window) {
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minus(window);
+
+        if (!hotWindowStore.covers(from)) {
+            throw new IllegalStateException("Hot window does not cover the last " + window);
+        }
+
+        // query centers are real sample positions, so every query has something to compare
+        List<ImplantMonitoringLog> centers = mongoTemplate.aggregate(Aggregation.newAggregation(
+                        Aggregation.match(Criteria.where("timestamp").gte(from).lte(to)),
+                        Aggregation.sample(queries)),
+                ImplantMonitoringLog.class, ImplantMonitoringLog.class).getMappedResults();
+
+        long mongoSamples = 0, indexSamples = 0, missing = 0, extra = 0, boundary = 0;
+        long mongoNanos = 0, indexNanos = 0;
+
+        for (ImplantMonitoringLog centerLog : centers) {
+            Point center = centerLog.getLocation();
+
+            long start = System.nanoTime();
+            Map<String, List<ImplantMonitoringLog>> expected =
+                    logRepository.findLogsByAreaAndTimeGrouped(center, radiusMeters, from, to);
+            mongoNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Map<String, List<ImplantMonitoringLog>> actual =
+                    hotWindowStore.findLogsByAreaAndTime(center, radiusMeters, from, to);
+            indexNanos += System.nanoTime() - start;
+
+            Map<SampleKey, ImplantMonitoringLog> expectedSamples = keyed(expected);
+            Map<SampleKey, ImplantMonitoringLog> actualSamples = keyed(actual);
+            mongoSamples += expectedSamples.size();
+            indexSamples += actualSamples.size();
+
+            for (Map.Entry<SampleKey, ImplantMonitoringLog> e : expectedSamples.entrySet()) {
+                if (actualSamples.containsKey(e.getKey())) continue;
+                missing++;
+                if (onBoundary(center, e.getValue(), radiusMeters)) boundary++;
+            }
+            for (Map.Entry<SampleKey, ImplantMonitoringLog> e : actualSamples.entrySet()) {
+                if (expectedSamples.containsKey(e.getKey())) continue;
+                extra++;
+                if (onBoundary(center, e.getValue(), radiusMeters)) boundary++;
+            }
+        }
+
+        int runs = Math.max(centers.size(), 1);
+        return new GeoCrossCheckReport(
+                centers.size(),
+                mongoSamples,
+                indexSamples,
+                missing,
+                extra,
+                boundary,
+                mongoNanos / 1e6 / runs,
+                indexNanos / 1e6 / runs);
+    }
+
+    private static Map<SampleKey, ImplantMonitoringLog> keyed(Map<String, List<ImplantMonitoringLog>> grouped) {
+        Map<SampleKey, ImplantMonitoringLog> samples = new HashMap<>();
+        grouped.values().forEach(logs -> logs.forEach(log -> samples.put(
+                new SampleKey(log.getImplantSerialNumber(), log.getTimestamp(),
+                        log.getLocation().getX(), log.getLocation().getY()), log)));
+        return samples;
+    }
+
+    private static boolean onBoundary(Point center, ImplantMonitoringLog log, double radiusMeters) {
+        double distance = GeoMath.haversineMeters(center.getX(), center.getY(),
+                log.getLocation().getX(), log.getLocation().getY());
+        return Math.abs(distance - radiusMeters) <= BOUNDARY_TOLERANCE_METERS;
+    }
+
+    private record SampleKey(String implantSerialNumber, LocalDateTime timestamp, double longitude, double latitude) {
+    }
+}
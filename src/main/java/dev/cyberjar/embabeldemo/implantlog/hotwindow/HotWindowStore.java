@@ -0,0 +1,451 @@
+package dev.cyberjar.embabeldemo.implantlog.hotwindow;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.domain.TelemetryMetric;
+import dev.cyberjar.embabeldemo.implantlog.dto.HotWindowStats;
+import dev.cyberjar.embabeldemo.implantlog.dto.ImplantAnomalySummary;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricThreshold;
+import dev.cyberjar.embabeldemo.implantlog.geo.GeoCellIndex;
+import dev.cyberjar.embabeldemo.implantlog.ingest.ImplantLogRewrites;
+import dev.cyberjar.embabeldemo.implantlog.ingest.ImplantLogsRewrittenEvent;
+import dev.cyberjar.embabeldemo.implantlog.ingest.TelemetryBatchListener;
+import dev.cyberjar.embabeldemo.implantlog.scan.AnomalyAccumulator;
+import dev.cyberjar.embabeldemo.seed.SeedingFinishedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Keeps the most recent `retention` of telemetry per implant in off-heap column rings and answers window queries
+// without a Mongo round trip. Fed by the ingestion path after each written batch and warmed from Mongo at startup.
+// A window is only served from here when it is provably complete: it starts after the coverage start, after
+// the newest sample any ring has overwritten and after every write the rings could not follow (backdated samples,
+// rewrites such as seed-synthetic backfills or --replace deletes), and no rewrite is open. Everything else falls
+// back to Mongo.
+// Radius queries go through grid cell indexes over the ring rows and the latest position of each implant.
+@Component
+public class HotWindowStore implements TelemetryBatchListener {
+
+    private static final Logger log = LoggerFactory.getLogger(HotWindowStore.class);
+
+    private static final Map<TelemetryMetric, Integer> METRIC_COLUMNS = Map.of(
+            TelemetryMetric.NEURAL_LATENCY_MS, TelemetryRing.NEURAL_LATENCY_MS,
+            TelemetryMetric.CPU_USAGE_PCT, TelemetryRing.CPU_USAGE_PCT,
+            TelemetryMetric.POWER_USAGE_UW, TelemetryRing.POWER_USAGE_UW);
+
+    private static final String RING_SUFFIX = ".ring";
+    private static final String CLEAN_SHUTDOWN_FILE = "clean-shutdown";
+
+    private final MongoTemplate mongoTemplate;
+    private final ImplantLogRewrites rewrites;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int samplesPerImplant;
+    private final Path mmapDirectory;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final Arena arena = Arena.ofShared();
+    private final Map<String, TelemetryRing> rings = new ConcurrentHashMap<>();
+    private final List<TelemetryRing> ringsByOrdinal = new CopyOnWriteArrayList<>();
+    private final GeoCellIndex sampleIndex;
+    private final GeoCellIndex positionIndex;
+    private final AtomicLong evictedUntilMillis = new AtomicLong(Long.MIN_VALUE);
+    // exclusive end of the newest range whose Mongo contents the rings no longer match
+    private final AtomicLong uncoveredUntilMillis = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong hotQueries = new AtomicLong();
+    private final AtomicLong fallbackQueries = new AtomicLong();
+
+    private volatile long coverageStartMillis = Long.MAX_VALUE;
+    private volatile long liveSinceMillis = Long.MAX_VALUE;
+    private volatile boolean ready;
+    private volatile boolean degraded;
+
+    public HotWindowStore(MongoTemplate mongoTemplate,
+                          ImplantLogRewrites rewrites,
+                          @Value("${app.hot-window.enabled:false}") boolean enabled,
+                          @Value("${app.hot-window.retention:PT6H}") Duration retention,
+                          @Value("${app.hot-window.samples-per-implant:8192}") int samplesPerImplant,
+                          @Value("${app.hot-window.mmap-dir:}") String mmapDirectory,
+                          @Value("${app.hot-window.cell-degrees:0.01}") double cellDegrees) {
+        this.mongoTemplate = mongoTemplate;
+        this.rewrites = rewrites;
+        this.enabled = enabled;
+        this.retention = retention;
+        this.samplesPerImplant = samplesPerImplant;
+        this.mmapDirectory = mmapDirectory.isBlank() ? null : Path.of(mmapDirectory);
+
+        // index refs: ring ordinal in the high 32 bits, ring row in the low 32 bits
+        this.sampleIndex = new GeoCellIndex(cellDegrees,
+                (ref, timestamp) -> ringAt(ref).holds(rowOf(ref), timestamp));
+        this.positionIndex = new GeoCellIndex(cellDegrees,
+                (ref, timestamp) -> ringAt(ref).isLatest(rowOf(ref), timestamp));
+    }
+
+    // after seeding, so a freshly seeded database is part of the warm-up
+    @EventListener(SeedingFinishedEvent.class)
+    public void warmUp() {
+        if (!enabled) return;
+
+        // samples stamped from here on arrive through the ingestion listener, older ones come from Mongo
+        long now = System.currentTimeMillis();
+        liveSinceMillis = now;
+
+        Thread.ofVirtual().name("hot-window-warmup").start(() -> {
+            try {
+                long loadFrom = restoreMappedRings(now);
+                long loaded = load(loadFrom, now);
+
+                ready = true;
+                log.info("Hot window ready: {} implant(s), {} sample(s) loaded from Mongo, coverage from {}",
+                        rings.size(), loaded, toLocalDateTime(coverageStartMillis));
+            } catch (RuntimeException e) {
+                degraded = true;
+                log.error("Hot window warm-up failed; window queries will use Mongo", e);
+            }
+        });
+    }
+
+    @Override
+    public void onBatchWritten(List<ImplantMonitoringLog> batch) {
+        if (!enabled || degraded) return;
+
+        try {
+            for (ImplantMonitoringLog sample : batch) {
+                long timestamp = toMillis(sample.getTimestamp());
+                if (timestamp >= liveSinceMillis) {
+                    append(sample, timestamp);
+                } else if (liveSinceMillis != Long.MAX_VALUE) {
+                    // backdated into the range warm-up already loaded: that range now has a sample the rings lack
+                    uncover(timestamp + 1);
+                }
+            }
+        } catch (RuntimeException e) {
+            // a sample we cannot hold means windows are no longer complete here
+            degraded = true;
+            log.error("Hot window stopped accepting samples; window queries will use Mongo", e);
+        }
+    }
+
+    // Rewrites before warm-up are part of what it loads; later ones leave the rings behind Mongo for their range
+    @EventListener
+    public void rewritten(ImplantLogsRewrittenEvent range) {
+        if (!enabled || liveSinceMillis == Long.MAX_VALUE) return;
+
+        uncover(toMillis(range.toExclusive()));
+        log.info("Hot window no longer covers windows starting before {} ({} rewrote implant logs)",
+                range.toExclusive(), range.writer());
+    }
+
+    public boolean covers(LocalDateTime from) {
+        if (!enabled || !ready || degraded) return false;
+
+        long fromMillis = toMillis(from);
+        long retainedFrom = System.currentTimeMillis() - retention.toMillis();
+
+        return fromMillis >= coverageStartMillis
+                && fromMillis >= retainedFrom
+                && fromMillis > evictedUntilMillis.get()
+                && fromMillis >= uncoveredUntilMillis.get()
+                && !rewrites.isRewriting(from, ImplantLogRewrites.ALL_TO);
+    }
+
+    // Records which path answered a window query; the service decides via covers()
+    public void recordQuery(boolean hot) {
+        (hot ? hotQueries : fallbackQueries).incrementAndGet();
+    }
+
+    public Map<String, List<ImplantMonitoringLog>> findLogsByAreaAndTime(
+            Point center,
+            double maxDistanceMeters,
+            LocalDateTime from,
+            LocalDateTime to) {
+
+        Map<String, List<ImplantMonitoringLog>> result = new HashMap<>();
+
+        scanArea(center, maxDistanceMeters, from, to, (ring, row, timestamp) ->
+                result.computeIfAbsent(ring.implantSerialNumber(), s -> new ArrayList<>())
+                        .add(new ImplantMonitoringLog(
+                                null,
+                                ring.implantSerialNumber(),
+                                ring.civilianNationalId(),
+                                toLocalDateTime(timestamp),
+                                ring.value(TelemetryRing.POWER_USAGE_UW, row),
+                                ring.value(TelemetryRing.CPU_USAGE_PCT, row),
+                                ring.value(TelemetryRing.NEURAL_LATENCY_MS, row),
+                                new Point(ring.value(TelemetryRing.LONGITUDE, row),
+                                        ring.value(TelemetryRing.LATITUDE, row)))));
+
+        return result;
+    }
+
+    public List<ImplantAnomalySummary> summarizeAnomaliesByAreaAndTime(
+            Point center,
+            double maxDistanceMeters,
+            LocalDateTime from,
+            LocalDateTime to,
+            List<MetricThreshold> thresholds) {
+
+        int[] columns = thresholds.stream().mapToInt(t -> METRIC_COLUMNS.get(t.metric())).toArray();
+        double[] values = new double[columns.length];
+        Map<String, AnomalyAccumulator> accumulators = new HashMap<>();
+
+        scanArea(center, maxDistanceMeters, from, to, (ring, row, timestamp) -> {
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = ring.value(columns[i], row);
+            }
+            accumulators.computeIfAbsent(ring.implantSerialNumber(), s -> new AnomalyAccumulator(thresholds))
+                    .add(values, timestamp);
+        });
+
+        return accumulators.entrySet().stream()
+                .map(e -> e.getValue().toSummary(e.getKey()))
+                .toList();
+    }
+
+    public long countLogsByAreaAndTime(
+            Point center,
+            double maxDistanceMeters,
+            LocalDateTime from,
+            LocalDateTime to) {
+
+        long[] count = new long[1];
+        scanArea(center, maxDistanceMeters, from, to, (ring, row, timestamp) -> count[0]++);
+        return count[0];
+    }
+
+    // Implants whose most recent sample was taken within maxDistanceMeters of center
+    public List<String> findImplantsNear(Point center, double maxDistanceMeters) {
+        Set<String> serials = new LinkedHashSet<>();
+
+        positionIndex.query(center.getX(), center.getY(), maxDistanceMeters, Long.MIN_VALUE, Long.MAX_VALUE,
+                (ref, longitude, latitude, timestamp) -> serials.add(ringAt(ref).implantSerialNumber()));
+
+        return List.copyOf(serials);
+    }
+
+    public HotWindowStats stats() {
+        long samples = 0;
+        long bytes = 0;
+        for (TelemetryRing ring : rings.values()) {
+            samples += ring.size();
+            bytes += ring.byteSize();
+        }
+
+        return new HotWindowStats(
+                enabled,
+                ready && !degraded,
+                mmapDirectory != null,
+                rings.size(),
+                samples,
+                bytes,
+                coverageStartMillis == Long.MAX_VALUE ? null : toLocalDateTime(coverageStartMillis),
+                evictedUntilMillis.get() == Long.MIN_VALUE ? null : toLocalDateTime(evictedUntilMillis.get()),
+                uncoveredUntilMillis.get() == Long.MIN_VALUE ? null : toLocalDateTime(uncoveredUntilMillis.get()),
+                hotQueries.get(),
+                fallbackQueries.get());
+    }
+
+    @PreDestroy
+    public void close() {
+        // rings that missed writes must not be trusted by the next start either
+        boolean clean = ready && !degraded && uncoveredUntilMillis.get() == Long.MIN_VALUE;
+        ready = false;
+
+        if (mmapDirectory != null && clean) {
+            try {
+                Files.writeString(mmapDirectory.resolve(CLEAN_SHUTDOWN_FILE),
+                        coverageStartMillis + " " + System.currentTimeMillis());
+            } catch (IOException e) {
+                log.warn("Could not mark hot window files as cleanly closed", e);
+            }
+        }
+
+        sampleIndex.clear();
+        positionIndex.clear();
+        rings.clear();
+        ringsByOrdinal.clear();
+        arena.close();
+    }
+
+    private void scanArea(Point center,
+                          double maxDistanceMeters,
+                          LocalDateTime from,
+                          LocalDateTime to,
+                          TelemetryRing.RowVisitor visitor) {
+
+        sampleIndex.query(center.getX(), center.getY(), maxDistanceMeters, toMillis(from), toMillis(to),
+                (ref, longitude, latitude, timestamp) -> ringAt(ref).visitRow(rowOf(ref), timestamp, visitor));
+    }
+
+    private void uncover(long untilMillis) {
+        uncoveredUntilMillis.accumulateAndGet(untilMillis, Math::max);
+    }
+
+    private void append(ImplantMonitoringLog sample, long timestamp) {
+        TelemetryRing ring = rings.computeIfAbsent(sample.getImplantSerialNumber(),
+                serial -> register(allocateRing(serial, sample.getCivilianNationalId())));
+
+        long evicted = ring.evictedUntilMillis();
+        int row = ring.append(timestamp,
+                sample.getLocation().getX(),
+                sample.getLocation().getY(),
+                sample.getPowerUsageUw(),
+                sample.getCpuUsagePct(),
+                sample.getNeuralLatencyMs());
+
+        long evictedNow = ring.evictedUntilMillis();
+        if (evictedNow != evicted) evictedUntilMillis.accumulateAndGet(evictedNow, Math::max);
+
+        index(ring, row, timestamp);
+    }
+
+    private void index(TelemetryRing ring, int row, long timestamp) {
+        double longitude = ring.value(TelemetryRing.LONGITUDE, row);
+        double latitude = ring.value(TelemetryRing.LATITUDE, row);
+
+        sampleIndex.add(refOf(ring, row), longitude, latitude, timestamp);
+        positionIndex.add(refOf(ring, row), longitude, latitude, timestamp);
+    }
+
+    private TelemetryRing register(TelemetryRing ring) {
+        synchronized (ringsByOrdinal) {
+            ring.assignOrdinal(ringsByOrdinal.size());
+            ringsByOrdinal.add(ring);
+        }
+        return ring;
+    }
+
+    private TelemetryRing ringAt(long ref) {
+        return ringsByOrdinal.get((int) (ref >>> 32));
+    }
+
+    private static int rowOf(long ref) {
+        return (int) ref;
+    }
+
+    private static long refOf(TelemetryRing ring, int row) {
+        return ((long) ring.ordinal() << 32) | row;
+    }
+
+    // Loads [fromMillis, untilMillis) from Mongo, oldest first so the rings keep the newest samples
+    private long load(long fromMillis, long untilMillis) {
+        if (fromMillis >= untilMillis) return 0;
+
+        Query query = Query.query(Criteria.where("timestamp")
+                        .gte(toLocalDateTime(fromMillis))
+                        .lt(toLocalDateTime(untilMillis)))
+                .with(Sort.by("timestamp"));
+
+        long loaded = 0;
+        try (Stream<ImplantMonitoringLog> logs = mongoTemplate.stream(query, ImplantMonitoringLog.class)) {
+            for (ImplantMonitoringLog sample : (Iterable<ImplantMonitoringLog>) logs::iterator) {
+                append(sample, toMillis(sample.getTimestamp()));
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    // Memory-mapped mode: reopens rings from a clean shutdown and returns where the Mongo load has to start.
+    // After a crash the files cannot be trusted to be complete, so they are reset and loaded from scratch.
+    private long restoreMappedRings(long now) {
+        long fullLoadFrom = now - retention.toMillis();
+        coverageStartMillis = fullLoadFrom;
+
+        if (mmapDirectory == null) return fullLoadFrom;
+
+        try {
+            Files.createDirectories(mmapDirectory);
+
+            Path marker = mmapDirectory.resolve(CLEAN_SHUTDOWN_FILE);
+            long[] previous = Files.exists(marker) ? parseMarker(Files.readString(marker)) : null;
+            Files.deleteIfExists(marker);
+
+            try (Stream<Path> files = Files.list(mmapDirectory)) {
+                for (Path file : files.filter(f -> f.getFileName().toString().endsWith(RING_SUFFIX)).toList()) {
+                    TelemetryRing ring = register(TelemetryRing.open(map(file, Files.size(file))));
+                    if (previous == null) ring.reset();
+                    rings.put(ring.implantSerialNumber(), ring);
+                    evictedUntilMillis.accumulateAndGet(ring.evictedUntilMillis(), Math::max);
+
+                    for (int row = 0; row < ring.size(); row++) {
+                        index(ring, row, ring.timestampAt(row));
+                    }
+                }
+            }
+
+            if (previous == null) return fullLoadFrom;
+
+            coverageStartMillis = Math.max(previous[0], fullLoadFrom);
+            return Math.max(previous[1], fullLoadFrom);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private TelemetryRing allocateRing(String implantSerialNumber, String civilianNationalId) {
+        long size = TelemetryRing.byteSize(samplesPerImplant);
+
+        MemorySegment segment = mmapDirectory == null
+                ? arena.allocate(size, Long.BYTES)
+                : map(mmapDirectory.resolve(fileName(implantSerialNumber)), size);
+
+        return TelemetryRing.create(segment, samplesPerImplant, implantSerialNumber, civilianNationalId);
+    }
+
+    private MemorySegment map(Path file, long size) {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String fileName(String implantSerialNumber) {
+        return implantSerialNumber.replaceAll("[^A-Za-z0-9._-]", "_") + RING_SUFFIX;
+    }
+
+    private static long[] parseMarker(String content) {
+        String[] parts = content.trim().split(" ");
+        return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+    }
+
+    private long toMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+    }
+}
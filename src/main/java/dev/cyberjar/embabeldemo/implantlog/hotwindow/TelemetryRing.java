@@ -0,0 +1,189 @@
+package dev.cyberjar.embabeldemo.implantlog.hotwindow;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+
+// Fixed-capacity ring of one implant's samples in a single memory segment (heap-free, optionally file-backed).
+// Layout: a 128-byte header followed by one contiguous column per field.
+final class TelemetryRing {
+
+    static final int TIMESTAMP = 0;
+    static final int LONGITUDE = 1;
+    static final int LATITUDE = 2;
+    static final int POWER_USAGE_UW = 3;
+    static final int CPU_USAGE_PCT = 4;
+    static final int NEURAL_LATENCY_MS = 5;
+
+    private static final int COLUMNS = 6;
+    private static final long HEADER_BYTES = 128;
+
+    private static final long MAGIC = 0x484F5457494E4401L; // "HOTWIND" + layout version 1
+    private static final long MAGIC_OFFSET = 0;
+    private static final long CAPACITY_OFFSET = 8;
+    private static final long WRITE_COUNT_OFFSET = 16;
+    private static final long EVICTED_UNTIL_OFFSET = 24;
+    private static final long SERIAL_OFFSET = 32;
+    private static final long NATIONAL_ID_OFFSET = 80;
+    private static final int MAX_ID_BYTES = 44;
+
+    private final MemorySegment segment;
+    private final int capacity;
+    private final String implantSerialNumber;
+    private final String civilianNationalId;
+
+    private long writeCount;
+    private long evictedUntilMillis;
+    private int ordinal = -1;
+
+    private TelemetryRing(MemorySegment segment, int capacity, String implantSerialNumber, String civilianNationalId) {
+        this.segment = segment;
+        this.capacity = capacity;
+        this.implantSerialNumber = implantSerialNumber;
+        this.civilianNationalId = civilianNationalId;
+        this.writeCount = segment.get(ValueLayout.JAVA_LONG, WRITE_COUNT_OFFSET);
+        this.evictedUntilMillis = segment.get(ValueLayout.JAVA_LONG, EVICTED_UNTIL_OFFSET);
+    }
+
+    static long byteSize(int capacity) {
+        return HEADER_BYTES + (long) COLUMNS * capacity * Long.BYTES;
+    }
+
+    static TelemetryRing create(MemorySegment segment, int capacity, String implantSerialNumber, String civilianNationalId) {
+        segment.set(ValueLayout.JAVA_LONG, MAGIC_OFFSET, MAGIC);
+        segment.set(ValueLayout.JAVA_LONG, CAPACITY_OFFSET, capacity);
+        segment.set(ValueLayout.JAVA_LONG, WRITE_COUNT_OFFSET, 0);
+        segment.set(ValueLayout.JAVA_LONG, EVICTED_UNTIL_OFFSET, Long.MIN_VALUE);
+        writeId(segment, SERIAL_OFFSET, implantSerialNumber);
+        writeId(segment, NATIONAL_ID_OFFSET, civilianNationalId);
+
+        return new TelemetryRing(segment, capacity, implantSerialNumber, civilianNationalId);
+    }
+
+    // Reopens a ring written by a previous run (memory-mapped mode)
+    static TelemetryRing open(MemorySegment segment) {
+        if (segment.byteSize() < HEADER_BYTES || segment.get(ValueLayout.JAVA_LONG, MAGIC_OFFSET) != MAGIC) {
+            throw new IllegalStateException("Not a hot-window ring segment");
+        }
+
+        int capacity = (int) segment.get(ValueLayout.JAVA_LONG, CAPACITY_OFFSET);
+        if (segment.byteSize() < byteSize(capacity)) {
+            throw new IllegalStateException("Truncated hot-window ring segment");
+        }
+
+        return new TelemetryRing(segment, capacity, readId(segment, SERIAL_OFFSET), readId(segment, NATIONAL_ID_OFFSET));
+    }
+
+    // Position in the store's ring list, used to pack (ring, row) references for the cell indexes
+    void assignOrdinal(int ordinal) {
+        this.ordinal = ordinal;
+    }
+
+    int ordinal() {
+        return ordinal;
+    }
+
+    String implantSerialNumber() {
+        return implantSerialNumber;
+    }
+
+    String civilianNationalId() {
+        return civilianNationalId;
+    }
+
+    // Returns the row the sample was written to
+    synchronized int append(long timestampMillis,
+                             double longitude,
+                             double latitude,
+                             double powerUsageUw,
+                             double cpuUsagePct,
+                             double neuralLatencyMs) {
+        int row = (int) (writeCount % capacity);
+
+        if (writeCount >= capacity) {
+            evictedUntilMillis = Math.max(evictedUntilMillis, timestamp(row));
+            segment.set(ValueLayout.JAVA_LONG, EVICTED_UNTIL_OFFSET, evictedUntilMillis);
+        }
+
+        segment.set(ValueLayout.JAVA_LONG, offset(TIMESTAMP, row), timestampMillis);
+        segment.set(ValueLayout.JAVA_DOUBLE, offset(LONGITUDE, row), longitude);
+        segment.set(ValueLayout.JAVA_DOUBLE, offset(LATITUDE, row), latitude);
+        segment.set(ValueLayout.JAVA_DOUBLE, offset(POWER_USAGE_UW, row), powerUsageUw);
+        segment.set(ValueLayout.JAVA_DOUBLE, offset(CPU_USAGE_PCT, row), cpuUsagePct);
+        segment.set(ValueLayout.JAVA_DOUBLE, offset(NEURAL_LATENCY_MS, row), neuralLatencyMs);
+
+        // published last, so a reopened file never counts a half-written row
+        writeCount++;
+        segment.set(ValueLayout.JAVA_LONG, WRITE_COUNT_OFFSET, writeCount);
+        return row;
+    }
+
+    synchronized void reset() {
+        writeCount = 0;
+        evictedUntilMillis = Long.MIN_VALUE;
+        segment.set(ValueLayout.JAVA_LONG, WRITE_COUNT_OFFSET, 0);
+        segment.set(ValueLayout.JAVA_LONG, EVICTED_UNTIL_OFFSET, Long.MIN_VALUE);
+    }
+
+    // Newest timestamp that has been overwritten; windows starting after it are complete in this ring
+    synchronized long evictedUntilMillis() {
+        return evictedUntilMillis;
+    }
+
+    // True while the row still holds the sample stamped timestampMillis (it has not been overwritten)
+    synchronized boolean holds(int row, long timestampMillis) {
+        return row < Math.min(writeCount, capacity) && timestamp(row) == timestampMillis;
+    }
+
+    synchronized boolean isLatest(int row, long timestampMillis) {
+        return writeCount > 0 && row == (int) ((writeCount - 1) % capacity) && timestamp(row) == timestampMillis;
+    }
+
+    synchronized long timestampAt(int row) {
+        return timestamp(row);
+    }
+
+    synchronized void visitRow(int row, long timestampMillis, RowVisitor visitor) {
+        if (holds(row, timestampMillis)) visitor.visit(this, row, timestampMillis);
+    }
+
+    synchronized int size() {
+        return (int) Math.min(writeCount, capacity);
+    }
+
+    long byteSize() {
+        return byteSize(capacity);
+    }
+
+    double value(int column, int row) {
+        return segment.get(ValueLayout.JAVA_DOUBLE, offset(column, row));
+    }
+
+    private long timestamp(int row) {
+        return segment.get(ValueLayout.JAVA_LONG, offset(TIMESTAMP, row));
+    }
+
+    private long offset(int column, int row) {
+        return HEADER_BYTES + ((long) column * capacity + row) * Long.BYTES;
+    }
+
+    private static void writeId(MemorySegment segment, long offset, String id) {
+        byte[] bytes = (id == null ? "" : id).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_ID_BYTES) {
+            throw new IllegalArgumentException("Identifier longer than " + MAX_ID_BYTES + " bytes: " + id);
+        }
+        segment.set(ValueLayout.JAVA_INT, offset, bytes.length);
+        MemorySegment.copy(bytes, 0, segment, ValueLayout.JAVA_BYTE, offset + Integer.BYTES, bytes.length);
+    }
+
+    private static String readId(MemorySegment segment, long offset) {
+        int length = segment.get(ValueLayout.JAVA_INT, offset);
+        byte[] bytes = segment.asSlice(offset + Integer.BYTES, length).toArray(ValueLayout.JAVA_BYTE);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    interface RowVisitor {
+        void visit(TelemetryRing ring, int row, long timestampMillis);
+    }
+}
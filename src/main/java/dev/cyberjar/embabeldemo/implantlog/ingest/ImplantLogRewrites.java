@@ -0,0 +1,68 @@
+package dev.cyberjar.embabeldemo.implantlog.ingest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Tracks backdated writes into implant_logs. While a rewrite is open, readers of derived data (rollups, kept
+// slices, hot rings) treat its range as dirty and go to raw logs; closing it publishes ImplantLogsRewrittenEvent
+// so they can rebuild or drop what they derived. Close it even when the write failed: part of it may have landed.
+@Component
+public class ImplantLogRewrites {
+
+    private static final Logger log = LoggerFactory.getLogger(ImplantLogRewrites.class);
+
+    // for writers that can't bound their range up front (restores); wide, but still a valid BSON date range
+    public static final LocalDateTime ALL_FROM = LocalDateTime.of(1970, 1, 1, 0, 0);
+    public static final LocalDateTime ALL_TO = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final List<Rewrite> open = new CopyOnWriteArrayList<>();
+
+    public ImplantLogRewrites(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    public Rewrite begin(String writer, LocalDateTime from, LocalDateTime toExclusive) {
+        Rewrite rewrite = new Rewrite(new ImplantLogsRewrittenEvent(writer, from, toExclusive));
+        open.add(rewrite);
+        log.info("{} rewriting implant logs in [{}, {})", writer, from, toExclusive);
+        return rewrite;
+    }
+
+    public Rewrite beginAll(String writer) {
+        return begin(writer, ALL_FROM, ALL_TO);
+    }
+
+    public boolean isRewriting(LocalDateTime from, LocalDateTime toExclusive) {
+        for (Rewrite rewrite : open) {
+            if (rewrite.range.overlaps(from, toExclusive)) return true;
+        }
+        return false;
+    }
+
+    public final class Rewrite implements AutoCloseable {
+
+        private final ImplantLogsRewrittenEvent range;
+
+        private Rewrite(ImplantLogsRewrittenEvent range) {
+            this.range = range;
+        }
+
+        // Listeners run before the range stops counting as dirty
+        @Override
+        public void close() {
+            if (!open.contains(this)) return;
+            try {
+                eventPublisher.publishEvent(range);
+            } finally {
+                open.remove(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package dev.cyberjar.embabeldemo.implantlog.ingest;
+
+import java.time.LocalDateTime;
+
+// Published when a writer outside the live ingestion path (seeding, snapshot restore, synthetic backfill or its
+// removal) has inserted or deleted logs with timestamps in [from, toExclusive). Anything derived from implant_logs
+// for that range is stale afterwards.
+public record ImplantLogsRewrittenEvent(String writer, LocalDateTime from, LocalDateTime toExclusive) {
+
+    public boolean overlaps(LocalDateTime otherFrom, LocalDateTime otherToExclusive) {
+        return from.isBefore(otherToExclusive) && otherFrom.isBefore(toExclusive);
+    }
+}
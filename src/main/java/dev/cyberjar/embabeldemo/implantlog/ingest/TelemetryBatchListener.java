@@ -0,0 +1,12 @@
+package dev.cyberjar.embabeldemo.implantlog.ingest;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+
+import java.util.List;
+
+// Called on an ingestion writer thread after a batch has been written to Mongo
+public interface TelemetryBatchListener {
+
+    void onBatchWritten(List<ImplantMonitoringLog> batch);
+
+}
@@ -0,0 +1,273 @@
+package dev.cyberjar.embabeldemo.implantlog.ingest;
+
+import com.mongodb.bulk.BulkWriteError;
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.dto.IngestionStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Collects samples from any number of producers into size/time-bounded batches written with unordered bulk inserts.
+// The queue is bounded: producers block (submit) or get rejected (offer) when writers fall behind, and both are
+// refused once the service is stopped. Listeners see exactly the samples that were stored; a failing listener or
+// batch is logged and counted, never allowed to take a writer thread down.
+@Service
+public class TelemetryIngestionService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryIngestionService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final List<TelemetryBatchListener> listeners;
+    private final BlockingQueue<ImplantMonitoringLog> queue;
+    private final int batchSize;
+    private final Duration maxBatchDelay;
+    private final int writers;
+
+    private final Counter accepted;
+    private final Counter written;
+    private final Counter failed;
+    private final Counter listenerErrors;
+    private final DistributionSummary batchSizes;
+    private final Timer writeLatency;
+
+    private final List<Thread> writerThreads = new ArrayList<>();
+    // notified after every batch is counted as written or failed
+    private final Object progress = new Object();
+    // bulk writes hold the read lock; pause() takes the write lock so nothing reaches implant_logs meanwhile
+    private final ReentrantReadWriteLock writeGate = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private volatile long startedAtNanos;
+
+    public TelemetryIngestionService(MongoTemplate mongoTemplate,
+                                     List<TelemetryBatchListener> listeners,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.ingest.queue-capacity:100000}") int queueCapacity,
+                                     @Value("${app.ingest.batch-size:1000}") int batchSize,
+                                     @Value("${app.ingest.max-batch-delay:PT0.2S}") Duration maxBatchDelay,
+                                     @Value("${app.ingest.writers:4}") int writers) {
+        this.mongoTemplate = mongoTemplate;
+        this.listeners = listeners;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxBatchDelay = maxBatchDelay;
+        this.writers = writers;
+
+        this.accepted = meterRegistry.counter("implant.ingest.samples.accepted");
+        this.written = meterRegistry.counter("implant.ingest.samples.written");
+        this.failed = meterRegistry.counter("implant.ingest.samples.failed");
+        this.listenerErrors = meterRegistry.counter("implant.ingest.listener.errors");
+        this.batchSizes = DistributionSummary.builder("implant.ingest.batch.size")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.writeLatency = Timer.builder("implant.ingest.write.latency")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("implant.ingest.queue.depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    // Blocks while the queue is full
+    public void submit(ImplantMonitoringLog sample) throws InterruptedException {
+        if (!running) throw new IllegalStateException("Telemetry ingestion is not running");
+        queue.put(sample);
+        accepted.increment();
+    }
+
+    // Returns false if the sample could not be queued within the timeout or ingestion is not running
+    public boolean offer(ImplantMonitoringLog sample, Duration timeout) throws InterruptedException {
+        if (!running) return false;
+        boolean queued = queue.offer(sample, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        if (queued) accepted.increment();
+        return queued;
+    }
+
+    // Blocks until written + failed samples reach processedSamples, e.g. a stats() snapshot plus what was submitted since
+    public IngestionStats awaitProcessed(long processedSamples) throws InterruptedException {
+        synchronized (progress) {
+            while (written.count() + failed.count() < processedSamples) {
+                progress.wait();
+            }
+        }
+        return stats();
+    }
+
+    // Waits for in-flight batches, then holds every writer back until the returned pause is closed.
+    // Samples keep queueing meanwhile; close it on the thread that paused.
+    public Pause pause() {
+        writeGate.writeLock().lock();
+        return () -> writeGate.writeLock().unlock();
+    }
+
+    public IngestionStats stats() {
+        double elapsedSeconds = Math.max((System.nanoTime() - startedAtNanos) / 1e9, 1e-3);
+
+        return new IngestionStats(
+                (long) accepted.count(),
+                (long) written.count(),
+                (long) failed.count(),
+                written.count() / elapsedSeconds,
+                batchSizes.count(),
+                batchSizes.mean(),
+                queue.size(),
+                writeLatency.mean(TimeUnit.MILLISECONDS),
+                writeLatency.max(TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public void start() {
+        startedAtNanos = System.nanoTime();
+        running = true;
+        for (int i = 0; i < writers; i++) {
+            writerThreads.add(Thread.ofVirtual()
+                    .name("implant-ingest-writer-" + i)
+                    .start(this::writeLoop));
+        }
+        log.info("Telemetry ingestion started: {} writer(s), batch size {}, max delay {}",
+                writers, batchSize, maxBatchDelay);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Thread writer : writerThreads) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        writerThreads.clear();
+
+        // whatever producers managed to queue during shutdown
+        List<ImplantMonitoringLog> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int from = 0; from < rest.size(); from += batchSize) {
+            write(rest.subList(from, Math.min(from + batchSize, rest.size())));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void writeLoop() {
+        List<ImplantMonitoringLog> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            if (!batch.isEmpty()) {
+                try {
+                    write(batch);
+                } catch (RuntimeException e) {
+                    log.error("Writing a batch of {} samples failed unexpectedly", batch.size(), e);
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    // Waits for the first sample, then collects more until the batch is full or maxBatchDelay has passed
+    private void fillBatch(List<ImplantMonitoringLog> batch) throws InterruptedException {
+        ImplantMonitoringLog first = queue.poll(maxBatchDelay.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) return;
+        batch.add(first);
+
+        long deadline = System.nanoTime() + maxBatchDelay.toNanos();
+
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.size() >= batchSize) break;
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) break;
+
+            ImplantMonitoringLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) break;
+            batch.add(next);
+        }
+    }
+
+    private void write(List<ImplantMonitoringLog> batch) {
+        batchSizes.record(batch.size());
+
+        List<ImplantMonitoringLog> stored = writeLatency.record(() -> {
+            writeGate.readLock().lock();
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ImplantMonitoringLog.class)
+                        .insert(batch)
+                        .execute();
+                written.increment(batch.size());
+                return batch;
+            } catch (BulkOperationException e) {
+                // unordered: everything except the reported errors was written
+                BitSet rejected = new BitSet(batch.size());
+                for (BulkWriteError error : e.getErrors()) {
+                    rejected.set(error.getIndex());
+                }
+                List<ImplantMonitoringLog> inserted = new ArrayList<>(batch.size() - rejected.cardinality());
+                for (int i = 0; i < batch.size(); i++) {
+                    if (!rejected.get(i)) inserted.add(batch.get(i));
+                }
+
+                written.increment(inserted.size());
+                failed.increment(rejected.cardinality());
+                log.error("Bulk insert of {} samples had {} error(s)", batch.size(), rejected.cardinality(), e);
+                return inserted;
+            } catch (RuntimeException e) {
+                failed.increment(batch.size());
+                log.error("Bulk insert of {} samples failed", batch.size(), e);
+                return List.<ImplantMonitoringLog>of();
+            } finally {
+                writeGate.readLock().unlock();
+            }
+        });
+
+        synchronized (progress) {
+            progress.notifyAll();
+        }
+
+        if (stored == null || stored.isEmpty()) return;
+
+        for (TelemetryBatchListener listener : listeners) {
+            try {
+                listener.onBatchWritten(stored);
+            } catch (RuntimeException e) {
+                listenerErrors.increment();
+                log.error("{} failed on a batch of {} samples", listener.getClass().getSimpleName(), stored.size(), e);
+            }
+        }
+    }
+
+    public interface Pause extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
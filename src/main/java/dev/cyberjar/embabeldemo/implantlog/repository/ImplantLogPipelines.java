@@ -0,0 +1,177 @@
+package dev.cyberjar.embabeldemo.implantlog.repository;
+
+import dev.cyberjar.embabeldemo.implantlog.dto.ImplantAnomalySummary;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricAnomaly;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricThreshold;
+import dev.cyberjar.embabeldemo.implantlog.scan.AnomalyAccumulator;
+import org.bson.Document;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.aggregation.*;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+// Pipelines and result mappers shared by the blocking and the reactive implant log repositories
+final class ImplantLogPipelines {
+
+    static final int STREAM_BATCH_SIZE = 1000;
+
+    private ImplantLogPipelines() {
+    }
+
+    static Aggregation statsAggregation(String serialNumber, LocalDateTime from, LocalDateTime to) {
+        MatchOperation match = Aggregation.match(Criteria.where("implantSerialNumber").is(serialNumber)
+                .and("timestamp").gte(from).lte(to));
+
+        GroupOperation group = Aggregation.group("implantSerialNumber")
+                .avg("powerUsageUw").as("avgPowerUsageUw")
+                .avg("cpuUsagePct").as("avgCpuUsagePct")
+                .avg("neuralLatencyMs").as("avgNeuralLatencyMs");
+
+        ProjectionOperation project = Aggregation.project()
+                .and("_id").as("implantSerialNumber")
+                .and(ArithmeticOperators.Round.roundValueOf("avgPowerUsageUw").place(2)).as("avgPowerUsageUw")
+                .and(ArithmeticOperators.Round.roundValueOf("avgCpuUsagePct").place(2)).as("avgCpuUsagePct")
+                .and(ArithmeticOperators.Round.roundValueOf("avgNeuralLatencyMs").place(2)).as("avgNeuralLatencyMs");
+
+        return Aggregation.newAggregation(match, group, project);
+    }
+
+    static Aggregation anomalySummaryAggregation(Point center,
+                                                 double maxDistanceMeters,
+                                                 LocalDateTime from,
+                                                 LocalDateTime to,
+                                                 List<MetricThreshold> thresholds) {
+        requireMetrics(thresholds);
+
+        GeoNearOperation geoNear = Aggregation.geoNear(windowQuery(center, maxDistanceMeters, from, to), "distance");
+
+        // Per metric i only v<i>, x<i> (exceeded 0/1) and t<i> (exceed timestamp) leave the $project stage;
+        // a single $group then reduces all metrics in the same pass
+        ProjectionOperation project = Aggregation.project("implantSerialNumber");
+        GroupOperation group = Aggregation.group("implantSerialNumber").count().as("sampleCount");
+
+        for (int i = 0; i < thresholds.size(); i++) {
+            MetricThreshold threshold = thresholds.get(i);
+            ComparisonOperators.Gte exceeded = ComparisonOperators.Gte.valueOf(threshold.metric().field())
+                    .greaterThanEqualToValue(threshold.threshold());
+
+            project = project
+                    .and(threshold.metric().field()).as("v" + i)
+                    .and(ConditionalOperators.when(exceeded).then(1).otherwise(0)).as("x" + i)
+                    // $cond with a null branch, so $min/$max below only see exceeding samples
+                    .and(context -> new Document("$cond",
+                            Arrays.asList(exceeded.toDocument(context), "$timestamp", null))).as("t" + i);
+
+            group = group
+                    .max("v" + i).as("max" + i)
+                    .sum("x" + i).as("exceed" + i)
+                    .min("t" + i).as("first" + i)
+                    .max("t" + i).as("last" + i);
+        }
+
+        return Aggregation.newAggregation(geoNear, project, group);
+    }
+
+    static ImplantAnomalySummary toAnomalySummary(Document doc, List<MetricThreshold> thresholds) {
+        List<MetricAnomaly> metrics = new ArrayList<>(thresholds.size());
+        for (int i = 0; i < thresholds.size(); i++) {
+            metrics.add(new MetricAnomaly(
+                    thresholds.get(i).metric(),
+                    thresholds.get(i).threshold(),
+                    doubleValue(doc, "max" + i),
+                    longValue(doc, "exceed" + i),
+                    localDateTime(doc, "first" + i),
+                    localDateTime(doc, "last" + i)));
+        }
+        return new ImplantAnomalySummary(doc.getString("_id"), longValue(doc, "sampleCount"), metrics);
+    }
+
+    // No $group: documents flow through the cursor one batch at a time and are folded into
+    // per-implant accumulators, so memory grows with implants, not samples
+    static Aggregation anomalyScanAggregation(NearQuery window, List<MetricThreshold> thresholds) {
+        requireMetrics(thresholds);
+
+        String[] fields = thresholds.stream().map(t -> t.metric().field()).distinct().toArray(String[]::new);
+
+        return Aggregation.newAggregation(
+                        Aggregation.geoNear(window, "distance"),
+                        Aggregation.project("implantSerialNumber", "timestamp")
+                                .andInclude(fields)
+                                .andExclude("_id"))
+                .withOptions(AggregationOptions.builder()
+                        .allowDiskUse(true)
+                        .cursorBatchSize(STREAM_BATCH_SIZE)
+                        .build());
+    }
+
+    // values is scratch space of thresholds.size(), reused across documents of one scan
+    static void accumulate(Map<String, AnomalyAccumulator> accumulators,
+                           Document doc,
+                           List<MetricThreshold> thresholds,
+                           double[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = doubleValue(doc, thresholds.get(i).metric().field());
+        }
+
+        accumulators.computeIfAbsent(doc.getString("implantSerialNumber"),
+                        serial -> new AnomalyAccumulator(thresholds))
+                .add(values, doc.getDate("timestamp").getTime());
+    }
+
+    static NearQuery windowQuery(Point center, double maxDistanceMeters, LocalDateTime from, LocalDateTime to) {
+        return NearQuery.near(center)
+                .maxDistance(new Distance(maxDistanceMeters / 1000.0, Metrics.KILOMETERS))
+                .query(Query.query(Criteria.where("timestamp").gte(from).lte(to)));
+    }
+
+    // [from, toExclusive): adjacent time slices of an incremental scan meet without sharing a sample
+    static NearQuery sliceQuery(Point center, double maxDistanceMeters, LocalDateTime from, LocalDateTime toExclusive) {
+        return NearQuery.near(center)
+                .maxDistance(new Distance(maxDistanceMeters / 1000.0, Metrics.KILOMETERS))
+                .query(Query.query(Criteria.where("timestamp").gte(from).lt(toExclusive)));
+    }
+
+    // limit caps the work: callers only need to know whether the window is above some size
+    static Query windowCountQuery(Point center,
+                                 double maxDistanceMeters,
+                                 LocalDateTime from,
+                                 LocalDateTime to,
+                                 long limit) {
+        Circle area = new Circle(center, new Distance(maxDistanceMeters / 1000.0, Metrics.KILOMETERS));
+
+        return Query.query(Criteria.where("location").withinSphere(area)
+                        .and("timestamp").gte(from).lte(to))
+                .limit((int) Math.min(limit, Integer.MAX_VALUE));
+    }
+
+    static void requireMetrics(List<MetricThreshold> thresholds) {
+        if (thresholds.isEmpty()) {
+            throw new IllegalArgumentException("At least one metric threshold is required");
+        }
+    }
+
+    static double doubleValue(Document doc, String key) {
+        return doc.get(key) instanceof Number number ? number.doubleValue() : 0.0;
+    }
+
+    static long longValue(Document doc, String key) {
+        return doc.get(key) instanceof Number number ? number.longValue() : 0;
+    }
+
+    static LocalDateTime localDateTime(Document doc, String key) {
+        Date date = doc.getDate(key);
+        return date == null ? null : LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
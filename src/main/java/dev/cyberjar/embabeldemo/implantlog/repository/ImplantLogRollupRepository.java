@@ -0,0 +1,7 @@
+package dev.cyberjar.embabeldemo.implantlog.repository;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantLogRollup;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ImplantLogRollupRepository extends MongoRepository<ImplantLogRollup, String>, ImplantLogRollupRepositoryCustom {
+}
@@ -0,0 +1,15 @@
+package dev.cyberjar.embabeldemo.implantlog.repository;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.RollupGranularity;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricSums;
+
+import java.time.LocalDateTime;
+
+public interface ImplantLogRollupRepositoryCustom {
+
+    void mergeRollups(RollupGranularity granularity, LocalDateTime from, LocalDateTime toExclusive);
+
+    MetricSums sumRollups(String serialNumber, RollupGranularity granularity,
+                          LocalDateTime from, LocalDateTime toExclusive);
+
+}
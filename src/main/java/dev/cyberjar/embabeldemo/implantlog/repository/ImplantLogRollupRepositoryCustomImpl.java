@@ -0,0 +1,93 @@
+package dev.cyberjar.embabeldemo.implantlog.repository;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantLogRollup;
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.domain.RollupGranularity;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricSums;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.*;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Repository
+public class ImplantLogRollupRepositoryCustomImpl implements ImplantLogRollupRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ImplantLogRollupRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void mergeRollups(RollupGranularity granularity, LocalDateTime from, LocalDateTime toExclusive) {
+        MatchOperation match = Aggregation.match(Criteria.where("timestamp").gte(from).lt(toExclusive));
+
+        // Buckets are truncated in the JVM's zone, the same zone LocalDateTime values are stored in
+        ProjectionOperation bucket = Aggregation.project("implantSerialNumber",
+                        "powerUsageUw", "cpuUsagePct", "neuralLatencyMs")
+                .and(DateOperators.DateTrunc.truncateValueOf("timestamp")
+                        .to(granularity.mongoUnit())
+                        .withTimezone(DateOperators.Timezone.fromZone(ZoneId.systemDefault())))
+                .as("bucketStart");
+
+        GroupOperation group = Aggregation.group("implantSerialNumber", "bucketStart")
+                .count().as("count")
+                .min("powerUsageUw").as("minPowerUsageUw")
+                .max("powerUsageUw").as("maxPowerUsageUw")
+                .sum("powerUsageUw").as("sumPowerUsageUw")
+                .min("cpuUsagePct").as("minCpuUsagePct")
+                .max("cpuUsagePct").as("maxCpuUsagePct")
+                .sum("cpuUsagePct").as("sumCpuUsagePct")
+                .min("neuralLatencyMs").as("minNeuralLatencyMs")
+                .max("neuralLatencyMs").as("maxNeuralLatencyMs")
+                .sum("neuralLatencyMs").as("sumNeuralLatencyMs");
+
+        ProjectionOperation project = Aggregation.project("implantSerialNumber", "bucketStart", "count",
+                        "minPowerUsageUw", "maxPowerUsageUw", "sumPowerUsageUw",
+                        "minCpuUsagePct", "maxCpuUsagePct", "sumCpuUsagePct",
+                        "minNeuralLatencyMs", "maxNeuralLatencyMs", "sumNeuralLatencyMs")
+                .andExclude("_id")
+                .and(context -> new Document("$literal", granularity.name())).as("granularity");
+
+        // Each bucket lies entirely inside one refresh range, so replacing on match is idempotent
+        MergeOperation merge = Aggregation.merge()
+                .intoCollection(mongoTemplate.getCollectionName(ImplantLogRollup.class))
+                .on("implantSerialNumber", "granularity", "bucketStart")
+                .whenMatched(MergeOperation.WhenDocumentsMatch.replaceDocument())
+                .whenNotMatched(MergeOperation.WhenDocumentsDontMatch.insertNewDocument())
+                .build();
+
+        Aggregation aggregation = Aggregation.newAggregation(match, bucket, group, project, merge);
+
+        mongoTemplate.aggregate(aggregation, ImplantMonitoringLog.class, Document.class);
+    }
+
+    @Override
+    public MetricSums sumRollups(String serialNumber,
+                                 RollupGranularity granularity,
+                                 LocalDateTime from,
+                                 LocalDateTime toExclusive) {
+
+        MatchOperation match = Aggregation.match(Criteria.where("implantSerialNumber").is(serialNumber)
+                .and("granularity").is(granularity)
+                .and("bucketStart").gte(from).lt(toExclusive));
+
+        GroupOperation group = Aggregation.group("implantSerialNumber")
+                .sum("count").as("count")
+                .sum("sumPowerUsageUw").as("sumPowerUsageUw")
+                .sum("sumCpuUsagePct").as("sumCpuUsagePct")
+                .sum("sumNeuralLatencyMs").as("sumNeuralLatencyMs");
+
+        Aggregation aggregation = Aggregation.newAggregation(match, group);
+
+        AggregationResults<MetricSums> results = mongoTemplate.aggregate(
+                aggregation, ImplantLogRollup.class, MetricSums.class);
+
+        MetricSums sums = results.getUniqueMappedResult();
+        return sums != null ? sums : MetricSums.EMPTY;
+    }
+}
@@ -2,7 +2,11 @@ package dev.cyberjar.embabeldemo.implantlog.repository;
 
 
 import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.dto.ImplantAnomalySummary;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricSums;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricThreshold;
 import dev.cyberjar.embabeldemo.implantlog.dto.MonitoringStats;
+import dev.cyberjar.embabeldemo.implantlog.scan.AnomalyAccumulator;
 import org.springframework.data.geo.Point;
 
 import java.time.LocalDateTime;
@@ -13,7 +17,25 @@ public interface ImplantMonitoringLogRepositoryCustom {
 
     MonitoringStats aggregateStats(String serialNumber, LocalDateTime from, LocalDateTime to);
 
+    MetricSums sumMetrics(String serialNumber, LocalDateTime from, LocalDateTime toExclusive);
+
     public Map<String, List<ImplantMonitoringLog>> findLogsByAreaAndTimeGrouped(
             Point center, double maxDistanceMeters, LocalDateTime from, LocalDateTime to);
 
+    List<ImplantAnomalySummary> summarizeAnomaliesByAreaAndTime(
+            Point center, double maxDistanceMeters, LocalDateTime from, LocalDateTime to,
+            List<MetricThreshold> thresholds);
+
+    List<ImplantAnomalySummary> streamAnomalySummariesByAreaAndTime(
+            Point center, double maxDistanceMeters, LocalDateTime from, LocalDateTime to,
+            List<MetricThreshold> thresholds);
+
+    // Per-implant accumulators for [from, toExclusive), to be merged with those of adjacent slices
+    Map<String, AnomalyAccumulator> accumulateAnomaliesByAreaAndTime(
+            Point center, double maxDistanceMeters, LocalDateTime from, LocalDateTime toExclusive,
+            List<MetricThreshold> thresholds);
+
+    long countLogsByAreaAndTime(
+            Point center, double maxDistanceMeters, LocalDateTime from, LocalDateTime to, long limit);
+
 }
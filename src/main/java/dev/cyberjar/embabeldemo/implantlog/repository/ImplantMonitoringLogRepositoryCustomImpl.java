@@ -3,10 +3,12 @@ package dev.cyberjar.embabeldemo.implantlog.repository;
 
 import dev.cyberjar.embabeldemo.civilian.service.CivilianService;
 import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.dto.ImplantAnomalySummary;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricSums;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricThreshold;
 import dev.cyberjar.embabeldemo.implantlog.dto.MonitoringStats;
+import dev.cyberjar.embabeldemo.implantlog.scan.AnomalyAccumulator;
 import org.bson.Document;
-import org.springframework.data.geo.Distance;
-import org.springframework.data.geo.Metrics;
 import org.springframework.data.geo.Point;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.*;
@@ -16,9 +18,11 @@ import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @Repository
 public class ImplantMonitoringLogRepositoryCustomImpl implements ImplantMonitoringLogRepositoryCustom {
@@ -31,26 +35,32 @@ public class ImplantMonitoringLogRepositoryCustomImpl implements ImplantMonitori
 
     @Override
     public MonitoringStats aggregateStats(String serialNumber, LocalDateTime from, LocalDateTime to) {
+        Aggregation aggregation = ImplantLogPipelines.statsAggregation(serialNumber, from, to);
+
+        AggregationResults<MonitoringStats> results = mongoTemplate.aggregate(
+                aggregation, ImplantMonitoringLog.class, MonitoringStats.class);
+
+        return results.getUniqueMappedResult();
+    }
+
+    @Override
+    public MetricSums sumMetrics(String serialNumber, LocalDateTime from, LocalDateTime toExclusive) {
         MatchOperation match = Aggregation.match(Criteria.where("implantSerialNumber").is(serialNumber)
-                .and("timestamp").gte(from).lte(to));
+                .and("timestamp").gte(from).lt(toExclusive));
 
         GroupOperation group = Aggregation.group("implantSerialNumber")
-                .avg("powerUsageUw").as("avgPowerUsageUw")
-                .avg("cpuUsagePct").as("avgCpuUsagePct")
-                .avg("neuralLatencyMs").as("avgNeuralLatencyMs");
+                .count().as("count")
+                .sum("powerUsageUw").as("sumPowerUsageUw")
+                .sum("cpuUsagePct").as("sumCpuUsagePct")
+                .sum("neuralLatencyMs").as("sumNeuralLatencyMs");
 
-        ProjectionOperation project = Aggregation.project()
-                .and("_id").as("implantSerialNumber")
-                .and(ArithmeticOperators.Round.roundValueOf("avgPowerUsageUw").place(2)).as("avgPowerUsageUw")
-                .and(ArithmeticOperators.Round.roundValueOf("avgCpuUsagePct").place(2)).as("avgCpuUsagePct")
-                .and(ArithmeticOperators.Round.roundValueOf("avgNeuralLatencyMs").place(2)).as("avgNeuralLatencyMs");
+        Aggregation aggregation = Aggregation.newAggregation(match, group);
 
-        Aggregation aggregation = Aggregation.newAggregation(match, group, project);
+        AggregationResults<MetricSums> results = mongoTemplate.aggregate(
+                aggregation, ImplantMonitoringLog.class, MetricSums.class);
 
-        AggregationResults<MonitoringStats> results = mongoTemplate.aggregate(
-                aggregation, ImplantMonitoringLog.class, MonitoringStats.class);
-
-        return results.getUniqueMappedResult();
+        MetricSums sums = results.getUniqueMappedResult();
+        return sums != null ? sums : MetricSums.EMPTY;
     }
 
     @Override
@@ -59,10 +69,7 @@ public class ImplantMonitoringLogRepositoryCustomImpl implements ImplantMonitori
                                                                                 LocalDateTime from,
                                                                                 LocalDateTime to) {
 
-        NearQuery nearQuery = NearQuery.near(center)
-                .maxDistance(new Distance(maxDistanceMeters / 1000.0, Metrics.KILOMETERS))
-                .query(Query.query(Criteria.where("timestamp").gte(from).lte(to)));
-
+        NearQuery nearQuery = ImplantLogPipelines.windowQuery(center, maxDistanceMeters, from, to);
         GeoNearOperation geoNear = Aggregation.geoNear(nearQuery, "distance");
 
         GroupOperation group = Aggregation.group("implantSerialNumber")
@@ -89,4 +96,70 @@ public class ImplantMonitoringLogRepositoryCustomImpl implements ImplantMonitori
 
         return grouped;
     }
+
+    @Override
+    public List<ImplantAnomalySummary> summarizeAnomaliesByAreaAndTime(Point center,
+                                                                       double maxDistanceMeters,
+                                                                       LocalDateTime from,
+                                                                       LocalDateTime to,
+                                                                       List<MetricThreshold> thresholds) {
+        Aggregation aggregation = ImplantLogPipelines.anomalySummaryAggregation(
+                center, maxDistanceMeters, from, to, thresholds);
+
+        AggregationResults<Document> results = mongoTemplate.aggregate(aggregation, "implant_logs", Document.class);
+
+        return results.getMappedResults().stream()
+                .map(doc -> ImplantLogPipelines.toAnomalySummary(doc, thresholds))
+                .toList();
+    }
+
+    @Override
+    public List<ImplantAnomalySummary> streamAnomalySummariesByAreaAndTime(Point center,
+                                                                           double maxDistanceMeters,
+                                                                           LocalDateTime from,
+                                                                           LocalDateTime to,
+                                                                           List<MetricThreshold> thresholds) {
+        Map<String, AnomalyAccumulator> accumulators = scanAnomalies(
+                ImplantLogPipelines.windowQuery(center, maxDistanceMeters, from, to), thresholds);
+
+        List<ImplantAnomalySummary> summaries = new ArrayList<>(accumulators.size());
+        accumulators.forEach((serial, accumulator) -> summaries.add(accumulator.toSummary(serial)));
+
+        return summaries;
+    }
+
+    @Override
+    public Map<String, AnomalyAccumulator> accumulateAnomaliesByAreaAndTime(Point center,
+                                                                           double maxDistanceMeters,
+                                                                           LocalDateTime from,
+                                                                           LocalDateTime toExclusive,
+                                                                           List<MetricThreshold> thresholds) {
+        return scanAnomalies(ImplantLogPipelines.sliceQuery(center, maxDistanceMeters, from, toExclusive), thresholds);
+    }
+
+    private Map<String, AnomalyAccumulator> scanAnomalies(NearQuery window, List<MetricThreshold> thresholds) {
+        Aggregation aggregation = ImplantLogPipelines.anomalyScanAggregation(window, thresholds);
+
+        Map<String, AnomalyAccumulator> accumulators = new HashMap<>();
+        double[] values = new double[thresholds.size()];
+
+        try (Stream<Document> stream = mongoTemplate.aggregateStream(aggregation, "implant_logs", Document.class)) {
+            stream.forEach(doc -> ImplantLogPipelines.accumulate(accumulators, doc, thresholds, values));
+        }
+
+        return accumulators;
+    }
+
+    @Override
+    public long countLogsByAreaAndTime(Point center,
+                                       double maxDistanceMeters,
+                                       LocalDateTime from,
+                                       LocalDateTime to,
+                                       long limit) {
+
+        Query query = ImplantLogPipelines.windowCountQuery(center, maxDistanceMeters, from, to, limit);
+
+        return mongoTemplate.count(query, ImplantMonitoringLog.class);
+    }
+
 }
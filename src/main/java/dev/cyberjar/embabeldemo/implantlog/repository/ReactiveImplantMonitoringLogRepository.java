@@ -0,0 +1,111 @@
+package dev.cyberjar.embabeldemo.implantlog.repository;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.dto.ImplantAnomalySummary;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricThreshold;
+import dev.cyberjar.embabeldemo.implantlog.dto.MonitoringStats;
+import dev.cyberjar.embabeldemo.implantlog.scan.AnomalyAccumulator;
+import dev.cyberjar.embabeldemo.metrics.RepositoryInvocationTimer;
+import org.bson.Document;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Non-blocking counterparts of the ImplantMonitoringLogRepositoryCustomImpl queries, built from the same pipelines.
+// Subscribers drive the cursor: getMore is only issued when downstream has requested the next batch. Every query is
+// timed as spring.data.repository.invocations, like the blocking repositories.
+@Repository
+public class ReactiveImplantMonitoringLogRepository {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final RepositoryInvocationTimer timer;
+
+    public ReactiveImplantMonitoringLogRepository(ReactiveMongoTemplate reactiveMongoTemplate,
+                                                  RepositoryInvocationTimer timer) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.timer = timer;
+    }
+
+    public Mono<MonitoringStats> aggregateStats(String serialNumber, LocalDateTime from, LocalDateTime to) {
+        Aggregation aggregation = ImplantLogPipelines.statsAggregation(serialNumber, from, to);
+
+        return timer.time(ReactiveImplantMonitoringLogRepository.class, "aggregateStats",
+                reactiveMongoTemplate.aggregate(aggregation, ImplantMonitoringLog.class, MonitoringStats.class)
+                        .singleOrEmpty());
+    }
+
+    // Unlike findLogsByAreaAndTimeGrouped there is no $group, so no window is bounded by the 16 MB document limit
+    public Flux<ImplantMonitoringLog> findLogsByAreaAndTime(Point center,
+                                                            double maxDistanceMeters,
+                                                            LocalDateTime from,
+                                                            LocalDateTime to) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                        Aggregation.geoNear(ImplantLogPipelines.windowQuery(center, maxDistanceMeters, from, to), "distance"))
+                .withOptions(AggregationOptions.builder()
+                        .allowDiskUse(true)
+                        .cursorBatchSize(ImplantLogPipelines.STREAM_BATCH_SIZE)
+                        .build());
+
+        return timer.time(ReactiveImplantMonitoringLogRepository.class, "findLogsByAreaAndTime",
+                reactiveMongoTemplate.aggregate(aggregation, "implant_logs", ImplantMonitoringLog.class)
+                        .limitRate(ImplantLogPipelines.STREAM_BATCH_SIZE));
+    }
+
+    public Flux<ImplantAnomalySummary> summarizeAnomaliesByAreaAndTime(Point center,
+                                                                       double maxDistanceMeters,
+                                                                       LocalDateTime from,
+                                                                       LocalDateTime to,
+                                                                       List<MetricThreshold> thresholds) {
+        return timer.time(ReactiveImplantMonitoringLogRepository.class, "summarizeAnomaliesByAreaAndTime",
+                Flux.defer(() -> reactiveMongoTemplate.aggregate(
+                                ImplantLogPipelines.anomalySummaryAggregation(center, maxDistanceMeters, from, to, thresholds),
+                                "implant_logs",
+                                Document.class))
+                        .map(doc -> ImplantLogPipelines.toAnomalySummary(doc, thresholds)));
+    }
+
+    public Flux<ImplantAnomalySummary> streamAnomalySummariesByAreaAndTime(Point center,
+                                                                           double maxDistanceMeters,
+                                                                           LocalDateTime from,
+                                                                           LocalDateTime to,
+                                                                           List<MetricThreshold> thresholds) {
+        // deferred so every subscription gets its own scratch array and accumulators
+        Flux<ImplantAnomalySummary> summaries = Flux.defer(() -> {
+            double[] values = new double[thresholds.size()];
+
+            return reactiveMongoTemplate.aggregate(
+                            ImplantLogPipelines.anomalyScanAggregation(
+                                    ImplantLogPipelines.windowQuery(center, maxDistanceMeters, from, to), thresholds),
+                            "implant_logs",
+                            Document.class)
+                    .limitRate(ImplantLogPipelines.STREAM_BATCH_SIZE)
+                    .collect(() -> new HashMap<String, AnomalyAccumulator>(),
+                            (accumulators, doc) -> ImplantLogPipelines.accumulate(accumulators, doc, thresholds, values))
+                    .flatMapIterable(Map::entrySet)
+                    .map(entry -> entry.getValue().toSummary(entry.getKey()));
+        });
+
+        return timer.time(ReactiveImplantMonitoringLogRepository.class, "streamAnomalySummariesByAreaAndTime", summaries);
+    }
+
+    public Mono<Long> countLogsByAreaAndTime(Point center,
+                                             double maxDistanceMeters,
+                                             LocalDateTime from,
+                                             LocalDateTime to,
+                                             long limit) {
+        Query query = ImplantLogPipelines.windowCountQuery(center, maxDistanceMeters, from, to, limit);
+
+        return timer.time(ReactiveImplantMonitoringLogRepository.class, "countLogsByAreaAndTime",
+                reactiveMongoTemplate.count(query, ImplantMonitoringLog.class));
+    }
+}
@@ -0,0 +1,133 @@
+package dev.cyberjar.embabeldemo.implantlog.scan;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.domain.TelemetryMetric;
+import dev.cyberjar.embabeldemo.implantlog.dto.ImplantAnomalySummary;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricAnomaly;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricThreshold;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// Running max/count/exceed statistics for one implant over any number of metrics; O(1) memory regardless of
+// how many samples it sees. Values arrive as one array per sample, indexed like the thresholds.
+public final class AnomalyAccumulator {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final List<MetricThreshold> thresholds;
+    private final double[] limits;
+
+    private final double[] maxValues;
+    private final long[] exceedCounts;
+    private final long[] firstExceedAt;
+    private final long[] lastExceedAt;
+    private long sampleCount;
+
+    public AnomalyAccumulator(List<MetricThreshold> thresholds) {
+        int metrics = thresholds.size();
+
+        this.thresholds = thresholds;
+        this.limits = new double[metrics];
+        this.maxValues = new double[metrics];
+        this.exceedCounts = new long[metrics];
+        this.firstExceedAt = new long[metrics];
+        this.lastExceedAt = new long[metrics];
+
+        for (int i = 0; i < metrics; i++) {
+            limits[i] = thresholds.get(i).threshold();
+        }
+        Arrays.fill(maxValues, Double.NEGATIVE_INFINITY);
+        Arrays.fill(firstExceedAt, Long.MAX_VALUE);
+        Arrays.fill(lastExceedAt, Long.MIN_VALUE);
+    }
+
+    public void add(double[] values, long timestampMillis) {
+        sampleCount++;
+
+        for (int i = 0; i < limits.length; i++) {
+            double value = values[i];
+            if (value > maxValues[i]) maxValues[i] = value;
+
+            if (value >= limits[i]) {
+                exceedCounts[i]++;
+                if (timestampMillis < firstExceedAt[i]) firstExceedAt[i] = timestampMillis;
+                if (timestampMillis > lastExceedAt[i]) lastExceedAt[i] = timestampMillis;
+            }
+        }
+    }
+
+    // Folds in the statistics of another slice of the same implant and thresholds. Every statistic is a
+    // max, min or sum, so merging disjoint slices gives exactly what one pass over their union would.
+    public AnomalyAccumulator merge(AnomalyAccumulator other) {
+        if (!Arrays.equals(limits, other.limits)) {
+            throw new IllegalArgumentException("Cannot merge accumulators built for different thresholds");
+        }
+
+        sampleCount += other.sampleCount;
+
+        for (int i = 0; i < limits.length; i++) {
+            maxValues[i] = Math.max(maxValues[i], other.maxValues[i]);
+            exceedCounts[i] += other.exceedCounts[i];
+            firstExceedAt[i] = Math.min(firstExceedAt[i], other.firstExceedAt[i]);
+            lastExceedAt[i] = Math.max(lastExceedAt[i], other.lastExceedAt[i]);
+        }
+
+        return this;
+    }
+
+    public long sampleCount() {
+        return sampleCount;
+    }
+
+    public ImplantAnomalySummary toSummary(String implantSerialNumber) {
+        List<MetricAnomaly> metrics = new ArrayList<>(limits.length);
+
+        for (int i = 0; i < limits.length; i++) {
+            metrics.add(new MetricAnomaly(
+                    thresholds.get(i).metric(),
+                    limits[i],
+                    sampleCount == 0 ? 0.0 : maxValues[i],
+                    exceedCounts[i],
+                    exceedCounts[i] == 0 ? null : toLocalDateTime(firstExceedAt[i]),
+                    exceedCounts[i] == 0 ? null : toLocalDateTime(lastExceedAt[i])));
+        }
+
+        return new ImplantAnomalySummary(implantSerialNumber, sampleCount, metrics);
+    }
+
+    // Single pass over already loaded logs: every metric is read from each log once, through accessors
+    // resolved before the loop
+    public static List<ImplantAnomalySummary> summarize(Map<String, List<ImplantMonitoringLog>> logsByImplant,
+                                                        List<MetricThreshold> thresholds) {
+        TelemetryMetric[] metrics = thresholds.stream().map(MetricThreshold::metric).toArray(TelemetryMetric[]::new);
+        double[] values = new double[metrics.length];
+        List<ImplantAnomalySummary> summaries = new ArrayList<>(logsByImplant.size());
+
+        logsByImplant.forEach((serial, logs) -> {
+            AnomalyAccumulator accumulator = new AnomalyAccumulator(thresholds);
+            for (ImplantMonitoringLog log : logs) {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = metrics[i].valueOf(log);
+                }
+                accumulator.add(values, toMillis(log.getTimestamp()));
+            }
+            summaries.add(accumulator.toSummary(serial));
+        });
+
+        return summaries;
+    }
+
+    public static long toMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE);
+    }
+}
@@ -0,0 +1,215 @@
+package dev.cyberjar.embabeldemo.implantlog.scan;
+
+import dev.cyberjar.embabeldemo.implantlog.cache.LogWindowKey;
+import dev.cyberjar.embabeldemo.implantlog.dto.ImplantAnomalySummary;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricThreshold;
+import dev.cyberjar.embabeldemo.implantlog.ingest.ImplantLogRewrites;
+import dev.cyberjar.embabeldemo.implantlog.ingest.ImplantLogsRewrittenEvent;
+import dev.cyberjar.embabeldemo.implantlog.service.ImplantMonitoringLogService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.geo.Point;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+// Incremental evaluation of repeated and sliding windows over the same area. Time is cut into fixed slices
+// aligned to the epoch; per-implant accumulators of every complete slice are kept, so a window only scans the
+// slices no earlier window covered plus its two partial edges, and merges the rest. Merging is exact (see
+// AnomalyAccumulator.merge), so the result equals a full rescan. Slices that may still receive late samples
+// (ending after now - lateness) are scanned every time and never kept. Backdated writes and deletes go through
+// ImplantLogRewrites: slices in a range being rewritten are neither read nor kept, and kept ones overlapping a
+// finished rewrite are dropped.
+@Component
+public class IncrementalAnomalyScanner {
+
+    // Samples are stored with millisecond timestamps: [from, to + 1ms) is the inclusive window [from, to]
+    private static final Duration TIMESTAMP_PRECISION = Duration.ofMillis(1);
+
+    private final ImplantMonitoringLogService logService;
+    private final ImplantLogRewrites rewrites;
+    private final Duration sliceLength;
+    private final Duration lateness;
+
+    private final Map<SliceKey, Map<String, AnomalyAccumulator>> slices;
+    // bumped by every finished rewrite, under the slices lock: a scan that raced one is not kept
+    private long generation;
+
+    private final Counter cachedSlices;
+    private final Counter scannedSlices;
+    private final Counter edgeScans;
+
+    public IncrementalAnomalyScanner(ImplantMonitoringLogService logService,
+                                     ImplantLogRewrites rewrites,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.triage.incremental.slice:PT15M}") Duration sliceLength,
+                                     @Value("${app.triage.incremental.lateness:PT5M}") Duration lateness,
+                                     @Value("${app.triage.incremental.max-slices:4096}") int maxSlices) {
+        if (sliceLength.toSeconds() <= 0 || sliceLength.toNanos() % 1_000_000_000L != 0) {
+            throw new IllegalArgumentException("app.triage.incremental.slice must be a whole number of seconds");
+        }
+
+        this.logService = logService;
+        this.rewrites = rewrites;
+        this.sliceLength = sliceLength;
+        this.lateness = lateness;
+        this.slices = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SliceKey, Map<String, AnomalyAccumulator>> eldest) {
+                return size() > maxSlices;
+            }
+        };
+
+        this.cachedSlices = meterRegistry.counter("implant.incremental.slices", "result", "cached");
+        this.scannedSlices = meterRegistry.counter("implant.incremental.slices", "result", "scanned");
+        this.edgeScans = meterRegistry.counter("implant.incremental.slices", "result", "edge");
+    }
+
+    // Same contract as ImplantMonitoringLogService.streamAnomalySummariesByAreaAndTime: inclusive [from, to]
+    public List<ImplantAnomalySummary> summarize(Point center,
+                                                 double maxDistanceMeters,
+                                                 LocalDateTime from,
+                                                 LocalDateTime to,
+                                                 List<MetricThreshold> thresholds) {
+        return summarize(center, maxDistanceMeters, from, to, thresholds, samples -> {
+        });
+    }
+
+    // samplesRead gets the number of samples actually read from implant_logs (scanned slices and edges), not
+    // the ones merged from kept slices
+    public List<ImplantAnomalySummary> summarize(Point center,
+                                                 double maxDistanceMeters,
+                                                 LocalDateTime from,
+                                                 LocalDateTime to,
+                                                 List<MetricThreshold> thresholds,
+                                                 LongConsumer samplesRead) {
+        long[] read = new long[1];
+        LocalDateTime end = to.plus(TIMESTAMP_PRECISION);
+        LocalDateTime stableUntil = LocalDateTime.now().minus(lateness);
+
+        Map<String, AnomalyAccumulator> merged = new HashMap<>();
+        LocalDateTime cursor = from;
+
+        while (cursor.isBefore(end)) {
+            LocalDateTime sliceStart = sliceStart(cursor);
+            LocalDateTime sliceEnd = sliceStart.plus(sliceLength);
+
+            if (cursor.equals(sliceStart) && !sliceEnd.isAfter(end)) {
+                mergeInto(merged, completeSlice(center, maxDistanceMeters, sliceStart, sliceEnd, thresholds, stableUntil,
+                        read), thresholds);
+                cursor = sliceEnd;
+            } else {
+                // partial slice at either edge of the window
+                LocalDateTime pieceEnd = sliceEnd.isBefore(end) ? sliceEnd : end;
+                edgeScans.increment();
+                Map<String, AnomalyAccumulator> edge = logService.accumulateAnomaliesByAreaAndTime(
+                        center, maxDistanceMeters, cursor, pieceEnd, thresholds);
+                read[0] += samples(edge);
+                mergeInto(merged, edge, thresholds);
+                cursor = pieceEnd;
+            }
+        }
+
+        samplesRead.accept(read[0]);
+
+        List<ImplantAnomalySummary> summaries = new ArrayList<>(merged.size());
+        merged.forEach((serial, accumulator) -> summaries.add(accumulator.toSummary(serial)));
+        return summaries;
+    }
+
+    public void clear() {
+        synchronized (slices) {
+            generation++;
+            slices.clear();
+        }
+    }
+
+    @EventListener
+    public void rewritten(ImplantLogsRewrittenEvent range) {
+        synchronized (slices) {
+            generation++;
+            slices.keySet().removeIf(key -> range.overlaps(key.window().from(), key.window().to()));
+        }
+    }
+
+    public Stats stats() {
+        int kept;
+        synchronized (slices) {
+            kept = slices.size();
+        }
+        return new Stats(kept, (long) cachedSlices.count(), (long) scannedSlices.count(), (long) edgeScans.count());
+    }
+
+    private Map<String, AnomalyAccumulator> completeSlice(Point center,
+                                                          double maxDistanceMeters,
+                                                          LocalDateTime sliceStart,
+                                                          LocalDateTime sliceEnd,
+                                                          List<MetricThreshold> thresholds,
+                                                          LocalDateTime stableUntil,
+                                                          long[] read) {
+        SliceKey key = new SliceKey(LogWindowKey.of(center, maxDistanceMeters, sliceStart, sliceEnd), thresholds);
+        boolean keepable = !sliceEnd.isAfter(stableUntil) && !rewrites.isRewriting(sliceStart, sliceEnd);
+
+        long scannedAt;
+        synchronized (slices) {
+            Map<String, AnomalyAccumulator> kept = keepable ? slices.get(key) : null;
+            if (kept != null) {
+                cachedSlices.increment();
+                return kept;
+            }
+            scannedAt = generation;
+        }
+
+        scannedSlices.increment();
+        Map<String, AnomalyAccumulator> scanned = logService.accumulateAnomaliesByAreaAndTime(
+                center, maxDistanceMeters, sliceStart, sliceEnd, thresholds);
+        read[0] += samples(scanned);
+
+        if (keepable) {
+            synchronized (slices) {
+                if (generation == scannedAt) slices.putIfAbsent(key, scanned);
+            }
+        }
+        return scanned;
+    }
+
+    // Kept slices are shared between runs: they are merged into fresh accumulators, never modified
+    private static void mergeInto(Map<String, AnomalyAccumulator> merged,
+                                  Map<String, AnomalyAccumulator> slice,
+                                  List<MetricThreshold> thresholds) {
+        slice.forEach((serial, accumulator) -> merged
+                .computeIfAbsent(serial, s -> new AnomalyAccumulator(thresholds))
+                .merge(accumulator));
+    }
+
+    private static long samples(Map<String, AnomalyAccumulator> slice) {
+        long samples = 0;
+        for (AnomalyAccumulator accumulator : slice.values()) {
+            samples += accumulator.sampleCount();
+        }
+        return samples;
+    }
+
+    private LocalDateTime sliceStart(LocalDateTime timestamp) {
+        long seconds = timestamp.toEpochSecond(ZoneOffset.UTC);
+        long start = seconds - Math.floorMod(seconds, sliceLength.toSeconds());
+        return LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC);
+    }
+
+    // thresholds are part of the key in order: accumulator arrays are indexed like them
+    private record SliceKey(LogWindowKey window, List<MetricThreshold> thresholds) {
+    }
+
+    public record Stats(int keptSlices, long cachedSlices, long scannedSlices, long edgeScans) {
+    }
+}
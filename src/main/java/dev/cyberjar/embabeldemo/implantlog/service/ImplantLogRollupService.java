@@ -0,0 +1,228 @@
+package dev.cyberjar.embabeldemo.implantlog.service;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantLogRollup;
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.domain.RollupGranularity;
+import dev.cyberjar.embabeldemo.implantlog.domain.RollupWatermark;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricSums;
+import dev.cyberjar.embabeldemo.implantlog.dto.MonitoringStats;
+import dev.cyberjar.embabeldemo.implantlog.ingest.ImplantLogRewrites;
+import dev.cyberjar.embabeldemo.implantlog.ingest.ImplantLogsRewrittenEvent;
+import dev.cyberjar.embabeldemo.implantlog.repository.ImplantLogRollupRepository;
+import dev.cyberjar.embabeldemo.implantlog.repository.ImplantMonitoringLogRepository;
+import dev.cyberjar.embabeldemo.seed.SeedingFinishedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ImplantLogRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImplantLogRollupService.class);
+
+    // Coarsest first: whole hours come from hour rollups, the edges from minute rollups, the rest from raw logs
+    private static final List<RollupGranularity> COVER_ORDER = List.of(RollupGranularity.HOUR, RollupGranularity.MINUTE);
+
+    // Upper bound for a single $merge run, so a first backfill doesn't become one giant aggregation
+    private static final Duration MAX_MERGE_RANGE = Duration.ofDays(1);
+
+    private final ImplantLogRollupRepository rollupRepository;
+    private final ImplantMonitoringLogRepository logRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ImplantLogRewrites rewrites;
+    private final boolean enabled;
+    private final Duration lateness;
+
+    private final Map<RollupGranularity, LocalDateTime> watermarks = new EnumMap<>(RollupGranularity.class);
+    // ranges whose rollups are being (or failed to be) rebuilt; stats over them are read from raw logs
+    private final List<ImplantLogsRewrittenEvent> rebuilding = new ArrayList<>();
+    private volatile boolean seeded;
+
+    public ImplantLogRollupService(ImplantLogRollupRepository rollupRepository,
+                                   ImplantMonitoringLogRepository logRepository,
+                                   MongoTemplate mongoTemplate,
+                                   ImplantLogRewrites rewrites,
+                                   @Value("${app.rollups.enabled:true}") boolean enabled,
+                                   @Value("${app.rollups.lateness:PT5M}") Duration lateness) {
+        this.rollupRepository = rollupRepository;
+        this.logRepository = logRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.rewrites = rewrites;
+        this.enabled = enabled;
+        this.lateness = lateness;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Background seeding inserts historical logs; a refresh before it is done would move the watermark past them
+    @EventListener(SeedingFinishedEvent.class)
+    public void seedingFinished() {
+        seeded = true;
+    }
+
+    @Scheduled(initialDelayString = "${app.rollups.refresh-interval:PT1M}",
+            fixedDelayString = "${app.rollups.refresh-interval:PT1M}")
+    public void scheduledRefresh() {
+        if (enabled && seeded) refresh();
+    }
+
+    // Samples arriving later than `lateness` after their bucket closed are only picked up when their writer
+    // reports them through ImplantLogRewrites (see rebuild)
+    public synchronized Map<RollupGranularity, LocalDateTime> refresh() {
+        LocalDateTime horizon = LocalDateTime.now().minus(lateness);
+
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            LocalDateTime from = watermark(granularity);
+            if (from == null) {
+                from = earliestLogTimestamp();
+                if (from == null) continue;
+                from = granularity.floor(from);
+            }
+
+            LocalDateTime until = granularity.floor(horizon);
+
+            while (from.isBefore(until)) {
+                LocalDateTime to = min(from.plus(MAX_MERGE_RANGE), until);
+
+                rollupRepository.mergeRollups(granularity, from, to);
+                mongoTemplate.save(new RollupWatermark(granularity, to));
+                setWatermark(granularity, to);
+
+                log.debug("Rolled up {} buckets from {} to {}", granularity, from, to);
+                from = to;
+            }
+        }
+
+        return currentWatermarks();
+    }
+
+    public MonitoringStats aggregateStats(String serialNumber, LocalDateTime from, LocalDateTime to) {
+        // to is inclusive for callers; rollup ranges are half-open on millisecond precision (as stored)
+        LocalDateTime toExclusive = to.truncatedTo(ChronoUnit.MILLIS).plus(1, ChronoUnit.MILLIS);
+
+        MetricSums sums = isDirty(from, toExclusive)
+                ? logRepository.sumMetrics(serialNumber, from, toExclusive)
+                : cover(serialNumber, from, toExclusive, COVER_ORDER);
+
+        return sums.count() == 0 ? null : sums.toStats(serialNumber);
+    }
+
+    // Recomputes every already rolled-up bucket touching the range from raw logs. Buckets of deleted logs are
+    // dropped, buckets past the watermark are left to the next refresh.
+    @EventListener
+    public synchronized void rebuild(ImplantLogsRewrittenEvent range) {
+        synchronized (rebuilding) {
+            rebuilding.add(range);
+        }
+
+        LocalDateTime earliestLog = earliestLogTimestamp();
+
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            LocalDateTime watermark = watermark(granularity);
+            if (watermark == null) continue;
+
+            LocalDateTime from = granularity.floor(range.from());
+            LocalDateTime until = min(granularity.ceil(range.toExclusive()), watermark);
+            if (!from.isBefore(until)) continue;
+
+            mongoTemplate.remove(Query.query(Criteria.where("granularity").is(granularity)
+                    .and("bucketStart").gte(from).lt(until)), ImplantLogRollup.class);
+
+            // nothing to merge before the first log; keeps ImplantLogRewrites.ALL_FROM ranges cheap
+            if (earliestLog == null) continue;
+            if (from.isBefore(granularity.floor(earliestLog))) from = granularity.floor(earliestLog);
+
+            while (from.isBefore(until)) {
+                LocalDateTime to = min(from.plus(MAX_MERGE_RANGE), until);
+                rollupRepository.mergeRollups(granularity, from, to);
+                from = to;
+            }
+        }
+
+        // only reached when every bucket was rebuilt; after a failure the range keeps being read raw
+        synchronized (rebuilding) {
+            rebuilding.remove(range);
+        }
+        log.info("Rebuilt rollups in [{}, {}) after {}", range.from(), range.toExclusive(), range.writer());
+    }
+
+    public synchronized Map<RollupGranularity, LocalDateTime> currentWatermarks() {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            watermark(granularity);
+        }
+        return Map.copyOf(watermarks);
+    }
+
+    private MetricSums cover(String serialNumber,
+                             LocalDateTime from,
+                             LocalDateTime toExclusive,
+                             List<RollupGranularity> granularities) {
+
+        if (!from.isBefore(toExclusive)) return MetricSums.EMPTY;
+        if (granularities.isEmpty()) return logRepository.sumMetrics(serialNumber, from, toExclusive);
+
+        RollupGranularity granularity = granularities.getFirst();
+        List<RollupGranularity> finer = granularities.subList(1, granularities.size());
+
+        LocalDateTime watermark = watermark(granularity);
+        if (watermark == null) return cover(serialNumber, from, toExclusive, finer);
+
+        // whole buckets inside the range that are already rolled up
+        LocalDateTime bucketsFrom = granularity.ceil(from);
+        LocalDateTime bucketsTo = min(granularity.floor(toExclusive), watermark);
+
+        if (!bucketsFrom.isBefore(bucketsTo)) return cover(serialNumber, from, toExclusive, finer);
+
+        return cover(serialNumber, from, bucketsFrom, finer)
+                .plus(rollupRepository.sumRollups(serialNumber, granularity, bucketsFrom, bucketsTo))
+                .plus(cover(serialNumber, bucketsTo, toExclusive, finer));
+    }
+
+    private boolean isDirty(LocalDateTime from, LocalDateTime toExclusive) {
+        if (rewrites.isRewriting(from, toExclusive)) return true;
+
+        synchronized (rebuilding) {
+            return rebuilding.stream().anyMatch(range -> range.overlaps(from, toExclusive));
+        }
+    }
+
+    private synchronized LocalDateTime watermark(RollupGranularity granularity) {
+        return watermarks.computeIfAbsent(granularity, g -> {
+            RollupWatermark stored = mongoTemplate.findById(g.name(), RollupWatermark.class);
+            return stored != null ? stored.processedUntil() : null;
+        });
+    }
+
+    private synchronized void setWatermark(RollupGranularity granularity, LocalDateTime processedUntil) {
+        watermarks.put(granularity, processedUntil);
+    }
+
+    private LocalDateTime earliestLogTimestamp() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "timestamp")).limit(1);
+        query.fields().include("timestamp");
+
+        ImplantMonitoringLog first = mongoTemplate.findOne(query, ImplantMonitoringLog.class);
+        return first != null ? first.getTimestamp() : null;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
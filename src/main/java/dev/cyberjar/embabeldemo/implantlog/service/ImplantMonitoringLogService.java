@@ -1,12 +1,23 @@
 package dev.cyberjar.embabeldemo.implantlog.service;
 
 import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.domain.TelemetryMetric;
+import dev.cyberjar.embabeldemo.implantlog.dto.ImplantAnomalySummary;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricThreshold;
 import dev.cyberjar.embabeldemo.implantlog.dto.MonitoringStats;
+import dev.cyberjar.embabeldemo.implantlog.hotwindow.HotWindowStore;
 import dev.cyberjar.embabeldemo.implantlog.repository.ImplantMonitoringLogRepository;
+import dev.cyberjar.embabeldemo.implantlog.repository.ReactiveImplantMonitoringLogRepository;
+import dev.cyberjar.embabeldemo.implantlog.scan.AnomalyAccumulator;
 import org.springframework.data.geo.Point;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -14,9 +25,18 @@ import java.util.Map;
 public class ImplantMonitoringLogService {
 
     private final ImplantMonitoringLogRepository implantMonitoringLogRepository;
+    private final ReactiveImplantMonitoringLogRepository reactiveRepository;
+    private final ImplantLogRollupService rollupService;
+    private final HotWindowStore hotWindowStore;
 
-    public ImplantMonitoringLogService(ImplantMonitoringLogRepository implantMonitoringLogRepository) {
+    public ImplantMonitoringLogService(ImplantMonitoringLogRepository implantMonitoringLogRepository,
+                                       ReactiveImplantMonitoringLogRepository reactiveRepository,
+                                       ImplantLogRollupService rollupService,
+                                       HotWindowStore hotWindowStore) {
         this.implantMonitoringLogRepository = implantMonitoringLogRepository;
+        this.reactiveRepository = reactiveRepository;
+        this.rollupService = rollupService;
+        this.hotWindowStore = hotWindowStore;
     }
 
     public List<ImplantMonitoringLog> findAllByImplantSerialNumber(String serialNumber) {
@@ -38,6 +58,10 @@ public class ImplantMonitoringLogService {
             LocalDateTime from,
             LocalDateTime to) {
 
+        if (rollupService.isEnabled()) {
+            return rollupService.aggregateStats(serialNumber, from, to);
+        }
+
         return implantMonitoringLogRepository.aggregateStats(
                 serialNumber,
                 from,
@@ -50,6 +74,10 @@ public class ImplantMonitoringLogService {
             LocalDateTime from,
             LocalDateTime to) {
 
+        if (servedFromHotWindow(from)) {
+            return hotWindowStore.findLogsByAreaAndTime(center, maxDistanceMeters, from, to);
+        }
+
         return implantMonitoringLogRepository.findLogsByAreaAndTimeGrouped(
                 center,
                 maxDistanceMeters,
@@ -57,4 +85,170 @@ public class ImplantMonitoringLogService {
                 to);
     }
 
+    public List<ImplantAnomalySummary> summarizeAnomaliesByAreaAndTime(
+            Point center,
+            double maxDistanceMeters,
+            LocalDateTime from,
+            LocalDateTime to,
+            List<MetricThreshold> thresholds) {
+
+        if (servedFromHotWindow(from)) {
+            return hotWindowStore.summarizeAnomaliesByAreaAndTime(center, maxDistanceMeters, from, to, thresholds);
+        }
+
+        return implantMonitoringLogRepository.summarizeAnomaliesByAreaAndTime(
+                center,
+                maxDistanceMeters,
+                from,
+                to,
+                thresholds);
+    }
+
+    public List<ImplantAnomalySummary> streamAnomalySummariesByAreaAndTime(
+            Point center,
+            double maxDistanceMeters,
+            LocalDateTime from,
+            LocalDateTime to,
+            List<MetricThreshold> thresholds) {
+
+        if (servedFromHotWindow(from)) {
+            return hotWindowStore.summarizeAnomaliesByAreaAndTime(center, maxDistanceMeters, from, to, thresholds);
+        }
+
+        return implantMonitoringLogRepository.streamAnomalySummariesByAreaAndTime(
+                center,
+                maxDistanceMeters,
+                from,
+                to,
+                thresholds);
+    }
+
+    // Always read from Mongo: slices of an incremental scan are kept across runs, so they must not depend on
+    // how much the hot window happened to cover at the time
+    public Map<String, AnomalyAccumulator> accumulateAnomaliesByAreaAndTime(
+            Point center,
+            double maxDistanceMeters,
+            LocalDateTime from,
+            LocalDateTime toExclusive,
+            List<MetricThreshold> thresholds) {
+
+        return implantMonitoringLogRepository.accumulateAnomaliesByAreaAndTime(
+                center,
+                maxDistanceMeters,
+                from,
+                toExclusive,
+                thresholds);
+    }
+
+    public long countLogsByAreaAndTime(
+            Point center,
+            double maxDistanceMeters,
+            LocalDateTime from,
+            LocalDateTime to,
+            long limit) {
+
+        if (servedFromHotWindow(from)) {
+            return Math.min(hotWindowStore.countLogsByAreaAndTime(center, maxDistanceMeters, from, to), limit);
+        }
+
+        return implantMonitoringLogRepository.countLogsByAreaAndTime(
+                center,
+                maxDistanceMeters,
+                from,
+                to,
+                limit);
+    }
+
+    // Reactive variants: same routing, but Mongo is read through the reactive driver and nothing runs
+    // until subscription. The hot window answers from memory on the subscribing thread.
+
+    public Mono<MonitoringStats> aggregateStatsForImplantForPeriodReactive(
+            String serialNumber,
+            LocalDateTime from,
+            LocalDateTime to) {
+
+        if (rollupService.isEnabled()) {
+            // rollups are merged on the blocking template
+            return Mono.fromCallable(() -> rollupService.aggregateStats(serialNumber, from, to))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+
+        return reactiveRepository.aggregateStats(serialNumber, from, to);
+    }
+
+    // Raw logs of the window folded into per-implant accumulators as the cursor delivers them: only one
+    // accumulator per implant is held, never the logs themselves
+    public Flux<ImplantAnomalySummary> summarizeLogsByAreaAndTimeReactive(
+            Point center,
+            double maxDistanceMeters,
+            LocalDateTime from,
+            LocalDateTime to,
+            List<MetricThreshold> thresholds) {
+
+        return Flux.defer(() -> {
+            if (servedFromHotWindow(from)) {
+                return Flux.fromIterable(hotWindowStore.summarizeAnomaliesByAreaAndTime(
+                        center, maxDistanceMeters, from, to, thresholds));
+            }
+
+            TelemetryMetric[] metrics = thresholds.stream().map(MetricThreshold::metric).toArray(TelemetryMetric[]::new);
+            double[] values = new double[metrics.length];
+
+            return reactiveRepository.findLogsByAreaAndTime(center, maxDistanceMeters, from, to)
+                    .collect(() -> new HashMap<String, AnomalyAccumulator>(), (accumulators, log) -> {
+                        for (int i = 0; i < metrics.length; i++) {
+                            values[i] = metrics[i].valueOf(log);
+                        }
+                        accumulators.computeIfAbsent(log.getImplantSerialNumber(), s -> new AnomalyAccumulator(thresholds))
+                                .add(values, AnomalyAccumulator.toMillis(log.getTimestamp()));
+                    })
+                    .flatMapIterable(accumulators -> {
+                        List<ImplantAnomalySummary> summaries = new ArrayList<>(accumulators.size());
+                        accumulators.forEach((serial, accumulator) -> summaries.add(accumulator.toSummary(serial)));
+                        return summaries;
+                    });
+        });
+    }
+
+    public Flux<ImplantAnomalySummary> summarizeAnomaliesByAreaAndTimeReactive(
+            Point center,
+            double maxDistanceMeters,
+            LocalDateTime from,
+            LocalDateTime to,
+            List<MetricThreshold> thresholds) {
+
+        return Flux.defer(() -> servedFromHotWindow(from)
+                ? Flux.fromIterable(hotWindowStore.summarizeAnomaliesByAreaAndTime(center, maxDistanceMeters, from, to, thresholds))
+                : reactiveRepository.summarizeAnomaliesByAreaAndTime(center, maxDistanceMeters, from, to, thresholds));
+    }
+
+    public Flux<ImplantAnomalySummary> streamAnomalySummariesByAreaAndTimeReactive(
+            Point center,
+            double maxDistanceMeters,
+            LocalDateTime from,
+            LocalDateTime to,
+            List<MetricThreshold> thresholds) {
+
+        return Flux.defer(() -> servedFromHotWindow(from)
+                ? Flux.fromIterable(hotWindowStore.summarizeAnomaliesByAreaAndTime(center, maxDistanceMeters, from, to, thresholds))
+                : reactiveRepository.streamAnomalySummariesByAreaAndTime(center, maxDistanceMeters, from, to, thresholds));
+    }
+
+    public Mono<Long> countLogsByAreaAndTimeReactive(
+            Point center,
+            double maxDistanceMeters,
+            LocalDateTime from,
+            LocalDateTime to,
+            long limit) {
+
+        return Mono.defer(() -> servedFromHotWindow(from)
+                ? Mono.just(Math.min(hotWindowStore.countLogsByAreaAndTime(center, maxDistanceMeters, from, to), limit))
+                : reactiveRepository.countLogsByAreaAndTime(center, maxDistanceMeters, from, to, limit));
+    }
+
+    private boolean servedFromHotWindow(LocalDateTime from) {
+        boolean hot = hotWindowStore.covers(from);
+        hotWindowStore.recordQuery(hot);
+        return hot;
+    }
 }
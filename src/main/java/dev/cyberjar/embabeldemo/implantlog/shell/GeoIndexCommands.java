@@ -0,0 +1,80 @@
+package dev.cyberjar.embabeldemo.implantlog.shell;
+
+import dev.cyberjar.embabeldemo.implantlog.dto.GeoCrossCheckReport;
+import dev.cyberjar.embabeldemo.implantlog.geo.GeoIndexBenchmark;
+import dev.cyberjar.embabeldemo.implantlog.hotwindow.HotWindowCrossCheck;
+import dev.cyberjar.embabeldemo.seed.SeedingState;
+import org.springframework.shell.Availability;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellMethodAvailability;
+import org.springframework.shell.standard.ShellOption;
+
+import java.time.Duration;
+
+@ShellComponent
+public class GeoIndexCommands {
+
+    private final HotWindowCrossCheck crossCheck;
+    private final SeedingState seedingState;
+
+    public GeoIndexCommands(HotWindowCrossCheck crossCheck, SeedingState seedingState) {
+        this.crossCheck = crossCheck;
+        this.seedingState = seedingState;
+    }
+
+    @ShellMethodAvailability("geo-index-check")
+    public Availability seeded() {
+        return seedingState.availability();
+    }
+
+    @ShellMethod(key = "geo-index-check", value = "Compare hot window radius queries against $geoNear")
+    public String check(@ShellOption(defaultValue = "50") int queries,
+                        @ShellOption(defaultValue = "2000") double radius,
+                        @ShellOption(defaultValue = "PT1H") Duration window) {
+
+        GeoCrossCheckReport report = crossCheck.run(queries, radius, window);
+        return """
+                Queries:          %d
+                Samples:          %d from $geoNear, %d from the cell index
+                Missing / extra:  %d / %d (%d within tolerance of the radius)
+                Mean latency:     %.2f ms $geoNear, %.3f ms cell index
+                Result:           %s
+                """.formatted(
+                report.queries(),
+                report.mongoSamples(),
+                report.indexSamples(),
+                report.missingFromIndex(),
+                report.extraInIndex(),
+                report.onBoundary(),
+                report.meanMongoMillis(),
+                report.meanIndexMillis(),
+                report.consistent() ? "consistent" : "MISMATCH");
+    }
+
+    @ShellMethod(key = "geo-index-bench", value = "Benchmark the geo cell index on synthetic samples")
+    public String bench(@ShellOption(defaultValue = "1000000") int samples,
+                        @ShellOption(defaultValue = "2000") int queries,
+                        @ShellOption(defaultValue = "500") double radius,
+                        @ShellOption(defaultValue = "0.01") double cellDegrees,
+                        @ShellOption(defaultValue = "42") long seed) {
+
+        GeoIndexBenchmark.Result result = GeoIndexBenchmark.run(samples, queries, radius, cellDegrees, seed);
+        return """
+                Indexed:      %d samples in %.0f ms
+                Queries:      %d (radius %.0f m, 1h window, %.1f hits on average)
+                Latency:      p50 %.1f us, p99 %.1f us, max %.1f us
+                Brute force:  %.1f us mean (%d mismatching result counts)
+                """.formatted(
+                result.samples(),
+                result.buildMillis(),
+                result.queries(),
+                radius,
+                result.meanHits(),
+                result.p50Micros(),
+                result.p99Micros(),
+                result.maxMicros(),
+                result.bruteForceMeanMicros(),
+                result.mismatches());
+    }
+}
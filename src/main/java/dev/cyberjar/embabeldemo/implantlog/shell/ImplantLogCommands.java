@@ -0,0 +1,162 @@
+package dev.cyberjar.embabeldemo.implantlog.shell;
+
+import dev.cyberjar.embabeldemo.implantlog.cache.LogWindowCache;
+import dev.cyberjar.embabeldemo.implantlog.domain.RollupGranularity;
+import dev.cyberjar.embabeldemo.implantlog.dto.HotWindowStats;
+import dev.cyberjar.embabeldemo.implantlog.dto.IngestionStats;
+import dev.cyberjar.embabeldemo.implantlog.dto.TimeSeriesMigrationReport;
+import dev.cyberjar.embabeldemo.implantlog.hotwindow.HotWindowStore;
+import dev.cyberjar.embabeldemo.implantlog.ingest.TelemetryIngestionService;
+import dev.cyberjar.embabeldemo.implantlog.scan.IncrementalAnomalyScanner;
+import dev.cyberjar.embabeldemo.implantlog.service.ImplantLogRollupService;
+import dev.cyberjar.embabeldemo.implantlog.storage.ImplantLogStorage;
+import dev.cyberjar.embabeldemo.seed.SeedingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.shell.Availability;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellMethodAvailability;
+import org.springframework.shell.standard.ShellOption;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@ShellComponent
+public class ImplantLogCommands {
+
+    private final LogWindowCache logWindowCache;
+    private final ImplantLogStorage implantLogStorage;
+    private final ImplantLogRollupService rollupService;
+    private final TelemetryIngestionService ingestionService;
+    private final HotWindowStore hotWindowStore;
+    private final IncrementalAnomalyScanner incrementalScanner;
+    private final SeedingState seedingState;
+    private final boolean subscriptionsEnabled;
+
+    public ImplantLogCommands(LogWindowCache logWindowCache,
+                              ImplantLogStorage implantLogStorage,
+                              ImplantLogRollupService rollupService,
+                              TelemetryIngestionService ingestionService,
+                              HotWindowStore hotWindowStore,
+                              IncrementalAnomalyScanner incrementalScanner,
+                              SeedingState seedingState,
+                              @Value("${app.subscriptions.enabled:true}") boolean subscriptionsEnabled) {
+        this.logWindowCache = logWindowCache;
+        this.implantLogStorage = implantLogStorage;
+        this.rollupService = rollupService;
+        this.ingestionService = ingestionService;
+        this.hotWindowStore = hotWindowStore;
+        this.incrementalScanner = incrementalScanner;
+        this.seedingState = seedingState;
+        this.subscriptionsEnabled = subscriptionsEnabled;
+    }
+
+    // these read or rewrite implant_logs wholesale, which seeding is still filling
+    @ShellMethodAvailability({"implant-logs-migrate", "rollups-refresh"})
+    public Availability seeded() {
+        return seedingState.availability();
+    }
+
+    @ShellMethod(key = "window-cache-stats", value = "Show hit/miss counts of the log window cache")
+    public String windowCacheStats() {
+        LogWindowCache.Stats stats = logWindowCache.stats();
+        return "hits=%d, misses=%d, sharedEntries=%d"
+                .formatted(stats.hits(), stats.misses(), stats.sharedEntries());
+    }
+
+    @ShellMethod(key = "window-cache-clear", value = "Drop all cached log windows")
+    public String windowCacheClear() {
+        logWindowCache.clear();
+        return "Log window cache cleared";
+    }
+
+    @ShellMethod(key = "implant-logs-migrate", value = "Move implant_logs into a time-series collection in batches")
+    public String migrateToTimeSeries(@ShellOption(defaultValue = "5000") int batchSize) {
+        // the alert subscriptions' change stream cannot follow implant_logs into a time-series collection
+        if (subscriptionsEnabled) {
+            return "Alert subscriptions are enabled; set app.subscriptions.enabled=false before migrating to time-series";
+        }
+
+        TimeSeriesMigrationReport report = implantLogStorage.migrateToTimeSeries(batchSize);
+        logWindowCache.clear();
+        incrementalScanner.clear();
+
+        return """
+                Copied logs:  %d
+                Before:       %s
+                After:        %s
+                Window query: %d ms -> %d ms
+                """.formatted(
+                report.copiedLogs(),
+                report.before(),
+                report.after(),
+                report.windowQueryBefore().toMillis(),
+                report.windowQueryAfter().toMillis());
+    }
+
+    @ShellMethod(key = "rollups-refresh", value = "Roll up implant logs received since the last watermark")
+    public String refreshRollups() {
+        Map<RollupGranularity, LocalDateTime> watermarks = rollupService.refresh();
+        return "Rollups processed until " + watermarks;
+    }
+
+    @ShellMethod(key = "incremental-stats", value = "Show how many time slices incremental triage reused or scanned")
+    public String incrementalStats() {
+        IncrementalAnomalyScanner.Stats stats = incrementalScanner.stats();
+        return "keptSlices=%d, reused=%d, scanned=%d, edgeScans=%d"
+                .formatted(stats.keptSlices(), stats.cachedSlices(), stats.scannedSlices(), stats.edgeScans());
+    }
+
+    @ShellMethod(key = "incremental-clear", value = "Drop all kept incremental triage slices")
+    public String incrementalClear() {
+        incrementalScanner.clear();
+        return "Incremental slices cleared";
+    }
+
+    @ShellMethod(key = "ingest-stats", value = "Show telemetry ingestion throughput, batching and queue depth")
+    public String ingestStats() {
+        IngestionStats stats = ingestionService.stats();
+        return """
+                Accepted samples: %d
+                Written samples:  %d (%.0f/s since start)
+                Failed samples:   %d
+                Batches:          %d (mean size %.1f)
+                Queue depth:      %d
+                Write latency:    mean %.1f ms, max %.1f ms
+                """.formatted(
+                stats.acceptedSamples(),
+                stats.writtenSamples(),
+                stats.writtenPerSecond(),
+                stats.failedSamples(),
+                stats.batches(),
+                stats.meanBatchSize(),
+                stats.queueDepth(),
+                stats.meanWriteLatencyMs(),
+                stats.maxWriteLatencyMs());
+    }
+
+    @ShellMethod(key = "hot-window-stats", value = "Show off-heap hot window size, coverage and query routing")
+    public String hotWindowStats() {
+        HotWindowStats stats = hotWindowStore.stats();
+        return """
+                Enabled:         %s (serving: %s, memory-mapped: %s)
+                Implants:        %d
+                Samples:         %d (%d bytes off-heap)
+                Covers from:     %s
+                Evicted until:   %s
+                Rewritten until: %s
+                Window queries:  %d hot, %d from Mongo
+                """.formatted(
+                stats.enabled(),
+                stats.serving(),
+                stats.memoryMapped(),
+                stats.implants(),
+                stats.samples(),
+                stats.offHeapBytes(),
+                stats.coverageFrom(),
+                stats.evictedUntil(),
+                stats.uncoveredUntil(),
+                stats.hotQueries(),
+                stats.fallbackQueries());
+    }
+}
@@ -0,0 +1,245 @@
+package dev.cyberjar.embabeldemo.implantlog.storage;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.dto.CollectionStorageStats;
+import dev.cyberjar.embabeldemo.implantlog.dto.TimeSeriesMigrationReport;
+import dev.cyberjar.embabeldemo.implantlog.ingest.TelemetryIngestionService;
+import dev.cyberjar.embabeldemo.implantlog.repository.ImplantMonitoringLogRepository;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+public class ImplantLogStorage {
+
+    private static final Logger log = LoggerFactory.getLogger(ImplantLogStorage.class);
+
+    private static final String LEGACY_SUFFIX = "_legacy";
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final ImplantMonitoringLogRepository logRepository;
+    private final TelemetryIngestionService ingestionService;
+    private final ImplantLogStorageMode mode;
+
+    public ImplantLogStorage(MongoTemplate mongoTemplate,
+                             MongoMappingContext mappingContext,
+                             ImplantMonitoringLogRepository logRepository,
+                             TelemetryIngestionService ingestionService,
+                             @Value("${app.implant-logs.storage:standard}") ImplantLogStorageMode mode) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.logRepository = logRepository;
+        this.ingestionService = ingestionService;
+        this.mode = mode;
+    }
+
+    // Runs before seeding (DataInitializer depends on this bean), so a fresh database gets a
+    // time-series collection instead of the plain one implicitly created by index auto-creation.
+    @PostConstruct
+    public void prepare() {
+        if (mode != ImplantLogStorageMode.TIMESERIES) return;
+
+        String collection = collectionName();
+        if (isTimeSeries(collection)) return;
+
+        if (mongoTemplate.collectionExists(collection)
+                && mongoTemplate.getCollection(collection).estimatedDocumentCount() > 0) {
+            log.warn("'{}' is a plain collection with data; run 'implant-logs-migrate' to convert it to time-series",
+                    collection);
+            return;
+        }
+
+        mongoTemplate.dropCollection(collection);
+        createTimeSeriesCollection(collection);
+        log.info("Created '{}' as a time-series collection", collection);
+    }
+
+    // Online migration: the plain collection is renamed aside (time-series collections cannot be renamed),
+    // new writes go straight into the time-series collection and old data is moved over in batches.
+    // Ingestion is paused for the swap: an insert between rename and create would recreate a plain collection.
+    // Each batch is deleted from the legacy collection once copied, so an interrupted run can be resumed.
+    public TimeSeriesMigrationReport migrateToTimeSeries(int batchSize) {
+        String collection = collectionName();
+        String legacy = collection + LEGACY_SUFFIX;
+
+        WindowProbe probe = WindowProbe.sample(mongoTemplate, collection, legacy);
+
+        CollectionStorageStats before;
+        Duration queryBefore;
+
+        if (!isTimeSeries(collection)) {
+            before = storageStats(collection);
+            queryBefore = probe.run(logRepository);
+
+            try (TelemetryIngestionService.Pause ignored = ingestionService.pause()) {
+                if (mongoTemplate.collectionExists(collection)) {
+                    mongoTemplate.getCollection(collection)
+                            .renameCollection(new MongoNamespace(mongoTemplate.getDb().getName(), legacy));
+                }
+                createTimeSeriesCollection(collection);
+            }
+        } else {
+            // resuming: what is left in the legacy collection is what still has to move
+            before = storageStats(legacy);
+            queryBefore = Duration.ZERO;
+        }
+
+        long copied = mongoTemplate.collectionExists(legacy) ? moveInBatches(legacy, collection, batchSize) : 0;
+        mongoTemplate.dropCollection(legacy);
+
+        CollectionStorageStats after = storageStats(collection);
+        Duration queryAfter = probe.run(logRepository);
+
+        log.info("Migrated {} logs to time-series '{}': {} -> {}, window query {} -> {}",
+                copied, collection, before, after, queryBefore, queryAfter);
+
+        return new TimeSeriesMigrationReport(copied, before, after, queryBefore, queryAfter);
+    }
+
+    public CollectionStorageStats storageStats(String collection) {
+        if (!mongoTemplate.collectionExists(collection)) return CollectionStorageStats.EMPTY;
+
+        Document stats = mongoTemplate.getCollection(collection)
+                .aggregate(List.of(new Document("$collStats", new Document("storageStats", new Document()))))
+                .first();
+        Document storage = stats != null ? stats.get("storageStats", Document.class) : new Document();
+
+        return new CollectionStorageStats(
+                mongoTemplate.getCollection(collection).countDocuments(),
+                longValue(storage, "size"),
+                longValue(storage, "storageSize"),
+                longValue(storage, "totalIndexSize"));
+    }
+
+    private long moveInBatches(String from, String to, int batchSize) {
+        MongoCollection<Document> source = mongoTemplate.getCollection(from);
+        MongoCollection<Document> target = mongoTemplate.getCollection(to);
+
+        long copied = 0;
+
+        while (true) {
+            List<Document> batch = source.find()
+                    .sort(Sorts.ascending("_id"))
+                    .limit(batchSize)
+                    .into(new ArrayList<>(batchSize));
+            if (batch.isEmpty()) break;
+
+            List<Object> ids = batch.stream().map(d -> d.get("_id")).toList();
+
+            // time-series collections do not enforce _id uniqueness and a run can stop between copy and delete:
+            // skip whatever is already in the target, so every batch can be replayed
+            Set<Object> present = copiedIds(target, batch, ids);
+            List<Document> missing = present.isEmpty()
+                    ? batch
+                    : batch.stream().filter(d -> !present.contains(d.get("_id"))).toList();
+
+            if (!missing.isEmpty()) target.insertMany(missing, new InsertManyOptions().ordered(false));
+            source.deleteMany(Filters.in("_id", ids));
+
+            copied += batch.size();
+            log.debug("Moved {} logs to '{}'", copied, to);
+        }
+
+        return copied;
+    }
+
+    // Narrowed by serial and time range, so the lookup uses the meta/time index instead of scanning every bucket
+    private static Set<Object> copiedIds(MongoCollection<Document> target, List<Document> batch, List<Object> ids) {
+        Set<Object> serials = new HashSet<>();
+        Date from = null;
+        Date to = null;
+        for (Document document : batch) {
+            serials.add(document.get("implantSerialNumber"));
+            if (document.get("timestamp") instanceof Date timestamp) {
+                if (from == null || timestamp.before(from)) from = timestamp;
+                if (to == null || timestamp.after(to)) to = timestamp;
+            }
+        }
+
+        List<Bson> filters = new ArrayList<>(List.of(Filters.in("_id", ids), Filters.in("implantSerialNumber", serials)));
+        if (from != null) filters.add(Filters.and(Filters.gte("timestamp", from), Filters.lte("timestamp", to)));
+
+        Set<Object> present = new HashSet<>();
+        target.find(Filters.and(filters))
+                .projection(Projections.include("_id"))
+                .forEach(document -> present.add(document.get("_id")));
+        return present;
+    }
+
+    private void createTimeSeriesCollection(String collection) {
+        mongoTemplate.createCollection(collection, CollectionOptions.timeSeries("timestamp",
+                options -> options.metaField("implantSerialNumber").granularity(Granularity.SECONDS)));
+
+        IndexResolver.create(mappingContext)
+                .resolveIndexFor(ImplantMonitoringLog.class)
+                .forEach(index -> mongoTemplate.indexOps(collection).createIndex(index));
+    }
+
+    private boolean isTimeSeries(String collection) {
+        Document info = mongoTemplate.getDb()
+                .listCollections()
+                .filter(new Document("name", collection))
+                .first();
+        return info != null && "timeseries".equals(info.getString("type"));
+    }
+
+    private String collectionName() {
+        return mongoTemplate.getCollectionName(ImplantMonitoringLog.class);
+    }
+
+    private static long longValue(Document document, String key) {
+        return document.get(key) instanceof Number number ? number.longValue() : 0;
+    }
+
+    // A fixed one-week window around a sample log, run before and after the migration
+    private record WindowProbe(Point center, LocalDateTime from, LocalDateTime to) {
+
+        private static final double RADIUS_METERS = 5_000;
+
+        static WindowProbe sample(MongoTemplate mongoTemplate, String... collections) {
+            for (String collection : collections) {
+                if (!mongoTemplate.collectionExists(collection)) continue;
+
+                Document sample = mongoTemplate.getCollection(collection).find().first();
+                if (sample == null) continue;
+
+                ImplantMonitoringLog log = mongoTemplate.getConverter().read(ImplantMonitoringLog.class, sample);
+                return new WindowProbe(log.getLocation(), log.getTimestamp().minusDays(7), log.getTimestamp());
+            }
+            return new WindowProbe(null, null, null);
+        }
+
+        Duration run(ImplantMonitoringLogRepository repository) {
+            if (center == null) return Duration.ZERO;
+
+            long start = System.nanoTime();
+            repository.findLogsByAreaAndTimeGrouped(center, RADIUS_METERS, from, to);
+            return Duration.ofNanos(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package dev.cyberjar.embabeldemo.implantlog.storage;
+
+public enum ImplantLogStorageMode {
+    // Plain collection, one document per sample
+    STANDARD,
+    // Native time-series collection bucketed by implantSerialNumber (MongoDB 6.0+)
+    TIMESERIES
+}
@@ -0,0 +1,173 @@
+package dev.cyberjar.embabeldemo.incident.classifier;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.TelemetryMetric;
+import dev.cyberjar.embabeldemo.incident.domain.AffectedImplant;
+import dev.cyberjar.embabeldemo.incident.domain.HypothesisType;
+import dev.cyberjar.embabeldemo.incident.domain.MetricScore;
+import dev.cyberjar.embabeldemo.incident.domain.RootCauseHypothesis;
+import dev.cyberjar.embabeldemo.incident.dto.RootCauseClassifierStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Settles the obvious root causes from the affected implants alone:
+//   BAD_LOT         nearly every anomalous implant comes from the same manufacturer lot
+//   ATTACK_PATTERN  CPU is the worst metric on implants spread over many lots and models
+// Anything in between yields empty and the caller asks the LLM.
+@Component
+public class RootCauseClassifier {
+
+    private static final String CPU = TelemetryMetric.CPU_USAGE_PCT.field();
+
+    // an attack shows up across the fleet: no lot may explain more than this share
+    private static final double MAX_ATTACK_LOT_SHARE = 0.5;
+    private static final int MIN_ATTACK_MODELS = 3;
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double minConfidence;
+    private final int minImplants;
+
+    private final Counter llmFallbacks;
+    private final Timer ruleLatency;
+
+    public RootCauseClassifier(MeterRegistry meterRegistry,
+                               @Value("${app.root-cause.rules-enabled:true}") boolean enabled,
+                               @Value("${app.root-cause.min-confidence:0.8}") double minConfidence,
+                               @Value("${app.root-cause.min-implants:3}") int minImplants) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.minConfidence = minConfidence;
+        this.minImplants = minImplants;
+
+        this.llmFallbacks = Counter.builder("incident.root-cause.classify").tag("path", "llm").register(meterRegistry);
+        this.ruleLatency = Timer.builder("incident.root-cause.rules").register(meterRegistry);
+    }
+
+    public Optional<RootCauseHypothesis> classify(List<AffectedImplant> affected) {
+        if (!enabled) {
+            llmFallbacks.increment();
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        Optional<RootCauseHypothesis> hypothesis = evaluate(affected);
+        ruleLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        hypothesis.ifPresentOrElse(
+                h -> meterRegistry.counter("incident.root-cause.classify", "path", "rule", "type", h.type().name()).increment(),
+                llmFallbacks::increment);
+        return hypothesis;
+    }
+
+    // Saved latency is estimated from what root cause LLM calls cost so far, minus the time spent in the rules
+    public RootCauseClassifierStats stats() {
+        long ruleHits = (long) meterRegistry.find("incident.root-cause.classify").tag("path", "rule").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+        long fallbacks = (long) llmFallbacks.count();
+
+        // llm.call is split by model and size classes
+        Collection<Timer> llmCalls = meterRegistry.find("llm.call").tag("action", "makeRootCauseHypothesis").timers();
+        long llmCount = llmCalls.stream().mapToLong(Timer::count).sum();
+        double llmMeanMillis = llmCount == 0 ? 0.0
+                : llmCalls.stream().mapToDouble(t -> t.totalTime(TimeUnit.MILLISECONDS)).sum() / llmCount;
+        double ruleMeanMillis = ruleLatency.mean(TimeUnit.MILLISECONDS);
+
+        long total = ruleHits + fallbacks;
+
+        return new RootCauseClassifierStats(
+                ruleHits,
+                fallbacks,
+                total == 0 ? 0.0 : (double) ruleHits / total,
+                llmMeanMillis,
+                ruleMeanMillis,
+                Math.max(0.0, ruleHits * llmMeanMillis - ruleLatency.totalTime(TimeUnit.MILLISECONDS)));
+    }
+
+    Optional<RootCauseHypothesis> evaluate(List<AffectedImplant> affected) {
+        List<AffectedImplant> anomalous = affected == null ? List.of() : affected.stream()
+                .filter(a -> a.anomalyScore() > 0.0)
+                .toList();
+
+        int n = anomalous.size();
+        if (n < minImplants) return Optional.empty();
+
+        Map<String, Integer> lots = countBy(anomalous, RootCauseClassifier::lotOf);
+        Map<String, Integer> models = countBy(anomalous, AffectedImplant::model);
+        Map<String, Integer> manufacturers = countBy(anomalous, AffectedImplant::manufacturer);
+
+        Map.Entry<String, Integer> topLot = largest(lots);
+        double lotShare = (double) topLot.getValue() / n;
+
+        if (lotShare >= minConfidence) {
+            return Optional.of(new RootCauseHypothesis(
+                    HypothesisType.BAD_LOT,
+                    round(lotShare),
+                    List.of(
+                            "%d of %d anomalous implants are from %s".formatted(topLot.getValue(), n, topLot.getKey()),
+                            "models involved: " + String.join(", ", models.keySet()))));
+        }
+
+        long cpuLed = anomalous.stream().filter(RootCauseClassifier::isCpuLed).count();
+        double cpuShare = (double) cpuLed / n;
+
+        if (lotShare <= MAX_ATTACK_LOT_SHARE && models.size() >= MIN_ATTACK_MODELS && cpuShare >= minConfidence) {
+            return Optional.of(new RootCauseHypothesis(
+                    HypothesisType.ATTACK_PATTERN,
+                    round(cpuShare),
+                    List.of(
+                            "%d of %d anomalous implants peak on %s in the same area and window".formatted(cpuLed, n, CPU),
+                            "%d models from %d manufacturers across %d lots".formatted(
+                                    models.size(), manufacturers.size(), lots.size()),
+                            "largest lot (%s) accounts for only %d".formatted(topLot.getKey(), topLot.getValue()))));
+        }
+
+        return Optional.empty();
+    }
+
+    // lot numbers are per manufacturer
+    private static String lotOf(AffectedImplant implant) {
+        return implant.manufacturer() == null
+                ? "lot " + implant.lotNumber()
+                : implant.manufacturer() + " lot " + implant.lotNumber();
+    }
+
+    private static boolean isCpuLed(AffectedImplant implant) {
+        return implant.metricScores().stream()
+                .filter(s -> s.anomalyScore() > 0.0)
+                .max(Comparator.comparingDouble(MetricScore::anomalyScore))
+                .map(s -> CPU.equals(s.metric()))
+                .orElse(false);
+    }
+
+    // sorted keys keep the evidence text (and with it any cached follow-up prompt) stable
+    private static Map<String, Integer> countBy(List<AffectedImplant> implants, Function<AffectedImplant, String> key) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (AffectedImplant implant : implants) {
+            counts.merge(String.valueOf(key.apply(implant)), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static Map.Entry<String, Integer> largest(Map<String, Integer> counts) {
+        return counts.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElseThrow();
+    }
+
+    private static double round(double confidence) {
+        return Math.round(confidence * 100) / 100.0;
+    }
+}
@@ -1,9 +1,14 @@
 package dev.cyberjar.embabeldemo.incident.domain;
 
+import java.util.List;
+
+// anomalyScore is the highest of the per-metric scores
 public record AffectedImplant(
         String serialNumber,
         String lotNumber,
         String model,
+        String manufacturer,
         String civilianNationalId,
-        double anomalyScore
+        double anomalyScore,
+        List<MetricScore> metricScores
 ) {}
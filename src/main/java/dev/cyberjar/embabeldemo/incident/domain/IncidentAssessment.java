@@ -1,7 +1,11 @@
 package dev.cyberjar.embabeldemo.incident.domain;
 
+import java.util.List;
+
+// riskLevel is the highest of the per-metric levels
 public record IncidentAssessment(
         IncidentSignal signal,
         int numberOfLogs,
-        RiskLevel riskLevel
+        RiskLevel riskLevel,
+        List<MetricAssessment> metrics
 ) { }
@@ -1,10 +1,18 @@
 package dev.cyberjar.embabeldemo.incident.domain;
 
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
 import java.time.Instant;
 import java.util.List;
 
+// fingerprint identifies equivalent signals (see IncidentCaseStore), the index serves "latest case for a fingerprint"
+@Document(collection = "incident_cases")
+@CompoundIndex(name = "incident_case_fingerprint_idx", def = "{'fingerprint': 1, 'createdAt': -1}")
 public record IncidentCase(
-        String id,
+        @Id String id,
+        String fingerprint,
         Instant createdAt,
         IncidentSignal signal,
         IncidentAssessment assessment,
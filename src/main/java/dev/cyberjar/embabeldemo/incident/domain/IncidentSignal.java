@@ -1,11 +1,13 @@
 package dev.cyberjar.embabeldemo.incident.domain;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Positive;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public record IncidentSignal(
         @NotNull double longitude,
@@ -13,6 +15,5 @@ public record IncidentSignal(
         @Positive double radiusMeters,
         @NotNull @Past LocalDateTime from,
         @NotNull @Past LocalDateTime to,
-        @NotNull @NotEmpty String metric,
-        @Positive double threshold
+        @NotNull @NotEmpty List<@Valid MetricCondition> metrics
 ) { }
@@ -0,0 +1,9 @@
+package dev.cyberjar.embabeldemo.incident.domain;
+
+public record MetricAssessment(
+        String metric,
+        double threshold,
+        long exceedCount,
+        int implantsExceeding,
+        RiskLevel riskLevel
+) { }
@@ -0,0 +1,9 @@
+package dev.cyberjar.embabeldemo.incident.domain;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+
+public record MetricCondition(
+        @NotEmpty String metric,
+        @Positive double threshold
+) { }
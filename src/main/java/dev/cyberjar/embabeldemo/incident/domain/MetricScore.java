@@ -0,0 +1,7 @@
+package dev.cyberjar.embabeldemo.incident.domain;
+
+public record MetricScore(
+        String metric,
+        double maxValue,
+        double anomalyScore
+) { }
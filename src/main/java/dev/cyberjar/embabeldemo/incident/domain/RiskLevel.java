@@ -4,5 +4,13 @@ public enum RiskLevel {
     LOW,
     MEDIUM,
     HIGH,
-    CRITICAL
+    CRITICAL;
+
+    // Shared by triage and standing subscriptions, so an alert fires at the level a triage would report
+    public static RiskLevel classify(long exceedCount, long distinctImplants) {
+        if (exceedCount >= 60 && distinctImplants >= 5) return CRITICAL;
+        if (exceedCount >= 30 && distinctImplants >= 3) return HIGH;
+        if (exceedCount >= 10) return MEDIUM;
+        return LOW;
+    }
 }
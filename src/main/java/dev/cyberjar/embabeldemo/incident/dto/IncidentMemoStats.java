@@ -0,0 +1,13 @@
+package dev.cyberjar.embabeldemo.incident.dto;
+
+import java.time.Duration;
+
+public record IncidentMemoStats(
+        boolean enabled,
+        Duration freshness,
+        long hits,
+        long misses,
+        double hitRatio,
+        long storedCases
+) {
+}
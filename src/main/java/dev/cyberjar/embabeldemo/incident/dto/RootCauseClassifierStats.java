@@ -0,0 +1,11 @@
+package dev.cyberjar.embabeldemo.incident.dto;
+
+public record RootCauseClassifierStats(
+        long ruleHits,
+        long llmFallbacks,
+        double llmAvoidedRatio,
+        double llmMeanMillis,
+        double ruleMeanMillis,
+        double estimatedSavedMillis
+) {
+}
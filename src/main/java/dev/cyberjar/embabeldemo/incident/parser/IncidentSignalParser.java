@@ -0,0 +1,214 @@
+package dev.cyberjar.embabeldemo.incident.parser;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.TelemetryMetric;
+import dev.cyberjar.embabeldemo.incident.domain.IncidentSignal;
+import dev.cyberjar.embabeldemo.incident.domain.MetricCondition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Grammar for the structured prompts operators usually send, e.g.
+//   Center: lat 40.7580 lon -73.9855, radius 1200m, yesterday 13:00–23:00, metric neuralLatencyMs, threshold 120
+// The prompt is split into comma-separated clauses and every clause has to match one rule; anything
+// unrecognised, missing or out of range yields empty and the caller falls back to the LLM.
+@Component
+public class IncidentSignalParser {
+
+    private static final String NUM = "([-+]?\\d+(?:\\.\\d+)?)";
+    private static final String TIME = "(\\d{1,2}:\\d{2})";
+    private static final String DATE = "(\\d{4}-\\d{2}-\\d{2})";
+    private static final String DATE_TIME = "(\\d{4}-\\d{2}-\\d{2}[T ]\\d{1,2}:\\d{2}(?::\\d{2})?)";
+    private static final String RANGE = "\\s*(?:to|until|[–—-])\\s*";
+
+    private static final Pattern CENTER_PREFIX = Pattern.compile("^(?:center|centre|at)\\s*:?\\s*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COORDINATES = Pattern.compile(
+            "^(lat|lon|lng)[a-z]*\\s*[:=]?\\s*" + NUM + "(?:\\s+(lat|lon|lng)[a-z]*\\s*[:=]?\\s*" + NUM + ")?$",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern RADIUS = Pattern.compile(
+            "^radius\\s*[:=]?\\s*" + NUM + "\\s*(m|meters?|metres?|km|kilometers?|kilometres?)?$",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern ABSOLUTE_WINDOW = Pattern.compile(
+            "^(?:from\\s+)?" + DATE_TIME + RANGE + DATE_TIME + "$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DAY_WINDOW = Pattern.compile(
+            "^(?:(today|yesterday)|(\\d+)\\s+days?\\s+ago|(?:on\\s+)?" + DATE + ")\\s+(?:from\\s+)?" + TIME + RANGE + TIME + "$",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern METRIC = Pattern.compile("^metric\\s*[:=]?\\s*(\\w+)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern THRESHOLD = Pattern.compile("^threshold\\s*[:=]?\\s*" + NUM + "$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CONDITION = Pattern.compile(
+            "^(?:metrics?\\s*:?\\s*)?(\\w+)\\s*(?:>=|>|above|over)\\s*" + NUM + "$", Pattern.CASE_INSENSITIVE);
+
+    private final Counter grammarHits;
+    private final Counter llmFallbacks;
+
+    public IncidentSignalParser(MeterRegistry meterRegistry) {
+        this.grammarHits = Counter.builder("incident.signal.parse").tag("path", "grammar").register(meterRegistry);
+        this.llmFallbacks = Counter.builder("incident.signal.parse").tag("path", "llm").register(meterRegistry);
+    }
+
+    public Optional<IncidentSignal> parse(String prompt) {
+        Optional<IncidentSignal> signal = parse(prompt, LocalDate.now());
+        (signal.isPresent() ? grammarHits : llmFallbacks).increment();
+        return signal;
+    }
+
+    // today anchors relative days ("yesterday", "3 days ago")
+    Optional<IncidentSignal> parse(String prompt, LocalDate today) {
+        if (prompt == null || prompt.isBlank()) return Optional.empty();
+
+        Builder builder = new Builder();
+
+        for (String rawClause : strip(prompt).split("[,;]")) {
+            String clause = rawClause.trim();
+            if (clause.isEmpty()) continue;
+            if (!builder.accept(clause, today)) return Optional.empty();
+        }
+
+        return builder.build();
+    }
+
+    private static String strip(String prompt) {
+        String text = prompt.trim();
+        if (text.length() >= 2 && (text.startsWith("\"") && text.endsWith("\"") || text.startsWith("'") && text.endsWith("'"))) {
+            text = text.substring(1, text.length() - 1).trim();
+        }
+        return text.endsWith(".") ? text.substring(0, text.length() - 1) : text;
+    }
+
+    private static Optional<TelemetryMetric> metric(String name) {
+        for (TelemetryMetric metric : TelemetryMetric.values()) {
+            if (metric.field().equalsIgnoreCase(name)) return Optional.of(metric);
+        }
+        return Optional.empty();
+    }
+
+    private static final class Builder {
+
+        private Double longitude;
+        private Double latitude;
+        private Double radiusMeters;
+        private LocalDateTime from;
+        private LocalDateTime to;
+        private TelemetryMetric pendingMetric;
+        private final List<MetricCondition> metrics = new ArrayList<>();
+
+        boolean accept(String clause, LocalDate today) {
+            Matcher m;
+
+            if ((m = COORDINATES.matcher(CENTER_PREFIX.matcher(clause).replaceFirst(""))).matches()) {
+                return coordinate(m.group(1), m.group(2)) && (m.group(3) == null || coordinate(m.group(3), m.group(4)));
+            }
+            if ((m = RADIUS.matcher(clause)).matches()) {
+                if (radiusMeters != null) return false;
+                double value = Double.parseDouble(m.group(1));
+                radiusMeters = m.group(2) != null && m.group(2).toLowerCase().startsWith("k") ? value * 1000 : value;
+                return true;
+            }
+            if ((m = ABSOLUTE_WINDOW.matcher(clause)).matches()) {
+                return window(dateTime(m.group(1)), dateTime(m.group(2)));
+            }
+            if ((m = DAY_WINDOW.matcher(clause)).matches()) {
+                return dayWindow(m, today);
+            }
+            if ((m = METRIC.matcher(clause)).matches()) {
+                if (pendingMetric != null) return false;
+                pendingMetric = metric(m.group(1)).orElse(null);
+                return pendingMetric != null;
+            }
+            if ((m = THRESHOLD.matcher(clause)).matches()) {
+                if (pendingMetric == null) return false;
+                metrics.add(new MetricCondition(pendingMetric.field(), Double.parseDouble(m.group(1))));
+                pendingMetric = null;
+                return true;
+            }
+            if ((m = CONDITION.matcher(clause)).matches()) {
+                TelemetryMetric metric = metric(m.group(1)).orElse(null);
+                if (metric == null) return false;
+                metrics.add(new MetricCondition(metric.field(), Double.parseDouble(m.group(2))));
+                return true;
+            }
+            return false;
+        }
+
+        Optional<IncidentSignal> build() {
+            if (longitude == null || latitude == null || radiusMeters == null || from == null) return Optional.empty();
+            if (pendingMetric != null || metrics.isEmpty()) return Optional.empty();
+
+            if (Math.abs(longitude) > 180 || Math.abs(latitude) > 90 || radiusMeters <= 0) return Optional.empty();
+            if (!to.isAfter(from)) return Optional.empty();
+            if (metrics.stream().anyMatch(c -> !(c.threshold() > 0) || Double.isInfinite(c.threshold()))) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new IncidentSignal(longitude, latitude, radiusMeters, from, to, List.copyOf(metrics)));
+        }
+
+        private boolean coordinate(String axis, String value) {
+            double number = Double.parseDouble(value);
+            if (axis.equalsIgnoreCase("lat")) {
+                if (latitude != null) return false;
+                latitude = number;
+            } else {
+                if (longitude != null) return false;
+                longitude = number;
+            }
+            return true;
+        }
+
+        private boolean dayWindow(Matcher m, LocalDate today) {
+            LocalDate day;
+            if (m.group(1) != null) {
+                day = m.group(1).equalsIgnoreCase("yesterday") ? today.minusDays(1) : today;
+            } else if (m.group(2) != null) {
+                day = today.minusDays(Long.parseLong(m.group(2)));
+            } else {
+                try {
+                    day = LocalDate.parse(m.group(3));
+                } catch (DateTimeParseException e) {
+                    return false;
+                }
+            }
+
+            LocalTime start = time(m.group(4));
+            LocalTime end = time(m.group(5));
+            if (start == null || end == null) return false;
+
+            // "22:00–02:00" runs past midnight
+            LocalDateTime windowEnd = end.isAfter(start) ? day.atTime(end) : day.plusDays(1).atTime(end);
+            return window(day.atTime(start), windowEnd);
+        }
+
+        private boolean window(LocalDateTime start, LocalDateTime end) {
+            if (from != null || start == null || end == null) return false;
+            from = start;
+            to = end;
+            return true;
+        }
+
+        private static LocalDateTime dateTime(String value) {
+            String iso = value.replace(' ', 'T');
+            try {
+                return LocalDateTime.parse(iso.length() == 15 ? iso.substring(0, 11) + "0" + iso.substring(11) : iso);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+
+        private static LocalTime time(String value) {
+            try {
+                return LocalTime.parse(value.length() == 4 ? "0" + value : value);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+    }
+}
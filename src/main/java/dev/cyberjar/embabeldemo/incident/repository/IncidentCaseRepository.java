@@ -0,0 +1,12 @@
+package dev.cyberjar.embabeldemo.incident.repository;
+
+import dev.cyberjar.embabeldemo.incident.domain.IncidentCase;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IncidentCaseRepository extends MongoRepository<IncidentCase, String> {
+
+    Optional<IncidentCase> findFirstByFingerprintAndCreatedAtAfterOrderByCreatedAtDesc(String fingerprint, Instant after);
+}
@@ -0,0 +1,185 @@
+package dev.cyberjar.embabeldemo.incident.service;
+
+import dev.cyberjar.embabeldemo.implantlog.cache.LogWindowKey;
+import dev.cyberjar.embabeldemo.implantlog.domain.TelemetryMetric;
+import dev.cyberjar.embabeldemo.implantlog.ingest.ImplantLogsRewrittenEvent;
+import dev.cyberjar.embabeldemo.incident.domain.IncidentCase;
+import dev.cyberjar.embabeldemo.incident.domain.IncidentSignal;
+import dev.cyberjar.embabeldemo.incident.dto.IncidentMemoStats;
+import dev.cyberjar.embabeldemo.incident.repository.IncidentCaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.geo.Point;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+// Persists every IncidentCase and memoizes investigations: a run whose signal has the fingerprint of a case
+// younger than the freshness window gets that case back instead of querying telemetry and calling the LLM.
+// The lookup is done once per run; every action of the run sees the same answer. A case is not reused when
+// logs in its window were rewritten (backfill, --replace) after it was created, nor when it was created before its
+// window had settled (window end + lateness): live ingestion may have added samples to it since.
+@Service
+public class IncidentCaseStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IncidentCaseStore.class);
+
+    // Upper bound on concurrently tracked runs, in case a run never gets released (e.g. its process was killed);
+    // finished and failed runs release their entry (see IncidentTriageAgent.action)
+    private static final int MAX_TRACKED_RUNS = 64;
+
+    private final IncidentCaseRepository repository;
+    private final boolean enabled;
+    private final Duration freshness;
+    private final Duration lateness;
+    private final Counter hits;
+    private final Counter misses;
+
+    // rewrites younger than the freshness window; older ones can't invalidate a case that is still fresh
+    private final List<Rewrite> rewrites = new CopyOnWriteArrayList<>();
+
+    private final Map<String, Optional<IncidentCase>> runs = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Optional<IncidentCase>> eldest) {
+            return size() > MAX_TRACKED_RUNS;
+        }
+    };
+
+    public IncidentCaseStore(IncidentCaseRepository repository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.incident-memo.enabled:true}") boolean enabled,
+                             @Value("${app.incident-memo.freshness:PT15M}") Duration freshness,
+                             @Value("${app.incident-memo.lateness:PT5M}") Duration lateness) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.freshness = freshness;
+        this.lateness = lateness;
+        this.hits = meterRegistry.counter("incident.memo.requests", "result", "hit");
+        this.misses = meterRegistry.counter("incident.memo.requests", "result", "miss");
+    }
+
+    public Optional<IncidentCase> recall(String runId, IncidentSignal signal) {
+        if (!enabled) return Optional.empty();
+
+        synchronized (runs) {
+            Optional<IncidentCase> known = runs.get(runId);
+            if (known != null) return known;
+        }
+
+        Optional<IncidentCase> recalled = lookup(signal);
+
+        synchronized (runs) {
+            Optional<IncidentCase> raced = runs.putIfAbsent(runId, recalled);
+            if (raced != null) return raced;
+        }
+
+        (recalled.isPresent() ? hits : misses).increment();
+        recalled.ifPresent(c -> log.info("Run {} reuses incident case {} from {}", runId, c.id(), c.createdAt()));
+        return recalled;
+    }
+
+    public IncidentCase save(IncidentCase incidentCase) {
+        try {
+            return repository.save(incidentCase);
+        } catch (DataAccessException e) {
+            // an unsaved case only costs a future memo hit, never the run
+            log.warn("Could not persist incident case {}: {}", incidentCase.id(), e.getMessage());
+            return incidentCase;
+        }
+    }
+
+    public void release(String runId) {
+        synchronized (runs) {
+            runs.remove(runId);
+        }
+    }
+
+    @EventListener
+    public void rewritten(ImplantLogsRewrittenEvent range) {
+        Instant now = Instant.now();
+        rewrites.removeIf(rewrite -> rewrite.at().isBefore(now.minus(freshness)));
+        rewrites.add(new Rewrite(range, now));
+    }
+
+    public IncidentMemoStats stats() {
+        long hitCount = (long) hits.count();
+        long missCount = (long) misses.count();
+        long total = hitCount + missCount;
+
+        return new IncidentMemoStats(
+                enabled,
+                freshness,
+                hitCount,
+                missCount,
+                total == 0 ? 0.0 : (double) hitCount / total,
+                repository.count());
+    }
+
+    // Window canonicalised like LogWindowKey (~1cm), metrics by canonical field name in a fixed order, so the
+    // same question asked with reordered metrics or float noise maps to the same fingerprint
+    public static String fingerprint(IncidentSignal signal) {
+        LogWindowKey window = LogWindowKey.of(
+                new Point(signal.longitude(), signal.latitude()),
+                signal.radiusMeters(),
+                signal.from(),
+                signal.to());
+
+        String metrics = signal.metrics().stream()
+                .map(m -> TelemetryMetric.fromField(m.metric().trim()).field() + ">=" + (m.threshold() + 0.0))
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(","));
+
+        return "%s,%s,%s|%s|%s|%s".formatted(
+                window.longitude(),
+                window.latitude(),
+                window.radiusMeters(),
+                window.from(),
+                window.to(),
+                metrics);
+    }
+
+    private Optional<IncidentCase> lookup(IncidentSignal signal) {
+        Instant since = Instant.now().minus(freshness);
+        Instant settled = settledAt(signal, lateness);
+        if (settled.isAfter(since)) since = settled;
+
+        LocalDateTime toExclusive = signal.to().plusNanos(1_000_000);
+        for (Rewrite rewrite : rewrites) {
+            if (rewrite.range().overlaps(signal.from(), toExclusive) && rewrite.at().isAfter(since)) {
+                since = rewrite.at();
+            }
+        }
+
+        try {
+            return repository.findFirstByFingerprintAndCreatedAtAfterOrderByCreatedAtDesc(
+                    fingerprint(signal),
+                    since);
+        } catch (DataAccessException e) {
+            log.warn("Incident case lookup failed, investigating from scratch: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // Window bounds are local date-times like sample timestamps; the window can still receive late samples until then
+    static Instant settledAt(IncidentSignal signal, Duration lateness) {
+        return signal.to().plus(lateness).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private record Rewrite(ImplantLogsRewrittenEvent range, Instant at) {
+    }
+}
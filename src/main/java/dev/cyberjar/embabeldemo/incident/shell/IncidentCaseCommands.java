@@ -0,0 +1,34 @@
+package dev.cyberjar.embabeldemo.incident.shell;
+
+import dev.cyberjar.embabeldemo.incident.dto.IncidentMemoStats;
+import dev.cyberjar.embabeldemo.incident.service.IncidentCaseStore;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+
+@ShellComponent
+public class IncidentCaseCommands {
+
+    private final IncidentCaseStore incidentCaseStore;
+
+    public IncidentCaseCommands(IncidentCaseStore incidentCaseStore) {
+        this.incidentCaseStore = incidentCaseStore;
+    }
+
+    @ShellMethod(key = "incident-memo-stats", value = "Show how often investigations were answered by a stored incident case")
+    public String stats() {
+        IncidentMemoStats stats = incidentCaseStore.stats();
+        return """
+                Enabled:       %s (freshness %s)
+                Reused cases:  %d
+                Investigated:  %d
+                Hit rate:      %.0f%%
+                Stored cases:  %d
+                """.formatted(
+                stats.enabled(),
+                stats.freshness(),
+                stats.hits(),
+                stats.misses(),
+                stats.hitRatio() * 100,
+                stats.storedCases());
+    }
+}
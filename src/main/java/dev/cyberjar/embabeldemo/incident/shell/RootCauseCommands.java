@@ -0,0 +1,34 @@
+package dev.cyberjar.embabeldemo.incident.shell;
+
+import dev.cyberjar.embabeldemo.incident.classifier.RootCauseClassifier;
+import dev.cyberjar.embabeldemo.incident.dto.RootCauseClassifierStats;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+
+@ShellComponent
+public class RootCauseCommands {
+
+    private final RootCauseClassifier rootCauseClassifier;
+
+    public RootCauseCommands(RootCauseClassifier rootCauseClassifier) {
+        this.rootCauseClassifier = rootCauseClassifier;
+    }
+
+    @ShellMethod(key = "root-cause-stats", value = "Show how often root cause rules answered without the LLM")
+    public String stats() {
+        RootCauseClassifierStats stats = rootCauseClassifier.stats();
+        return """
+                Decided by rules:  %d
+                Sent to the LLM:   %d
+                LLM avoided:       %.0f%%
+                Mean latency:      %.1f ms LLM, %.3f ms rules
+                Estimated saved:   %.0f ms
+                """.formatted(
+                stats.ruleHits(),
+                stats.llmFallbacks(),
+                stats.llmAvoidedRatio() * 100,
+                stats.llmMeanMillis(),
+                stats.ruleMeanMillis(),
+                stats.estimatedSavedMillis());
+    }
+}
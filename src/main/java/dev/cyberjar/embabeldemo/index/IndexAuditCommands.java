@@ -0,0 +1,21 @@
+package dev.cyberjar.embabeldemo.index;
+
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+@ShellComponent
+public class IndexAuditCommands {
+
+    private final IndexAuditor indexAuditor;
+
+    public IndexAuditCommands(IndexAuditor indexAuditor) {
+        this.indexAuditor = indexAuditor;
+    }
+
+    @ShellMethod(key = "index-audit", value = "Check declared vs. actual indexes and explain every repository query shape")
+    public String indexAudit(@ShellOption(defaultValue = "false", help = "Create missing indexes") boolean fix,
+                             @ShellOption(defaultValue = "false", help = "Drop stale indexes (unmapped fields, a second 2dsphere)") boolean dropStale) {
+        return indexAuditor.audit(fix, dropStale).format();
+    }
+}
@@ -0,0 +1,7 @@
+package dev.cyberjar.embabeldemo.index;
+
+public enum IndexAuditMode {
+    OFF,
+    WARN,
+    FAIL
+}
@@ -0,0 +1,37 @@
+package dev.cyberjar.embabeldemo.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public record IndexAuditReport(List<Finding> findings) {
+
+    public IndexAuditReport() {
+        this(new ArrayList<>());
+    }
+
+    public void add(Severity severity, String collection, String subject, String message) {
+        findings.add(new Finding(severity, collection, subject, message));
+    }
+
+    public boolean hasProblems() {
+        return findings.stream().anyMatch(f -> f.severity() == Severity.PROBLEM);
+    }
+
+    public String format() {
+        if (findings.isEmpty()) return "Index audit: nothing to report";
+
+        return findings.stream()
+                .map(f -> "[%s] %s / %s: %s".formatted(f.severity(), f.collection(), f.subject(), f.message()))
+                .collect(Collectors.joining(System.lineSeparator(), "Index audit:" + System.lineSeparator(), ""));
+    }
+
+    public enum Severity {
+        INFO,
+        FIXED,
+        PROBLEM
+    }
+
+    public record Finding(Severity severity, String collection, String subject, String message) {
+    }
+}
@@ -0,0 +1,427 @@
+package dev.cyberjar.embabeldemo.index;
+
+import dev.cyberjar.embabeldemo.civilian.domain.Civilian;
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantLogRollup;
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.incident.domain.IncidentCase;
+import dev.cyberjar.embabeldemo.index.IndexAuditReport.Severity;
+import dev.cyberjar.embabeldemo.subscription.domain.AlertSubscription;
+import dev.cyberjar.embabeldemo.utils.GeoMath;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Component
+public class IndexAuditor {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexAuditor.class);
+
+    private static final List<Class<?>> AUDITED_TYPES = List.of(
+            ImplantMonitoringLog.class, ImplantLogRollup.class, Civilian.class, IncidentCase.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final IndexResolver indexResolver;
+    private final IndexAuditMode startupMode;
+    private final boolean fixOnStartup;
+    private final double maxExaminedRatio;
+
+    public IndexAuditor(MongoTemplate mongoTemplate,
+                        MongoMappingContext mappingContext,
+                        @Value("${app.index-audit.mode:warn}") IndexAuditMode startupMode,
+                        @Value("${app.index-audit.fix-on-startup:false}") boolean fixOnStartup,
+                        @Value("${app.index-audit.max-examined-ratio:10}") double maxExaminedRatio) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.indexResolver = IndexResolver.create(mappingContext);
+        this.startupMode = startupMode;
+        this.fixOnStartup = fixOnStartup;
+        this.maxExaminedRatio = maxExaminedRatio;
+    }
+
+    // started, not ready: the interactive shell keeps the ready event back until it exits.
+    // Startup only ever creates missing indexes, and drops a 2dsphere index superseded by a declared one (such as the
+    // single-field location index of older databases): it holds no data and breaks every $geoNear. Other stale
+    // indexes are dropped by 'index-audit --drop-stale' alone.
+    @EventListener(ApplicationStartedEvent.class)
+    public void auditOnStartup() {
+        if (startupMode == IndexAuditMode.OFF) return;
+
+        IndexAuditReport report = audit(fixOnStartup, false, true);
+
+        if (!report.hasProblems()) {
+            log.info(report.format());
+            return;
+        }
+
+        if (startupMode == IndexAuditMode.FAIL) {
+            throw new IllegalStateException(report.format());
+        }
+        log.warn(report.format());
+    }
+
+    public IndexAuditReport audit(boolean createMissing, boolean dropStale) {
+        return audit(createMissing, dropStale, dropStale);
+    }
+
+    private IndexAuditReport audit(boolean createMissing, boolean dropStale, boolean dropAmbiguousGeo) {
+        IndexAuditReport report = new IndexAuditReport();
+
+        for (Class<?> type : AUDITED_TYPES) {
+            auditIndexes(type, createMissing, dropStale, dropAmbiguousGeo, report);
+        }
+
+        for (QueryShape shape : queryShapes(report)) {
+            explain(shape, report);
+        }
+
+        return report;
+    }
+
+    // --- declared vs. actual indexes
+
+    private void auditIndexes(Class<?> type,
+                              boolean createMissing,
+                              boolean dropStale,
+                              boolean dropAmbiguousGeo,
+                              IndexAuditReport report) {
+        String collection = mongoTemplate.getCollectionName(type);
+
+        List<IndexDefinition> declared = new ArrayList<>();
+        indexResolver.resolveIndexFor(type).forEach(declared::add);
+
+        for (IndexDefinition definition : declared) {
+            for (String field : definition.getIndexKeys().keySet()) {
+                if (!isMappedPath(type, field)) {
+                    report.add(Severity.PROBLEM, collection, indexName(definition),
+                            "declared over '%s', which is not a persisted field of %s"
+                                    .formatted(field, type.getSimpleName()));
+                }
+            }
+        }
+
+        List<Document> existing = new ArrayList<>();
+        mongoTemplate.getCollection(collection).listIndexes().into(existing);
+
+        for (Document index : existing) {
+            String name = index.getString("name");
+            Document keys = index.get("key", Document.class);
+
+            if ("_id_".equals(name)) continue;
+            if (declared.stream().anyMatch(d -> sameKeys(d.getIndexKeys(), keys))) continue;
+
+            String ambiguousGeo = ambiguousGeoReason(keys, declared);
+            String reason = ambiguousGeo != null ? ambiguousGeo : unmappedReason(type, keys);
+            if (reason == null) {
+                report.add(Severity.INFO, collection, name, "exists but is not declared: " + keys.toJson());
+                continue;
+            }
+
+            // the superseded index is only dropped unasked once its replacement exists or is about to be created
+            boolean replaced = createMissing || geoReplacementExists(keys, declared, existing);
+            if (dropStale || (dropAmbiguousGeo && ambiguousGeo != null && replaced)) {
+                mongoTemplate.indexOps(collection).dropIndex(name);
+                report.add(Severity.FIXED, collection, name, "dropped, " + reason);
+            } else {
+                report.add(Severity.PROBLEM, collection, name, reason);
+            }
+        }
+
+        for (IndexDefinition definition : declared) {
+            if (existing.stream().anyMatch(i -> sameKeys(definition.getIndexKeys(), i.get("key", Document.class)))) {
+                continue;
+            }
+
+            if (createMissing) {
+                mongoTemplate.indexOps(collection).createIndex(definition);
+                report.add(Severity.FIXED, collection, indexName(definition),
+                        "created " + definition.getIndexKeys().toJson());
+            } else {
+                report.add(Severity.PROBLEM, collection, indexName(definition),
+                        "declared but missing: " + definition.getIndexKeys().toJson());
+            }
+        }
+    }
+
+    private String unmappedReason(Class<?> type, Document keys) {
+        for (Map.Entry<String, Object> key : keys.entrySet()) {
+            if (!isMappedPath(type, key.getKey())) {
+                return "references '%s', which is not a persisted field".formatted(key.getKey());
+            }
+        }
+        return null;
+    }
+
+    // $geoNear refuses to run when it has more than one 2dsphere index to choose from
+    private static String ambiguousGeoReason(Document keys, List<IndexDefinition> declared) {
+        for (Map.Entry<String, Object> key : keys.entrySet()) {
+            if (!"2dsphere".equals(key.getValue())) continue;
+
+            boolean coveredByDeclared = declared.stream()
+                    .anyMatch(d -> "2dsphere".equals(d.getIndexKeys().get(key.getKey())));
+            if (coveredByDeclared) {
+                return "second 2dsphere index on '%s' makes $geoNear ambiguous".formatted(key.getKey());
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean geoReplacementExists(Document keys, List<IndexDefinition> declared, List<Document> existing) {
+        return declared.stream()
+                .filter(d -> keys.entrySet().stream().anyMatch(key -> "2dsphere".equals(key.getValue())
+                        && "2dsphere".equals(d.getIndexKeys().get(key.getKey()))))
+                .anyMatch(d -> existing.stream().anyMatch(i -> sameKeys(d.getIndexKeys(), i.get("key", Document.class))));
+    }
+
+    private boolean isMappedPath(Class<?> type, String path) {
+        MongoPersistentEntity<?> entity = mappingContext.getPersistentEntity(type);
+
+        for (String segment : path.split("\\.")) {
+            if (entity == null) return false;
+
+            MongoPersistentProperty match = null;
+            for (MongoPersistentProperty property : entity) {
+                if (property.getFieldName().equals(segment)) {
+                    match = property;
+                    break;
+                }
+            }
+            if (match == null) return false;
+
+            entity = match.isEntity() ? mappingContext.getPersistentEntity(match.getActualType()) : null;
+        }
+
+        return true;
+    }
+
+    private static boolean sameKeys(Document a, Document b) {
+        if (a == null || b == null) return false;
+        if (!new ArrayList<>(a.keySet()).equals(new ArrayList<>(b.keySet()))) return false;
+
+        for (String key : a.keySet()) {
+            Object left = a.get(key);
+            Object right = b.get(key);
+            if (left instanceof Number l && right instanceof Number r) {
+                if (l.doubleValue() != r.doubleValue()) return false;
+            } else if (!Objects.equals(left, right)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String indexName(IndexDefinition definition) {
+        Object name = definition.getIndexOptions().get("name");
+        return name != null ? name.toString() : definition.getIndexKeys().toJson();
+    }
+
+    // --- query plans
+
+    // One entry per query issued by the repositories, filled with values taken from a sample document
+    private List<QueryShape> queryShapes(IndexAuditReport report) {
+        List<QueryShape> shapes = new ArrayList<>();
+
+        String logs = mongoTemplate.getCollectionName(ImplantMonitoringLog.class);
+        Document sampleLog = mongoTemplate.getCollection(logs).find().first();
+
+        if (sampleLog == null) {
+            report.add(Severity.INFO, logs, "query plans", "collection is empty, nothing to explain");
+        } else {
+            String serial = sampleLog.getString("implantSerialNumber");
+            Date to = sampleLog.getDate("timestamp");
+            Date from = Date.from(to.toInstant().minus(Duration.ofDays(1)));
+            Point center = mongoTemplate.getConverter().read(ImplantMonitoringLog.class, sampleLog).getLocation();
+
+            shapes.add(find(logs, "findByImplantSerialNumber",
+                    new Document("implantSerialNumber", serial)));
+            shapes.add(find(logs, "findByImplantSerialNumberAndTimestampAfter",
+                    new Document("implantSerialNumber", serial)
+                            .append("timestamp", new Document("$gt", from))));
+            shapes.add(find(logs, "findByImplantSerialNumberAndTimestampBetween",
+                    new Document("implantSerialNumber", serial)
+                            .append("timestamp", new Document("$gt", from).append("$lt", to))));
+            shapes.add(aggregate(logs, "aggregateStats", Aggregation.newAggregation(
+                    Aggregation.match(Criteria.where("implantSerialNumber").is(serial)
+                            .and("timestamp").gte(from).lte(to)))));
+
+            NearQuery nearQuery = NearQuery.near(center)
+                    .maxDistance(new Distance(1.2, Metrics.KILOMETERS))
+                    .query(Query.query(Criteria.where("timestamp").gte(from).lte(to)));
+            shapes.add(aggregate(logs, "findLogsByAreaAndTimeGrouped / summarizeAnomaliesByAreaAndTime",
+                    Aggregation.newAggregation(Aggregation.geoNear(nearQuery, "distance"))));
+            // explained as a find: a count runs the same plan but reports nReturned=0
+            shapes.add(find(logs, "countLogsByAreaAndTime",
+                    new Document("location", new Document("$geoWithin", new Document("$centerSphere",
+                            List.of(List.of(center.getX(), center.getY()), 1200 / GeoMath.EARTH_RADIUS_METERS))))
+                            .append("timestamp", new Document("$gte", from).append("$lte", to))));
+        }
+
+        String rollups = mongoTemplate.getCollectionName(ImplantLogRollup.class);
+        Document sampleRollup = mongoTemplate.getCollection(rollups).find().first();
+
+        if (sampleRollup == null) {
+            report.add(Severity.INFO, rollups, "query plans", "collection is empty, nothing to explain");
+        } else {
+            Date bucketStart = sampleRollup.getDate("bucketStart");
+            shapes.add(aggregate(rollups, "sumRollups", Aggregation.newAggregation(
+                    Aggregation.match(Criteria.where("implantSerialNumber").is(sampleRollup.get("implantSerialNumber"))
+                            .and("granularity").is(sampleRollup.get("granularity"))
+                            .and("bucketStart").gte(Date.from(bucketStart.toInstant().minus(Duration.ofDays(1))))
+                            .lt(bucketStart)))));
+        }
+
+        String civilians = mongoTemplate.getCollectionName(Civilian.class);
+        Document sampleCivilian = mongoTemplate.getCollection(civilians).find().first();
+
+        if (sampleCivilian == null) {
+            report.add(Severity.INFO, civilians, "query plans", "collection is empty, nothing to explain");
+        } else {
+            Document implant = sampleCivilian.getList("implants", Document.class, List.of()).stream()
+                    .findFirst()
+                    .orElse(new Document());
+            Object serial = implant.get("serialNumber");
+            Object lot = implant.get("lotNumber");
+
+            shapes.add(find(civilians, "findByNationalId",
+                    new Document("nationalId", sampleCivilian.get("nationalId"))));
+            shapes.add(find(civilians, "findAllByUnderSurveillance",
+                    new Document("underSurveillance", true)));
+            shapes.add(find(civilians, "findCivilianByImplantSerialNumber",
+                    new Document("implants.serialNumber", serial)));
+            shapes.add(aggregate(civilians, "findImplantOwnersBySerialNumbers", Aggregation.newAggregation(
+                    Aggregation.match(Criteria.where("implants.serialNumber").in(serial)))));
+            shapes.add(find(civilians, "findAllByImplantLotNumber",
+                    new Document("implants.lotNumber", lot)));
+            shapes.add(find(civilians, "findAllByImplantLotNumberGreaterThanEqual",
+                    new Document("implants.lotNumber", new Document("$gte", lot))));
+            shapes.add(find(civilians, "findAllByImplantLotNumberLessThanEqual",
+                    new Document("implants.lotNumber", new Document("$lte", lot))));
+        }
+
+        String cases = mongoTemplate.getCollectionName(IncidentCase.class);
+        Document sampleCase = mongoTemplate.getCollection(cases).find().first();
+
+        if (sampleCase == null) {
+            report.add(Severity.INFO, cases, "query plans", "collection is empty, nothing to explain");
+        } else {
+            Date createdAt = sampleCase.getDate("createdAt");
+            shapes.add(find(cases, "findFirstByFingerprintAndCreatedAtAfterOrderByCreatedAtDesc",
+                    new Document("fingerprint", sampleCase.get("fingerprint"))
+                            .append("createdAt", new Document("$gt", Date.from(createdAt.toInstant().minus(Duration.ofMinutes(15))))),
+                    new Document("createdAt", -1)));
+        }
+
+        // alert_subscriptions is only ever read whole (findAll on subscribe/unsubscribe and listing), by design
+        report.add(Severity.INFO, mongoTemplate.getCollectionName(AlertSubscription.class), "query plans",
+                "findAll only, not explained");
+
+        return shapes;
+    }
+
+    private void explain(QueryShape shape, IndexAuditReport report) {
+        Document explain;
+        try {
+            explain = mongoTemplate.getDb().runCommand(
+                    new Document("explain", shape.command()).append("verbosity", "executionStats"));
+        } catch (RuntimeException e) {
+            report.add(Severity.PROBLEM, shape.collection(), shape.name(), "explain failed: " + e.getMessage());
+            return;
+        }
+
+        Document stats = findDocument(explain, "executionStats");
+        long examined = longValue(stats, "totalDocsExamined");
+        long returned = longValue(stats, "nReturned");
+        String counts = "docsExamined=%d, nReturned=%d".formatted(examined, returned);
+
+        if (containsStage(explain, "COLLSCAN")) {
+            report.add(Severity.PROBLEM, shape.collection(), shape.name(), "COLLSCAN (" + counts + ")");
+        } else if (examined > 0 && examined > maxExaminedRatio * Math.max(returned, 1)) {
+            report.add(Severity.PROBLEM, shape.collection(), shape.name(),
+                    "examines more than %.0fx the documents it returns (%s)".formatted(maxExaminedRatio, counts));
+        } else {
+            report.add(Severity.INFO, shape.collection(), shape.name(), "indexed (" + counts + ")");
+        }
+    }
+
+    private static long longValue(Document document, String key) {
+        if (document == null) return -1;
+        return document.get(key) instanceof Number number ? number.longValue() : -1;
+    }
+
+    private static QueryShape find(String collection, String name, Document filter) {
+        return new QueryShape(name, collection, new Document("find", collection).append("filter", filter));
+    }
+
+    private static QueryShape find(String collection, String name, Document filter, Document sort) {
+        return new QueryShape(name, collection, new Document("find", collection)
+                .append("filter", filter)
+                .append("sort", sort)
+                .append("limit", 1));
+    }
+
+    private static QueryShape aggregate(String collection, String name, Aggregation aggregation) {
+        return new QueryShape(name, collection, new Document("aggregate", collection)
+                .append("pipeline", aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT))
+                .append("cursor", new Document()));
+    }
+
+    // Walks the explain output; rejected plans are skipped so only the winning plan counts
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Document document) {
+            if (stage.equals(document.get("stage"))) return true;
+            for (Map.Entry<String, Object> entry : document.entrySet()) {
+                if (entry.getKey().equals("rejectedPlans")) continue;
+                if (containsStage(entry.getValue(), stage)) return true;
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object item : list) {
+                if (containsStage(item, stage)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static Document findDocument(Object node, String key) {
+        if (node instanceof Document document) {
+            if (document.get(key) instanceof Document found) return found;
+            for (Object value : document.values()) {
+                Document found = findDocument(value, key);
+                if (found != null) return found;
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object item : list) {
+                Document found = findDocument(item, key);
+                if (found != null) return found;
+            }
+        }
+        return null;
+    }
+
+    private record QueryShape(String name, String collection, Document command) {
+    }
+}
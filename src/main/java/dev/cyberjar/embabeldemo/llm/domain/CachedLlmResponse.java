@@ -0,0 +1,21 @@
+package dev.cyberjar.embabeldemo.llm.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// id is "<model>|<target type>|<sha-256 of the prompt>"; payload is the JSON of the created object
+@Document(collection = "llm_responses")
+public record CachedLlmResponse(
+        @Id String id,
+        String model,
+        String type,
+        String payload,
+        long llmLatencyMillis,
+        Instant createdAt,
+        // TTL index: Mongo removes the document once expiresAt has passed
+        @Indexed(name = "llm_response_ttl_idx", expireAfter = "0s") Instant expiresAt
+) {
+}
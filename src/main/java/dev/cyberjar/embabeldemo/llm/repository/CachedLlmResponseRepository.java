@@ -0,0 +1,7 @@
+package dev.cyberjar.embabeldemo.llm.repository;
+
+import dev.cyberjar.embabeldemo.llm.domain.CachedLlmResponse;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface CachedLlmResponseRepository extends MongoRepository<CachedLlmResponse, String> {
+}
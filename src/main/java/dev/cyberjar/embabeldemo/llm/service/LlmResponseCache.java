@@ -0,0 +1,221 @@
+package dev.cyberjar.embabeldemo.llm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.cyberjar.embabeldemo.llm.domain.CachedLlmResponse;
+import dev.cyberjar.embabeldemo.llm.repository.CachedLlmResponseRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Cache for createObject results across agent runs: an in-memory LRU in front of a TTL'd Mongo collection.
+// Keyed by model, target type and prompt hash, so any change to the prompt (evidence, rules) is a new entry.
+@Service
+public class LlmResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmResponseCache.class);
+
+    private final CachedLlmResponseRepository repository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String model;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Set<String> bypassActions;
+
+    private final Map<String, MemoryEntry> memory;
+
+    public LlmResponseCache(CachedLlmResponseRepository repository,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${embabel.models.default-llm}") String model,
+                            @Value("${app.llm-cache.enabled:true}") boolean enabled,
+                            @Value("${app.llm-cache.ttl:P7D}") Duration ttl,
+                            @Value("${app.llm-cache.memory-entries:256}") int memoryEntries,
+                            @Value("${app.llm-cache.bypass-actions:}") Set<String> bypassActions) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.model = model;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.bypassActions = bypassActions;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MemoryEntry> eldest) {
+                return size() > memoryEntries;
+            }
+        };
+    }
+
+    // action names the calling agent action, for per-action bypass and metrics
+    public <T> T getOrCreate(String action, String prompt, Class<T> type, Supplier<T> llmCall) {
+        if (!enabled || bypassActions.contains(action)) {
+            count(action, "bypass");
+            return timedCall(action, prompt, llmCall).value();
+        }
+
+        String key = key(type, prompt);
+        Instant now = Instant.now();
+
+        MemoryEntry cached = fromMemory(key, now);
+        if (cached != null && type.isInstance(cached.value())) {
+            hit(action, "memory", cached.llmLatencyMillis());
+            return type.cast(cached.value());
+        }
+
+        T stored = fromStore(action, key, type, now);
+        if (stored != null) return stored;
+
+        count(action, "miss");
+        Timed<T> created = timedCall(action, prompt, llmCall);
+        store(key, type, created, now);
+        return created.value();
+    }
+
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+        repository.deleteAll();
+    }
+
+    private <T> T fromStore(String action, String key, Class<T> type, Instant now) {
+        try {
+            CachedLlmResponse response = repository.findById(key).orElse(null);
+            // the TTL monitor runs about once a minute, so expired documents can still be around
+            if (response == null || !response.expiresAt().isAfter(now)) return null;
+
+            T value = objectMapper.readValue(response.payload(), type);
+            remember(key, new MemoryEntry(value, response.expiresAt(), response.llmLatencyMillis()));
+            hit(action, "store", response.llmLatencyMillis());
+            return value;
+        } catch (JsonProcessingException | DataAccessException e) {
+            // a cache that cannot be read is a miss, never a failed action
+            log.warn("Ignoring unreadable LLM cache entry {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private <T> void store(String key, Class<T> type, Timed<T> created, Instant now) {
+        Instant expiresAt = now.plus(ttl);
+        remember(key, new MemoryEntry(created.value(), expiresAt, created.millis()));
+
+        try {
+            repository.save(new CachedLlmResponse(
+                    key,
+                    model,
+                    type.getName(),
+                    objectMapper.writeValueAsString(created.value()),
+                    created.millis(),
+                    now,
+                    expiresAt));
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.warn("Could not persist LLM response for {}: {}", type.getSimpleName(), e.getMessage());
+        }
+    }
+
+    private MemoryEntry fromMemory(String key, Instant now) {
+        synchronized (memory) {
+            MemoryEntry entry = memory.get(key);
+            if (entry != null && !entry.expiresAt().isAfter(now)) {
+                memory.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private void remember(String key, MemoryEntry entry) {
+        synchronized (memory) {
+            memory.put(key, entry);
+        }
+    }
+
+    private <T> Timed<T> timedCall(String action, String prompt, Supplier<T> llmCall) {
+        long start = System.nanoTime();
+        T value = llmCall.get();
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        int responseChars = responseChars(value);
+
+        // sizes are tagged as coarse classes to keep the number of timers bounded; exact sizes go to summaries
+        Timer.builder("llm.call")
+                .tag("action", action)
+                .tag("model", model)
+                .tag("prompt.size", sizeClass(prompt.length()))
+                .tag("response.size", sizeClass(responseChars))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(millis, TimeUnit.MILLISECONDS);
+        DistributionSummary.builder("llm.prompt.chars").tag("action", action).tag("model", model)
+                .register(meterRegistry)
+                .record(prompt.length());
+        DistributionSummary.builder("llm.response.chars").tag("action", action).tag("model", model)
+                .register(meterRegistry)
+                .record(responseChars);
+
+        return new Timed<>(value, millis);
+    }
+
+    private int responseChars(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value).length();
+        } catch (JsonProcessingException e) {
+            return 0;
+        }
+    }
+
+    private static String sizeClass(int chars) {
+        if (chars < 1_000) return "small";
+        if (chars < 4_000) return "medium";
+        return "large";
+    }
+
+    private void hit(String action, String tier, long savedMillis) {
+        count(action, tier);
+        // what the original call cost is what this hit saved
+        Timer.builder("llm.cache.saved").tag("action", action).register(meterRegistry)
+                .record(savedMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void count(String action, String result) {
+        meterRegistry.counter("llm.cache.requests", "action", action, "result", result).increment();
+    }
+
+    private String key(Class<?> type, String prompt) {
+        return model + "|" + type.getName() + "|" + sha256(prompt);
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record MemoryEntry(Object value, Instant expiresAt, long llmLatencyMillis) {
+    }
+
+    private record Timed<T>(T value, long millis) {
+    }
+}
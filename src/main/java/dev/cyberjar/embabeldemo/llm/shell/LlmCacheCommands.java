@@ -0,0 +1,21 @@
+package dev.cyberjar.embabeldemo.llm.shell;
+
+import dev.cyberjar.embabeldemo.llm.service.LlmResponseCache;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+
+@ShellComponent
+public class LlmCacheCommands {
+
+    private final LlmResponseCache llmResponseCache;
+
+    public LlmCacheCommands(LlmResponseCache llmResponseCache) {
+        this.llmResponseCache = llmResponseCache;
+    }
+
+    @ShellMethod(key = "llm-cache-clear", value = "Drop all cached LLM responses (memory and Mongo)")
+    public String clear() {
+        llmResponseCache.clear();
+        return "LLM response cache cleared";
+    }
+}
@@ -0,0 +1,60 @@
+package dev.cyberjar.embabeldemo.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Times the hand-written reactive repositories under the meter Spring Data's repository autotime uses for the
+// blocking ones (spring.data.repository.invocations, same tags), so both triage I/O modes show up alike in stats.
+// A query is timed from subscription until it completes, fails or is cancelled.
+@Component
+public class RepositoryInvocationTimer {
+
+    private static final String METER = "spring.data.repository.invocations";
+
+    private final MeterRegistry meterRegistry;
+
+    public RepositoryInvocationTimer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> Flux<T> time(Class<?> repository, String method, Flux<T> query) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            return query
+                    .doOnError(error::set)
+                    .doFinally(signal -> sample.stop(timer(repository, method, signal, error.get())));
+        });
+    }
+
+    public <T> Mono<T> time(Class<?> repository, String method, Mono<T> query) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            return query
+                    .doOnError(error::set)
+                    .doFinally(signal -> sample.stop(timer(repository, method, signal, error.get())));
+        });
+    }
+
+    private Timer timer(Class<?> repository, String method, SignalType signal, Throwable error) {
+        String state = switch (signal) {
+            case ON_ERROR -> "ERROR";
+            case CANCEL -> "CANCELED";
+            default -> "SUCCESS";
+        };
+
+        return Timer.builder(METER)
+                .tag("repository", repository.getSimpleName())
+                .tag("method", method)
+                .tag("state", state)
+                .tag("exception", error == null ? "None" : error.getClass().getSimpleName())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,62 @@
+package dev.cyberjar.embabeldemo.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Wall-clock time from JVM start to the shell prompt and to the first assembled incident, i.e. what the
+// fast-start profile (Spring AOT + JDK AOT cache) brings down. benchmarks/startup.sh reads the log lines.
+@Component
+public class StartupTimings {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimings.class);
+
+    private final long jvmStartMillis;
+    private final boolean aotCache;
+    private final AtomicLong firstPrompt = new AtomicLong(-1);
+    private final AtomicLong firstIncident = new AtomicLong(-1);
+
+    public StartupTimings(MeterRegistry meterRegistry) {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        this.jvmStartMillis = runtime.getStartTime();
+        this.aotCache = runtime.getInputArguments().stream().anyMatch(arg -> arg.startsWith("-XX:AOTCache="));
+
+        TimeGauge.builder("app.startup.first-prompt", firstPrompt, TimeUnit.MILLISECONDS, StartupTimings::elapsed)
+                .register(meterRegistry);
+        TimeGauge.builder("app.startup.first-incident", firstIncident, TimeUnit.MILLISECONDS, StartupTimings::elapsed)
+                .register(meterRegistry);
+    }
+
+    // runners, the shell among them, are called right after this
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStarted() {
+        record(firstPrompt, "first-prompt");
+    }
+
+    public void incidentBuilt() {
+        record(firstIncident, "first-incident");
+    }
+
+    private void record(AtomicLong slot, String milestone) {
+        long elapsed = System.currentTimeMillis() - jvmStartMillis;
+        if (slot.compareAndSet(-1, elapsed)) {
+            log.info("Startup timing: {} {} ms (aot-cache={}, spring-aot={})",
+                    milestone, elapsed, aotCache, AotDetector.useGeneratedArtifacts());
+        }
+    }
+
+    private static double elapsed(AtomicLong slot) {
+        long value = slot.get();
+        return value < 0 ? Double.NaN : value;
+    }
+}
@@ -0,0 +1,107 @@
+package dev.cyberjar.embabeldemo.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// The app runs without a web server, so the meters behind actuator's metrics endpoint are printed here
+@ShellComponent
+public class StatsCommands {
+
+    private static final List<String> DEFAULT_PREFIXES = List.of(
+            "incident.",
+            "llm.",
+            "spring.data.repository.",
+            "mongodb.driver.",
+            "implant.",
+            "app.startup.",
+            "subscription.");
+
+    private final MeterRegistry meterRegistry;
+
+    public StatsCommands(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ShellMethod(key = "stats", value = "Show timers, counters and gauges for agent actions, LLM calls and repository queries")
+    public String stats(@ShellOption(defaultValue = ShellOption.NULL, help = "Only meters whose name starts with this") String prefix) {
+        List<String> prefixes = prefix == null ? DEFAULT_PREFIXES : List.of(prefix);
+
+        List<Meter> meters = meterRegistry.getMeters().stream()
+                .filter(m -> prefixes.stream().anyMatch(p -> m.getId().getName().startsWith(p)))
+                .filter(StatsCommands::hasData)
+                .sorted(Comparator.comparing((Meter m) -> m.getId().getName()).thenComparing(StatsCommands::tags))
+                .toList();
+
+        if (meters.isEmpty()) return "No metrics recorded yet";
+
+        StringBuilder out = new StringBuilder();
+        String name = null;
+
+        for (Meter meter : meters) {
+            if (!meter.getId().getName().equals(name)) {
+                name = meter.getId().getName();
+                out.append(name).append('\n');
+            }
+            out.append("  ").append(tags(meter).isEmpty() ? "-" : tags(meter)).append("  ").append(format(meter)).append('\n');
+        }
+
+        return out.toString();
+    }
+
+    private static String format(Meter meter) {
+        return switch (meter) {
+            case Timer timer -> "count=%d mean=%.1fms p95=%s max=%.1fms".formatted(
+                    timer.count(),
+                    timer.mean(TimeUnit.MILLISECONDS),
+                    p95(timer.takeSnapshot().percentileValues(), TimeUnit.MILLISECONDS),
+                    timer.max(TimeUnit.MILLISECONDS));
+            case DistributionSummary summary -> "count=%d mean=%.1f max=%.1f".formatted(
+                    summary.count(),
+                    summary.mean(),
+                    summary.max());
+            case Counter counter -> "count=%.0f".formatted(counter.count());
+            case TimeGauge gauge -> "value=%.0fms".formatted(gauge.value(TimeUnit.MILLISECONDS));
+            case Gauge gauge -> "value=%.1f".formatted(gauge.value());
+            default -> "";
+        };
+    }
+
+    // percentiles are only there for meters configured under management.metrics.distribution.percentiles
+    private static String p95(ValueAtPercentile[] percentiles, TimeUnit unit) {
+        for (ValueAtPercentile percentile : percentiles) {
+            if (percentile.percentile() == 0.95) return "%.1fms".formatted(percentile.value(unit));
+        }
+        return "-";
+    }
+
+    private static boolean hasData(Meter meter) {
+        return switch (meter) {
+            case Timer timer -> timer.count() > 0;
+            case DistributionSummary summary -> summary.count() > 0;
+            case Counter counter -> counter.count() > 0;
+            // NaN until there is a value, e.g. a startup milestone not reached yet
+            case Gauge gauge -> !Double.isNaN(gauge.value());
+            default -> false;
+        };
+    }
+
+    private static String tags(Meter meter) {
+        return meter.getId().getTags().stream()
+                .map(t -> t.getKey() + "=" + t.getValue())
+                .collect(Collectors.joining(","));
+    }
+}
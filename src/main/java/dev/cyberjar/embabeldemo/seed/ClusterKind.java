@@ -0,0 +1,64 @@
+package dev.cyberjar.embabeldemo.seed;
+
+// Injected incident shapes, matching the story arcs of the demo data
+public enum ClusterKind {
+
+    // one manufacturer lot spikes hard: latency and CPU both high
+    BAD_LOT("bad-lot", 6, 30, 2, 6.8, 92.0, 160.0),
+    // many vendors spike CPU in the same place, latency elevated, power normal
+    ATTACK_PATTERN("attack", 12, 20, 3, 2.2, 96.0, 85.0);
+
+    private final String label;
+    private final int defaultImplants;
+    private final int points;
+    private final int stepMinutes;
+    private final double powerUw;
+    private final double cpuPct;
+    private final double latencyMs;
+
+    ClusterKind(String label, int defaultImplants, int points, int stepMinutes,
+                double powerUw, double cpuPct, double latencyMs) {
+        this.label = label;
+        this.defaultImplants = defaultImplants;
+        this.points = points;
+        this.stepMinutes = stepMinutes;
+        this.powerUw = powerUw;
+        this.cpuPct = cpuPct;
+        this.latencyMs = latencyMs;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public int defaultImplants() {
+        return defaultImplants;
+    }
+
+    public int points() {
+        return points;
+    }
+
+    public int stepMinutes() {
+        return stepMinutes;
+    }
+
+    public double powerUw() {
+        return powerUw;
+    }
+
+    public double cpuPct() {
+        return cpuPct;
+    }
+
+    public double latencyMs() {
+        return latencyMs;
+    }
+
+    public static ClusterKind fromLabel(String label) {
+        for (ClusterKind kind : values()) {
+            if (kind.label.equalsIgnoreCase(label) || kind.name().equalsIgnoreCase(label)) return kind;
+        }
+        throw new IllegalArgumentException("Unsupported cluster kind: " + label);
+    }
+}
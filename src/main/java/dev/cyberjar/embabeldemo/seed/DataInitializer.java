@@ -3,15 +3,24 @@ package dev.cyberjar.embabeldemo.seed;
 import dev.cyberjar.embabeldemo.civilian.domain.Civilian;
 import dev.cyberjar.embabeldemo.civilian.domain.Implant;
 import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
-import jakarta.annotation.PostConstruct;
+import dev.cyberjar.embabeldemo.implantlog.ingest.ImplantLogRewrites;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.geo.Point;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -20,6 +29,7 @@ import java.util.Random;
 import java.util.stream.Collectors;
 
 @Component
+@DependsOn("implantLogStorage")
 public class DataInitializer {
 
     private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
@@ -28,23 +38,91 @@ public class DataInitializer {
     private boolean createTestUsers;
 
     private final MongoTemplate mongoTemplate;
-
-    public DataInitializer(MongoTemplate mongoTemplate) {
+    private final SeedSnapshots snapshots;
+    private final SeedingState state;
+    private final ImplantLogRewrites rewrites;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean async;
+    private final Path snapshotDirectory;
+
+    public DataInitializer(MongoTemplate mongoTemplate,
+                           SeedSnapshots snapshots,
+                           SeedingState state,
+                           ImplantLogRewrites rewrites,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${app.seed.async:true}") boolean async,
+                           @Value("${app.seed.snapshot-dir:}") String snapshotDirectory) {
         this.mongoTemplate = mongoTemplate;
+        this.snapshots = snapshots;
+        this.state = state;
+        this.rewrites = rewrites;
+        this.eventPublisher = eventPublisher;
+        this.async = async;
+        this.snapshotDirectory = snapshotDirectory.isBlank() ? null : Path.of(snapshotDirectory);
     }
 
 
-    @PostConstruct
-    public void initEarly() {
-        log.info("ApplicationReadyEvent: createTestUsers={}", createTestUsers);
+    // Seeding starts once the context is up instead of blocking its creation; readiness is held back until it is done.
+    // ApplicationStartedEvent rather than ApplicationReadyEvent: the interactive shell runs as an ApplicationRunner,
+    // so the ready event only fires when the shell exits.
+    @EventListener(ApplicationStartedEvent.class)
+    public void startSeeding() {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
 
-        if (createTestUsers) {
-            insertDataIntoCiviliansAndLogs();
+        if (async) {
+            Thread.ofVirtual().name("data-seeding").start(this::seed);
         } else {
-            log.info("Sample data creation is disabled");
+            seed();
+        }
+    }
+
+    // Boot reports ACCEPTING_TRAFFIC when it is ready, which must not hide a seeding run still in progress
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void holdReadiness() {
+        if (state.phase() != SeedingState.Phase.READY) {
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    private void seed() {
+        log.info("Seeding data: createTestUsers={}, snapshotDir={}", createTestUsers, snapshotDirectory);
+        state.started("checking existing data");
+
+        try {
+            String source = seedData();
+
+            synchronized (this) {
+                state.source(source);
+                state.finished();
+                AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+            }
+            log.info("Data initialization completed: {} in {} ms", source, state.took().toMillis());
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            state.failed(e);
+            log.error("Data initialization failed", e);
         }
 
-        log.info("Data initialization completed");
+        eventPublisher.publishEvent(new SeedingFinishedEvent(
+                state.phase() == SeedingState.Phase.READY, state.source(), state.took()));
+    }
+
+    private String seedData() throws IOException, InterruptedException {
+        if (!createTestUsers) return "sample data creation disabled";
+        if (mongoTemplate.count(new Query(), Civilian.class) > 0) return "existing data kept";
+
+        // historical logs: whatever an earlier database left derived from implant_logs is rebuilt afterwards
+        try (ImplantLogRewrites.Rewrite ignored = rewrites.beginAll("seeding")) {
+            if (snapshotDirectory != null && snapshots.exists(snapshotDirectory)) {
+                state.source("restoring snapshot " + snapshotDirectory);
+                long restored = snapshots.restore(snapshotDirectory, state::restored);
+                return "restored %d documents from %s".formatted(restored, snapshotDirectory);
+            }
+
+            state.source("generating demo data");
+            insertDataIntoCiviliansAndLogs();
+            return "generated demo data";
+        }
     }
 
 
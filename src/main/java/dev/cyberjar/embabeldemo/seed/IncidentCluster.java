@@ -0,0 +1,45 @@
+package dev.cyberjar.embabeldemo.seed;
+
+import org.springframework.data.geo.Point;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public record IncidentCluster(ClusterKind kind, Point center, LocalDateTime start, int implants) {
+
+    // kind:lat,lon,start[,implants] separated by ';', e.g.
+    //   bad-lot:40.6782,-73.9780,2026-02-01T02:10;attack:40.7282,-73.7949,2026-02-01T02:20,24
+    public static List<IncidentCluster> parseAll(String spec) {
+        List<IncidentCluster> clusters = new ArrayList<>();
+        if (spec == null || spec.isBlank()) return clusters;
+
+        for (String entry : spec.split(";")) {
+            String[] kindAndArgs = entry.trim().split(":", 2);
+            if (kindAndArgs.length != 2) throw new IllegalArgumentException("Expected kind:lat,lon,start[,implants] but got " + entry);
+
+            ClusterKind kind = ClusterKind.fromLabel(kindAndArgs[0].trim());
+            String[] args = kindAndArgs[1].split(",");
+            if (args.length < 3 || args.length > 4) {
+                throw new IllegalArgumentException("Expected lat,lon,start[,implants] but got " + kindAndArgs[1]);
+            }
+
+            clusters.add(new IncidentCluster(
+                    kind,
+                    new Point(Double.parseDouble(args[1].trim()), Double.parseDouble(args[0].trim())),
+                    LocalDateTime.parse(args[2].trim()),
+                    args.length == 4 ? Integer.parseInt(args[3].trim()) : kind.defaultImplants()));
+        }
+        return clusters;
+    }
+
+    // The demo's clusters (Brooklyn bad lot, Queens attack) in the night before `end`
+    public static List<IncidentCluster> defaults(LocalDateTime end) {
+        LocalDateTime base = end.minusDays(1).withHour(2).withMinute(0);
+        return List.of(
+                new IncidentCluster(ClusterKind.BAD_LOT, new Point(-73.9780, 40.6782), base.plusMinutes(10),
+                        ClusterKind.BAD_LOT.defaultImplants()),
+                new IncidentCluster(ClusterKind.ATTACK_PATTERN, new Point(-73.7949, 40.7282), base.plusMinutes(20),
+                        ClusterKind.ATTACK_PATTERN.defaultImplants()));
+    }
+}
@@ -0,0 +1,90 @@
+package dev.cyberjar.embabeldemo.seed;
+
+import org.springframework.shell.Availability;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellMethodAvailability;
+import org.springframework.shell.standard.ShellOption;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@ShellComponent
+public class SeedCommands {
+
+    private final SyntheticTelemetryGenerator generator;
+    private final SeedSnapshots snapshots;
+    private final SeedingState seedingState;
+
+    public SeedCommands(SyntheticTelemetryGenerator generator, SeedSnapshots snapshots, SeedingState seedingState) {
+        this.generator = generator;
+        this.snapshots = snapshots;
+        this.seedingState = seedingState;
+    }
+
+    @ShellMethod(key = "seed-status", value = "Show whether startup seeding is still running")
+    public String seedStatus() {
+        return seedingState.describe();
+    }
+
+    @ShellMethod(key = "seed-snapshot-save", value = "Write civilians and implant_logs to a snapshot directory for app.seed.snapshot-dir")
+    public String saveSnapshot(@ShellOption(help = "Target directory") String dir) throws IOException {
+        long saved = snapshots.save(Path.of(dir));
+        return "Saved %d documents to %s".formatted(saved, dir);
+    }
+
+    @ShellMethodAvailability({"seed-synthetic", "seed-snapshot-save"})
+    public Availability seeded() {
+        return seedingState.availability();
+    }
+
+    @ShellMethod(key = "seed-synthetic", value = "Generate a deterministic synthetic fleet with telemetry and injected incident clusters")
+    public String seedSynthetic(
+            @ShellOption(defaultValue = "7331") long seed,
+            @ShellOption(defaultValue = "10000") int civilians,
+            @ShellOption(defaultValue = "2") int implantsPerCivilian,
+            @ShellOption(defaultValue = "3") int days,
+            @ShellOption(defaultValue = "PT10M", help = "ISO-8601 duration between baseline samples") String interval,
+            @ShellOption(defaultValue = ShellOption.NULL, help = "ISO-8601 end of the period (default: the current hour); fix it for reproducible data") String end,
+            @ShellOption(defaultValue = ShellOption.NULL, help = "kind:lat,lon,start[,implants];... with kind bad-lot or attack (default: the demo clusters)") String clusters,
+            @ShellOption(defaultValue = "0", help = "Generator threads, 0 for one per core") int parallelism,
+            @ShellOption(defaultValue = "false", help = "Remove previously generated data first") boolean replace)
+            throws InterruptedException {
+
+        LocalDateTime periodEnd = end != null ? LocalDateTime.parse(end) : LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        List<IncidentCluster> injected = clusters != null ? IncidentCluster.parseAll(clusters) : IncidentCluster.defaults(periodEnd);
+
+        SyntheticDatasetSpec spec = new SyntheticDatasetSpec(
+                seed,
+                civilians,
+                implantsPerCivilian,
+                days,
+                Duration.parse(interval),
+                periodEnd,
+                injected,
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+
+        if (replace) generator.removeGenerated();
+
+        SyntheticDatasetReport report = generator.generate(spec);
+
+        return """
+                Civilians:       %d
+                Implants:        %d
+                Samples:         %d baseline + %d in %d cluster(s), %d failed
+                Took:            %d ms (%.0f samples/s)
+                """.formatted(
+                report.civilians(),
+                report.implants(),
+                report.samples(),
+                report.clusterSamples(),
+                injected.size(),
+                report.failedSamples(),
+                report.elapsed().toMillis(),
+                report.samplesPerSecond());
+    }
+}
@@ -0,0 +1,162 @@
+package dev.cyberjar.embabeldemo.seed;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.InsertManyOptions;
+import dev.cyberjar.embabeldemo.civilian.domain.Civilian;
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.utils.TaskScope;
+import org.bson.ByteBuf;
+import org.bson.RawBsonDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Binary snapshots of the seeded collections: one <collection>.bson.gz per collection holding concatenated raw BSON
+// documents, the same layout `mongodump --gzip` writes, so a dumped database folder can be restored too.
+// Documents are copied as raw bytes both ways: no decoding into entities and no re-encoding.
+@Component
+public class SeedSnapshots {
+
+    private static final Logger log = LoggerFactory.getLogger(SeedSnapshots.class);
+
+    private static final List<Class<?>> COLLECTIONS = List.of(Civilian.class, ImplantMonitoringLog.class);
+    private static final List<RawBsonDocument> END = List.of();
+
+    private final MongoTemplate mongoTemplate;
+    private final int writers;
+    private final int batchSize;
+
+    public SeedSnapshots(MongoTemplate mongoTemplate,
+                         @Value("${app.seed.restore-writers:4}") int writers,
+                         @Value("${app.seed.restore-batch-size:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.writers = writers;
+        this.batchSize = batchSize;
+    }
+
+    public boolean exists(Path directory) {
+        return COLLECTIONS.stream().allMatch(type -> Files.isRegularFile(file(directory, type)));
+    }
+
+    public long save(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        long saved = 0;
+
+        for (Class<?> type : COLLECTIONS) {
+            MongoCollection<RawBsonDocument> collection = rawCollection(type);
+
+            try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(file(directory, type))));
+                 MongoCursor<RawBsonDocument> cursor = collection.find().iterator()) {
+
+                while (cursor.hasNext()) {
+                    ByteBuf buffer = cursor.next().getByteBuffer();
+                    byte[] bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    out.write(bytes);
+                    saved++;
+                }
+            }
+            log.info("Saved snapshot of '{}' to {}", collection.getNamespace().getCollectionName(), file(directory, type));
+        }
+        return saved;
+    }
+
+    // Reads each file on the calling thread and inserts batches from `writers` virtual threads, unordered
+    public long restore(Path directory, LongConsumer progress) throws IOException, InterruptedException {
+        long restored = 0;
+
+        for (Class<?> type : COLLECTIONS) {
+            Path file = file(directory, type);
+            MongoCollection<RawBsonDocument> collection = rawCollection(type);
+            BlockingQueue<List<RawBsonDocument>> batches = new ArrayBlockingQueue<>(writers * 2);
+
+            try (TaskScope scope = TaskScope.open("snapshot-restore")) {
+                for (int i = 0; i < writers; i++) {
+                    scope.fork(() -> {
+                        for (List<RawBsonDocument> batch = batches.take(); batch != END; batch = batches.take()) {
+                            collection.insertMany(batch, new InsertManyOptions().ordered(false));
+                            progress.accept(batch.size());
+                        }
+                        return null;
+                    });
+                }
+
+                // the reader is forked too, so a failing writer interrupts it instead of leaving it blocked on put()
+                Supplier<Long> read = scope.fork(() -> {
+                    long documents = readBatches(file, batches);
+                    for (int i = 0; i < writers; i++) batches.put(END);
+                    return documents;
+                });
+
+                scope.join();
+                restored += read.get();
+            }
+            log.info("Restored '{}' from {}", collection.getNamespace().getCollectionName(), file);
+        }
+        return restored;
+    }
+
+    private long readBatches(Path file, BlockingQueue<List<RawBsonDocument>> batches) throws IOException, InterruptedException {
+        long documents = 0;
+        List<RawBsonDocument> batch = new ArrayList<>(batchSize);
+
+        try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            RawBsonDocument document;
+            while ((document = next(in)) != null) {
+                batch.add(document);
+                documents++;
+
+                if (batch.size() == batchSize) {
+                    batches.put(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) batches.put(batch);
+        return documents;
+    }
+
+    // Each BSON document starts with its total length as a little-endian int32
+    private static RawBsonDocument next(InputStream in) throws IOException {
+        byte[] header = in.readNBytes(4);
+        if (header.length == 0) return null;
+        if (header.length < 4) throw new EOFException("Truncated BSON length prefix");
+
+        int length = (header[0] & 0xff) | (header[1] & 0xff) << 8 | (header[2] & 0xff) << 16 | (header[3] & 0xff) << 24;
+        if (length < 5) throw new IOException("Invalid BSON document length " + length);
+
+        byte[] bytes = new byte[length];
+        System.arraycopy(header, 0, bytes, 0, 4);
+        if (in.readNBytes(bytes, 4, length - 4) != length - 4) throw new EOFException("Truncated BSON document");
+
+        return new RawBsonDocument(bytes);
+    }
+
+    private MongoCollection<RawBsonDocument> rawCollection(Class<?> type) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(type)).withDocumentClass(RawBsonDocument.class);
+    }
+
+    private Path file(Path directory, Class<?> type) {
+        return directory.resolve(mongoTemplate.getCollectionName(type) + ".bson.gz");
+    }
+}
@@ -0,0 +1,7 @@
+package dev.cyberjar.embabeldemo.seed;
+
+import java.time.Duration;
+
+// Published once background seeding is over, whether it seeded anything or not
+public record SeedingFinishedEvent(boolean succeeded, String source, Duration took) {
+}
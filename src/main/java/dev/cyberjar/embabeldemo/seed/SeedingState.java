@@ -0,0 +1,81 @@
+package dev.cyberjar.embabeldemo.seed;
+
+import org.springframework.shell.Availability;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Where background seeding stands; shell commands that need the seeded data check availability() first
+@Component
+public class SeedingState {
+
+    public enum Phase { PENDING, SEEDING, READY, FAILED }
+
+    private final AtomicLong restoredDocuments = new AtomicLong();
+
+    private volatile Phase phase = Phase.PENDING;
+    private volatile String source = "";
+    private volatile long startedAtNanos;
+    private volatile Duration took = Duration.ZERO;
+    private volatile String failure = "";
+
+    public Phase phase() {
+        return phase;
+    }
+
+    public boolean isFinished() {
+        return phase == Phase.READY || phase == Phase.FAILED;
+    }
+
+    public Availability availability() {
+        return switch (phase) {
+            case PENDING, SEEDING -> Availability.unavailable("seeding is still running (" + describe() + ")");
+            case READY -> Availability.available();
+            case FAILED -> Availability.unavailable("seeding failed: " + failure);
+        };
+    }
+
+    public String describe() {
+        return switch (phase) {
+            case PENDING -> "waiting to start";
+            case SEEDING -> "%s, %d document(s) restored, %d s".formatted(
+                    source, restoredDocuments.get(), Duration.ofNanos(System.nanoTime() - startedAtNanos).toSeconds());
+            case READY -> "ready: %s in %d ms".formatted(source, took.toMillis());
+            case FAILED -> "failed after %d ms: %s".formatted(took.toMillis(), failure);
+        };
+    }
+
+    void started(String source) {
+        this.source = source;
+        this.startedAtNanos = System.nanoTime();
+        this.phase = Phase.SEEDING;
+    }
+
+    void source(String source) {
+        this.source = source;
+    }
+
+    void restored(long documents) {
+        restoredDocuments.addAndGet(documents);
+    }
+
+    void finished() {
+        took = Duration.ofNanos(System.nanoTime() - startedAtNanos);
+        phase = Phase.READY;
+    }
+
+    void failed(Throwable cause) {
+        took = Duration.ofNanos(System.nanoTime() - startedAtNanos);
+        failure = String.valueOf(cause.getMessage());
+        phase = Phase.FAILED;
+    }
+
+    Duration took() {
+        return took;
+    }
+
+    String source() {
+        return source;
+    }
+}
@@ -0,0 +1,17 @@
+package dev.cyberjar.embabeldemo.seed;
+
+import java.time.Duration;
+
+public record SyntheticDatasetReport(
+        long civilians,
+        long implants,
+        long samples,
+        long clusterSamples,
+        long failedSamples,
+        Duration elapsed
+) {
+
+    public double samplesPerSecond() {
+        return (samples + clusterSamples) / Math.max(elapsed.toMillis() / 1000.0, 1e-3);
+    }
+}
@@ -0,0 +1,30 @@
+package dev.cyberjar.embabeldemo.seed;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Samples per implant: days / sampleInterval, ending at `end`. Same spec and seed, same dataset.
+public record SyntheticDatasetSpec(
+        long seed,
+        int civilians,
+        int implantsPerCivilian,
+        int days,
+        Duration sampleInterval,
+        LocalDateTime end,
+        List<IncidentCluster> clusters,
+        int parallelism
+) {
+
+    public int implants() {
+        return civilians * implantsPerCivilian;
+    }
+
+    public long samplesPerImplant() {
+        return Duration.ofDays(days).dividedBy(sampleInterval);
+    }
+
+    public LocalDateTime start() {
+        return end.minusDays(days);
+    }
+}
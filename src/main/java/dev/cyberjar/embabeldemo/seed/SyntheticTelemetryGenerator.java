@@ -0,0 +1,341 @@
+package dev.cyberjar.embabeldemo.seed;
+
+import dev.cyberjar.embabeldemo.civilian.domain.Civilian;
+import dev.cyberjar.embabeldemo.civilian.domain.Implant;
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.dto.IngestionStats;
+import dev.cyberjar.embabeldemo.implantlog.ingest.ImplantLogRewrites;
+import dev.cyberjar.embabeldemo.implantlog.ingest.TelemetryIngestionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.bson.Document;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+// Scalable counterpart of DataInitializer for load and benchmark datasets. Civilians are generated in chunks
+// on a pool of platform threads (generation is CPU bound); samples go straight into the ingestion queue, whose
+// bounded capacity throttles the generators to what the bulk writers sustain, so nothing is held in memory.
+// Every implant draws from its own random stream seeded by (seed, implant index): the dataset does not
+// depend on thread scheduling.
+@Service
+public class SyntheticTelemetryGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticTelemetryGenerator.class);
+
+    // national ids and serial numbers of generated data, so it can be told apart from (and removed without) demo data
+    static final String PREFIX = "GEN-";
+
+    private static final int CIVILIANS_PER_CHUNK = 1_000;
+
+    // random stream ids: implant attributes use the implant index, civilians -1 - index
+    private static final long BASELINE_STREAM = 1L << 40;
+    private static final long CLUSTER_STREAM = 2L << 40;
+
+    private static final Point[] HUBS = {
+            new Point(-73.9855, 40.7580), // NYC
+            new Point(-71.0589, 42.3601), // Boston
+            new Point(-75.1652, 39.9526), // Philadelphia
+            new Point(-77.0369, 38.9072)  // Washington
+    };
+    private static final double HOME_SPREAD_DEGREES = 0.05;
+    private static final double LOCATION_JITTER_DEGREES = 0.01;
+    private static final double CLUSTER_JITTER_DEGREES = 0.003;
+
+    private static final String[] TYPES = {"limb", "ocular", "cardiac", "neural"};
+    private static final String[] MANUFACTURERS = {"MechaMed", "SynthForge", "NeuroCore", "OptiCyb", "VitaLink"};
+
+    private final MongoTemplate mongoTemplate;
+    private final TelemetryIngestionService ingestionService;
+    private final ImplantLogRewrites rewrites;
+
+    public SyntheticTelemetryGenerator(MongoTemplate mongoTemplate,
+                                       TelemetryIngestionService ingestionService,
+                                       ImplantLogRewrites rewrites) {
+        this.mongoTemplate = mongoTemplate;
+        this.ingestionService = ingestionService;
+        this.rewrites = rewrites;
+    }
+
+    public SyntheticDatasetReport generate(SyntheticDatasetSpec spec) throws InterruptedException {
+        Map<Integer, Membership> members = assignClusters(spec);
+
+        long started = System.nanoTime();
+        IngestionStats before = ingestionService.stats();
+
+        LongAdder samples = new LongAdder();
+        LongAdder clusterSamples = new LongAdder();
+
+        try (ImplantLogRewrites.Rewrite ignored = rewrites.begin("seed-synthetic", periodStart(spec), periodEnd(spec))) {
+            generateAll(spec, members, before, samples, clusterSamples);
+        }
+
+        return new SyntheticDatasetReport(
+                spec.civilians(),
+                spec.implants(),
+                samples.sum(),
+                clusterSamples.sum(),
+                ingestionService.stats().failedSamples() - before.failedSamples(),
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    // Removes everything a previous run generated, demo data is left alone. The log delete is a rewrite, so rollups,
+    // hot rings, kept slices, cross-run window cache entries and fresh incident cases over its range are invalidated.
+    public long removeGenerated() {
+        Criteria generatedCivilians = Criteria.where("nationalId").regex("^" + PREFIX);
+        Criteria generatedLogs = Criteria.where("implantSerialNumber").regex("^" + PREFIX);
+
+        long civilians = mongoTemplate.remove(new Query(generatedCivilians), Civilian.class).getDeletedCount();
+
+        Document range = mongoTemplate.aggregate(Aggregation.newAggregation(
+                        Aggregation.match(generatedLogs),
+                        Aggregation.group().min("timestamp").as("from").max("timestamp").as("to")),
+                ImplantMonitoringLog.class, Document.class).getUniqueMappedResult();
+
+        long logs = 0;
+        if (range != null) {
+            LocalDateTime from = LocalDateTime.ofInstant(range.getDate("from").toInstant(), ZoneId.systemDefault());
+            LocalDateTime to = LocalDateTime.ofInstant(range.getDate("to").toInstant(), ZoneId.systemDefault());
+
+            try (ImplantLogRewrites.Rewrite ignored = rewrites.begin("seed-synthetic --replace", from, to.plusNanos(1_000_000))) {
+                logs = mongoTemplate.remove(new Query(generatedLogs), ImplantMonitoringLog.class).getDeletedCount();
+            }
+        }
+
+        log.info("Removed {} generated civilians and {} generated logs", civilians, logs);
+        return civilians + logs;
+    }
+
+    private void generateAll(SyntheticDatasetSpec spec,
+                             Map<Integer, Membership> members,
+                             IngestionStats before,
+                             LongAdder samples,
+                             LongAdder clusterSamples) throws InterruptedException {
+
+        int chunks = (spec.civilians() + CIVILIANS_PER_CHUNK - 1) / CIVILIANS_PER_CHUNK;
+        log.info("Generating {} civilians, {} implants, {} samples per implant on {} thread(s)",
+                spec.civilians(), spec.implants(), spec.samplesPerImplant(), spec.parallelism());
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(spec.parallelism(),
+                Thread.ofPlatform().name("synthetic-gen-", 0).factory())) {
+
+            List<Future<?>> tasks = new ArrayList<>(chunks);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int from = chunk * CIVILIANS_PER_CHUNK;
+                int to = Math.min(from + CIVILIANS_PER_CHUNK, spec.civilians());
+
+                tasks.add(executor.submit(() -> {
+                    generateChunk(spec, members, from, to, samples, clusterSamples);
+                    return null;
+                }));
+            }
+
+            for (Future<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    executor.shutdownNow();
+                    throw new IllegalStateException("Synthetic data generation failed", e.getCause());
+                }
+            }
+        }
+
+        // the rewrite only ends once every queued sample has been written
+        awaitWritten(before, samples.sum() + clusterSamples.sum());
+    }
+
+    private static LocalDateTime periodStart(SyntheticDatasetSpec spec) {
+        LocalDateTime start = spec.start();
+        for (IncidentCluster cluster : spec.clusters()) {
+            if (cluster.start().isBefore(start)) start = cluster.start();
+        }
+        return start;
+    }
+
+    // exclusive: baseline samples stop one interval before `end`, cluster samples one step before their last
+    private static LocalDateTime periodEnd(SyntheticDatasetSpec spec) {
+        LocalDateTime end = spec.end();
+        for (IncidentCluster cluster : spec.clusters()) {
+            LocalDateTime clusterEnd = cluster.start().plusMinutes((long) cluster.kind().points() * cluster.kind().stepMinutes());
+            if (clusterEnd.isAfter(end)) end = clusterEnd;
+        }
+        return end;
+    }
+
+    private void generateChunk(SyntheticDatasetSpec spec,
+                               Map<Integer, Membership> members,
+                               int fromCivilian,
+                               int toCivilian,
+                               LongAdder samples,
+                               LongAdder clusterSamples) throws InterruptedException {
+
+        List<Civilian> civilians = new ArrayList<>(toCivilian - fromCivilian);
+        List<GeneratedImplant> implants = new ArrayList<>((toCivilian - fromCivilian) * spec.implantsPerCivilian());
+
+        for (int c = fromCivilian; c < toCivilian; c++) {
+            SplittableRandom random = random(spec.seed(), -1L - c);
+            String nationalId = PREFIX + "%08d".formatted(c);
+            Point home = jitter(HUBS[random.nextInt(HUBS.length)], random, HOME_SPREAD_DEGREES);
+
+            List<Implant> owned = new ArrayList<>(spec.implantsPerCivilian());
+            for (int j = 0; j < spec.implantsPerCivilian(); j++) {
+                int index = c * spec.implantsPerCivilian() + j;
+                GeneratedImplant implant = implant(spec.seed(), index, members.get(index), nationalId, home);
+                implants.add(implant);
+                owned.add(implant.implant());
+            }
+
+            civilians.add(new Civilian(
+                    null,
+                    "Synthetic Civilian " + c,
+                    nationalId,
+                    LocalDate.of(1950, 1, 1).plusDays(random.nextInt(50 * 365)).toString(),
+                    random.nextInt(7) == 0,
+                    random.nextInt(5) == 0,
+                    owned));
+        }
+
+        // owners first: a triage run must be able to resolve every serial it finds in the logs
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Civilian.class).insert(civilians).execute();
+
+        for (GeneratedImplant implant : implants) {
+            samples.add(baseline(spec, implant));
+            if (implant.membership() != null) clusterSamples.add(cluster(spec, implant));
+        }
+    }
+
+    private GeneratedImplant implant(long seed, int index, Membership membership, String nationalId, Point home) {
+        SplittableRandom random = random(seed, index);
+        String serial = PREFIX + "%08d".formatted(index);
+
+        String type = TYPES[random.nextInt(TYPES.length)];
+        String manufacturer = MANUFACTURERS[random.nextInt(MANUFACTURERS.length)];
+        int lot = 100 + random.nextInt(400);
+        String model = "Model-%03d".formatted(random.nextInt(60));
+
+        // a bad lot is one manufacturer lot and model, numbered outside the regular range
+        if (membership != null && membership.cluster().kind() == ClusterKind.BAD_LOT) {
+            manufacturer = MANUFACTURERS[0];
+            lot = 900 + membership.clusterIndex();
+            model = "Model-BL%d".formatted(membership.clusterIndex());
+        }
+
+        Implant implant = new Implant(
+                type,
+                model,
+                "%d.%d".formatted(1 + random.nextInt(3), random.nextInt(10)),
+                manufacturer,
+                lot,
+                serial,
+                LocalDate.of(2023, 1, 1).plusDays(random.nextInt(3 * 365)).toString());
+
+        return new GeneratedImplant(implant, index, nationalId, home, membership);
+    }
+
+    // Normal telemetry every sampleInterval over the whole period, around the owner's home
+    private long baseline(SyntheticDatasetSpec spec, GeneratedImplant implant) throws InterruptedException {
+        SplittableRandom random = random(spec.seed(), BASELINE_STREAM | implant.index());
+        LocalDateTime start = spec.start();
+        long points = spec.samplesPerImplant();
+
+        for (long i = 0; i < points; i++) {
+            submit(implant, start.plus(spec.sampleInterval().multipliedBy(i)),
+                    1.6, 18.0, 18.0, 0.6, 6.0, 5.0,
+                    jitter(implant.home(), random, LOCATION_JITTER_DEGREES), random);
+        }
+        return points;
+    }
+
+    private long cluster(SyntheticDatasetSpec spec, GeneratedImplant implant) throws InterruptedException {
+        IncidentCluster cluster = implant.membership().cluster();
+        ClusterKind kind = cluster.kind();
+        SplittableRandom random = random(spec.seed(), CLUSTER_STREAM | implant.index());
+
+        for (int i = 0; i < kind.points(); i++) {
+            submit(implant, cluster.start().plusMinutes((long) i * kind.stepMinutes()),
+                    kind.powerUw(), kind.cpuPct(), kind.latencyMs(), 0.8, 4.0, 12.0,
+                    jitter(cluster.center(), random, CLUSTER_JITTER_DEGREES), random);
+        }
+        return kind.points();
+    }
+
+    private void submit(GeneratedImplant implant, LocalDateTime timestamp,
+                        double power, double cpu, double latency,
+                        double powerJitter, double cpuJitter, double latencyJitter,
+                        Point location, SplittableRandom random) throws InterruptedException {
+
+        ingestionService.submit(new ImplantMonitoringLog(
+                null,
+                implant.implant().getSerialNumber(),
+                implant.nationalId(),
+                timestamp,
+                Math.max(0.0, power + signed(random) * powerJitter),
+                Math.clamp(cpu + signed(random) * cpuJitter, 0.0, 100.0),
+                Math.max(0.0, latency + signed(random) * latencyJitter),
+                location));
+    }
+
+    // Spreads cluster members evenly over the implant index range
+    private static Map<Integer, Membership> assignClusters(SyntheticDatasetSpec spec) {
+        int slots = spec.clusters().stream().mapToInt(IncidentCluster::implants).sum();
+        if (slots > spec.implants()) {
+            throw new IllegalArgumentException("Clusters need %d implants but only %d are generated"
+                    .formatted(slots, spec.implants()));
+        }
+
+        Map<Integer, Membership> members = new HashMap<>();
+        int stride = slots == 0 ? 1 : spec.implants() / slots;
+        int slot = 0;
+
+        for (int k = 0; k < spec.clusters().size(); k++) {
+            IncidentCluster cluster = spec.clusters().get(k);
+            for (int j = 0; j < cluster.implants(); j++) {
+                members.put(slot++ * stride, new Membership(cluster, k));
+            }
+        }
+        return members;
+    }
+
+    private IngestionStats awaitWritten(IngestionStats before, long submitted) throws InterruptedException {
+        long target = before.writtenSamples() + before.failedSamples() + submitted;
+
+        return ingestionService.awaitProcessed(target);
+    }
+
+    private static SplittableRandom random(long seed, long stream) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + stream);
+    }
+
+    private static Point jitter(Point center, SplittableRandom random, double maxDelta) {
+        return new Point(center.getX() + signed(random) * maxDelta, center.getY() + signed(random) * maxDelta);
+    }
+
+    private static double signed(SplittableRandom random) {
+        return random.nextDouble() * 2.0 - 1.0;
+    }
+
+    private record Membership(IncidentCluster cluster, int clusterIndex) {
+    }
+
+    private record GeneratedImplant(Implant implant, int index, String nationalId, Point home, Membership membership) {
+    }
+}
@@ -0,0 +1,43 @@
+package dev.cyberjar.embabeldemo.subscription.domain;
+
+import dev.cyberjar.embabeldemo.incident.domain.IncidentSignal;
+import dev.cyberjar.embabeldemo.incident.domain.MetricCondition;
+import dev.cyberjar.embabeldemo.incident.domain.RiskLevel;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// A standing IncidentSignal: the area and metric condition are fixed, the time range is a rolling window ending at
+// each incoming sample
+@Document("alert_subscriptions")
+public record AlertSubscription(
+        @Id String id,
+        String name,
+        double longitude,
+        double latitude,
+        double radiusMeters,
+        String metric,
+        double threshold,
+        long windowSeconds,
+        RiskLevel triggerLevel,
+        Instant createdAt
+) {
+
+    public Duration window() {
+        return Duration.ofSeconds(windowSeconds);
+    }
+
+    public IncidentSignal toSignal(LocalDateTime to) {
+        return new IncidentSignal(
+                longitude,
+                latitude,
+                radiusMeters,
+                to.minus(window()),
+                to,
+                List.of(new MetricCondition(metric, threshold)));
+    }
+}
@@ -0,0 +1,13 @@
+package dev.cyberjar.embabeldemo.subscription.dto;
+
+import dev.cyberjar.embabeldemo.incident.domain.IncidentSignal;
+import dev.cyberjar.embabeldemo.incident.domain.RiskLevel;
+import dev.cyberjar.embabeldemo.subscription.domain.AlertSubscription;
+
+public record SubscriptionAlert(
+        AlertSubscription subscription,
+        RiskLevel risk,
+        long exceedCount,
+        long distinctImplants,
+        IncidentSignal signal
+) { }
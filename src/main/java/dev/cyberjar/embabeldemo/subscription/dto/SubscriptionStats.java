@@ -0,0 +1,13 @@
+package dev.cyberjar.embabeldemo.subscription.dto;
+
+public record SubscriptionStats(
+        boolean streaming,
+        int subscriptions,
+        int indexedCells,
+        int wideAreas,
+        long samples,
+        long skippedSamples,
+        long matches,
+        long alerts,
+        long declinedAlerts
+) { }
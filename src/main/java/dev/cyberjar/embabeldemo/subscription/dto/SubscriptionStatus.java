@@ -0,0 +1,11 @@
+package dev.cyberjar.embabeldemo.subscription.dto;
+
+import dev.cyberjar.embabeldemo.incident.domain.RiskLevel;
+import dev.cyberjar.embabeldemo.subscription.domain.AlertSubscription;
+
+public record SubscriptionStatus(
+        AlertSubscription subscription,
+        long exceedCount,
+        long distinctImplants,
+        RiskLevel risk
+) { }
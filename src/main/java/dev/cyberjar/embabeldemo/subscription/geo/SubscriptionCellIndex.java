@@ -0,0 +1,122 @@
+package dev.cyberjar.embabeldemo.subscription.geo;
+
+import dev.cyberjar.embabeldemo.subscription.domain.AlertSubscription;
+import dev.cyberjar.embabeldemo.utils.GeoMath;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Reverse of GeoCellIndex: the circles are indexed and queried with a point. Every subscription area is posted into
+// each grid cell its bounding box touches, so a sample probes exactly one cell and refines only the areas posted
+// there with haversine. The cost per sample does not grow with subscriptions elsewhere on the map.
+// Areas that would touch more than maxCellsPerArea cells (continent-sized radii) are kept in a short list checked
+// for every sample instead. Instances are immutable: subscriptions change rarely next to samples, so the service
+// swaps in a rebuilt index and readers never lock.
+public final class SubscriptionCellIndex {
+
+    private static final AlertSubscription[] NONE = new AlertSubscription[0];
+
+    private final double cellDegrees;
+    private final int lonCells;
+    private final Map<Long, AlertSubscription[]> cells;
+    private final AlertSubscription[] wideAreas;
+    private final int size;
+
+    public SubscriptionCellIndex(Collection<AlertSubscription> subscriptions, double cellDegrees, int maxCellsPerArea) {
+        if (cellDegrees <= 0 || cellDegrees > 90) {
+            throw new IllegalArgumentException("Cell size must be in (0, 90] degrees: " + cellDegrees);
+        }
+        this.cellDegrees = cellDegrees;
+        this.lonCells = (int) Math.ceil(360.0 / cellDegrees);
+
+        Map<Long, List<AlertSubscription>> postings = new HashMap<>();
+        List<AlertSubscription> wide = new ArrayList<>();
+
+        for (AlertSubscription subscription : subscriptions) {
+            if (!post(subscription, postings, maxCellsPerArea)) wide.add(subscription);
+        }
+
+        this.cells = new HashMap<>(postings.size() * 4 / 3 + 1);
+        postings.forEach((key, posted) -> cells.put(key, posted.toArray(NONE)));
+        this.wideAreas = wide.toArray(NONE);
+        this.size = subscriptions.size();
+    }
+
+    public static SubscriptionCellIndex empty(double cellDegrees) {
+        return new SubscriptionCellIndex(List.of(), cellDegrees, 1);
+    }
+
+    // Calls action for every subscription whose area contains the point
+    public void forEachCovering(double longitude, double latitude, Consumer<AlertSubscription> action) {
+        AlertSubscription[] posted = cells.getOrDefault(cellKey(latIndex(latitude), lonIndex(longitude)), NONE);
+
+        for (AlertSubscription subscription : posted) {
+            if (covers(subscription, longitude, latitude)) action.accept(subscription);
+        }
+        for (AlertSubscription subscription : wideAreas) {
+            if (covers(subscription, longitude, latitude)) action.accept(subscription);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int cellCount() {
+        return cells.size();
+    }
+
+    public int wideAreaCount() {
+        return wideAreas.length;
+    }
+
+    // Same bounding box as GeoCellIndex.query; returns false when the area is too large to post
+    private boolean post(AlertSubscription subscription,
+                         Map<Long, List<AlertSubscription>> postings,
+                         int maxCellsPerArea) {
+
+        double latSpan = Math.toDegrees(subscription.radiusMeters() / GeoMath.EARTH_RADIUS_METERS);
+        double minLat = Math.max(-90, subscription.latitude() - latSpan);
+        double maxLat = Math.min(90, subscription.latitude() + latSpan);
+
+        double cosLat = Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat))));
+        double lonSpan = cosLat <= 1e-9 ? 180 : Math.min(180, latSpan / cosLat);
+
+        int fromLat = latIndex(minLat);
+        int toLat = latIndex(maxLat);
+        int fromLon = (int) Math.floor((subscription.longitude() - lonSpan + 180) / cellDegrees);
+        int toLon = (int) Math.floor((subscription.longitude() + lonSpan + 180) / cellDegrees);
+        int lonCount = Math.min(lonCells, toLon - fromLon + 1);
+
+        if ((long) (toLat - fromLat + 1) * lonCount > maxCellsPerArea) return false;
+
+        for (int lat = fromLat; lat <= toLat; lat++) {
+            for (int i = 0; i < lonCount; i++) {
+                postings.computeIfAbsent(cellKey(lat, Math.floorMod(fromLon + i, lonCells)), k -> new ArrayList<>())
+                        .add(subscription);
+            }
+        }
+        return true;
+    }
+
+    private static boolean covers(AlertSubscription subscription, double longitude, double latitude) {
+        return GeoMath.haversineMeters(subscription.longitude(), subscription.latitude(), longitude, latitude)
+                <= subscription.radiusMeters();
+    }
+
+    private int latIndex(double latitude) {
+        return (int) Math.floor((Math.min(90, Math.max(-90, latitude)) + 90) / cellDegrees);
+    }
+
+    private int lonIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), lonCells);
+    }
+
+    private static long cellKey(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,7 @@
+package dev.cyberjar.embabeldemo.subscription.repository;
+
+import dev.cyberjar.embabeldemo.subscription.domain.AlertSubscription;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface AlertSubscriptionRepository extends MongoRepository<AlertSubscription, String> {
+}
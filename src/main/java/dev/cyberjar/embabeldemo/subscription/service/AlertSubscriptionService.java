@@ -0,0 +1,212 @@
+package dev.cyberjar.embabeldemo.subscription.service;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.domain.TelemetryMetric;
+import dev.cyberjar.embabeldemo.implantlog.ingest.ImplantLogRewrites;
+import dev.cyberjar.embabeldemo.implantlog.scan.AnomalyAccumulator;
+import dev.cyberjar.embabeldemo.incident.domain.RiskLevel;
+import dev.cyberjar.embabeldemo.seed.SeedingFinishedEvent;
+import dev.cyberjar.embabeldemo.subscription.domain.AlertSubscription;
+import dev.cyberjar.embabeldemo.subscription.dto.SubscriptionAlert;
+import dev.cyberjar.embabeldemo.subscription.dto.SubscriptionStats;
+import dev.cyberjar.embabeldemo.subscription.dto.SubscriptionStatus;
+import dev.cyberjar.embabeldemo.subscription.geo.SubscriptionCellIndex;
+import dev.cyberjar.embabeldemo.subscription.repository.AlertSubscriptionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.geo.Point;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Standing subscriptions live in alert_subscriptions and, for matching, in an immutable SubscriptionCellIndex that
+// is rebuilt whenever one is added or removed. Each incoming sample is tested only against the areas covering it,
+// and feeds their rolling windows; an alert goes to the SubscriptionAlertHandler when a window's risk reaches the
+// subscription's trigger level. It fires again only after the risk has dropped below that level.
+// Only live samples count: nothing is evaluated before startup seeding has finished, samples inside a range a
+// backfill is rewriting are skipped, and windows run on wall-clock time (see RollingExceedWindow).
+@Service
+public class AlertSubscriptionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertSubscriptionService.class);
+
+    private final AlertSubscriptionRepository repository;
+    private final SubscriptionAlertHandler alertHandler;
+    private final ImplantLogRewrites rewrites;
+    private final double cellDegrees;
+    private final int maxCellsPerArea;
+
+    private final Map<String, RollingExceedWindow> windows = new ConcurrentHashMap<>();
+    private volatile SubscriptionCellIndex index;
+    private volatile boolean seeded;
+
+    private final Counter samples;
+    private final Counter skipped;
+    private final Counter matches;
+    private final Counter alerts;
+    private final Counter declined;
+
+    public AlertSubscriptionService(AlertSubscriptionRepository repository,
+                                    SubscriptionAlertHandler alertHandler,
+                                    ImplantLogRewrites rewrites,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.subscriptions.cell-degrees:0.01}") double cellDegrees,
+                                    @Value("${app.subscriptions.max-cells-per-area:4096}") int maxCellsPerArea) {
+        this.repository = repository;
+        this.alertHandler = alertHandler;
+        this.rewrites = rewrites;
+        this.cellDegrees = cellDegrees;
+        this.maxCellsPerArea = maxCellsPerArea;
+        this.index = SubscriptionCellIndex.empty(cellDegrees);
+
+        this.samples = meterRegistry.counter("subscription.samples");
+        this.skipped = meterRegistry.counter("subscription.samples.skipped");
+        this.matches = meterRegistry.counter("subscription.matches");
+        this.alerts = meterRegistry.counter("subscription.alerts", "result", "accepted");
+        this.declined = meterRegistry.counter("subscription.alerts", "result", "declined");
+    }
+
+    public AlertSubscription subscribe(String name,
+                                       double longitude,
+                                       double latitude,
+                                       double radiusMeters,
+                                       String metric,
+                                       double threshold,
+                                       Duration window,
+                                       RiskLevel triggerLevel) {
+        if (radiusMeters <= 0) throw new IllegalArgumentException("Radius must be positive: " + radiusMeters);
+        if (window.toSeconds() <= 0) throw new IllegalArgumentException("Window must be at least a second: " + window);
+        if (triggerLevel == RiskLevel.LOW) throw new IllegalArgumentException("Trigger level must be above LOW");
+
+        AlertSubscription saved = repository.save(new AlertSubscription(
+                null,
+                name,
+                longitude,
+                latitude,
+                radiusMeters,
+                TelemetryMetric.fromField(metric.trim()).field(),
+                threshold,
+                window.toSeconds(),
+                triggerLevel,
+                Instant.now()));
+
+        reload();
+        return saved;
+    }
+
+    public boolean unsubscribe(String id) {
+        if (!repository.existsById(id)) return false;
+
+        repository.deleteById(id);
+        reload();
+        return true;
+    }
+
+    // Rebuilds the index from alert_subscriptions; windows of subscriptions that still exist keep their state
+    public synchronized void reload() {
+        List<AlertSubscription> subscriptions;
+        try {
+            subscriptions = repository.findAll();
+        } catch (DataAccessException e) {
+            log.warn("Could not load alert subscriptions, keeping {} indexed: {}", index.size(), e.getMessage());
+            return;
+        }
+
+        Set<String> ids = subscriptions.stream().map(AlertSubscription::id).collect(Collectors.toSet());
+        windows.keySet().retainAll(ids);
+        index = new SubscriptionCellIndex(subscriptions, cellDegrees, maxCellsPerArea);
+
+        log.info("Indexed {} alert subscription(s) in {} cells ({} too wide to index)",
+                index.size(), index.cellCount(), index.wideAreaCount());
+    }
+
+    @EventListener(SeedingFinishedEvent.class)
+    public void seedingFinished() {
+        seeded = true;
+    }
+
+    public void onSample(ImplantMonitoringLog sample) {
+        Point location = sample.getLocation();
+        LocalDateTime timestamp = sample.getTimestamp();
+        if (location == null || timestamp == null) return;
+
+        samples.increment();
+        if (!seeded || rewrites.isRewriting(timestamp, timestamp.plusNanos(1_000_000))) {
+            skipped.increment();
+            return;
+        }
+        index.forEachCovering(location.getX(), location.getY(), subscription -> evaluate(subscription, sample));
+    }
+
+    public List<SubscriptionStatus> statuses() {
+        return repository.findAll().stream()
+                .sorted(Comparator.comparing(AlertSubscription::createdAt))
+                .map(subscription -> {
+                    RollingExceedWindow window = windows.get(subscription.id());
+                    if (window == null) return new SubscriptionStatus(subscription, 0, 0, RiskLevel.LOW);
+
+                    window.advance(System.currentTimeMillis());
+                    return new SubscriptionStatus(subscription, window.exceedCount(), window.distinctImplants(), window.risk());
+                })
+                .toList();
+    }
+
+    public SubscriptionStats stats(boolean streaming) {
+        SubscriptionCellIndex current = index;
+        return new SubscriptionStats(
+                streaming,
+                current.size(),
+                current.cellCount(),
+                current.wideAreaCount(),
+                (long) samples.count(),
+                (long) skipped.count(),
+                (long) matches.count(),
+                (long) alerts.count(),
+                (long) declined.count());
+    }
+
+    private void evaluate(AlertSubscription subscription, ImplantMonitoringLog sample) {
+        matches.increment();
+
+        RollingExceedWindow window = windows.computeIfAbsent(
+                subscription.id(), id -> new RollingExceedWindow(subscription.window().toMillis()));
+        boolean exceeded = TelemetryMetric.fromField(subscription.metric()).valueOf(sample) >= subscription.threshold();
+
+        if (!window.record(sample.getImplantSerialNumber(),
+                AnomalyAccumulator.toMillis(sample.getTimestamp()),
+                exceeded,
+                subscription.triggerLevel(),
+                System.currentTimeMillis())) {
+            return;
+        }
+
+        SubscriptionAlert alert = new SubscriptionAlert(
+                subscription,
+                window.risk(),
+                window.exceedCount(),
+                window.distinctImplants(),
+                subscription.toSignal(sample.getTimestamp()));
+
+        if (alertHandler.onAlert(alert)) {
+            alerts.increment();
+            log.info("Subscription {} ({}) reached {}: {} exceeding samples from {} implants",
+                    subscription.name(), subscription.id(), alert.risk(), alert.exceedCount(), alert.distinctImplants());
+        } else {
+            declined.increment();
+            window.rearm();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package dev.cyberjar.embabeldemo.subscription.service;
+
+import com.mongodb.MongoException;
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.storage.ImplantLogStorageMode;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Tails a change stream of inserts into implant_logs and hands every new sample to the subscriptions, whoever wrote
+// it (ingestion service, seeding, another instance). Change streams need a replica set (compose.yaml runs a single
+// node one) and are not available on a time-series implant_logs: on a standalone server or a time-series collection
+// the stream stays idle and a warning is logged, without waiting for a cursor that can never open.
+@Component
+public class ImplantLogChangeStream implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ImplantLogChangeStream.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final AlertSubscriptionService subscriptionService;
+    private final boolean enabled;
+    private final Duration startTimeout;
+    private final ImplantLogStorageMode storageMode;
+
+    private MessageListenerContainer container;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public ImplantLogChangeStream(MongoTemplate mongoTemplate,
+                                  AlertSubscriptionService subscriptionService,
+                                  @Value("${app.subscriptions.enabled:true}") boolean enabled,
+                                  @Value("${app.subscriptions.start-timeout:PT10S}") Duration startTimeout,
+                                  @Value("${app.implant-logs.storage:standard}") ImplantLogStorageMode storageMode) {
+        this.mongoTemplate = mongoTemplate;
+        this.subscriptionService = subscriptionService;
+        this.enabled = enabled;
+        this.startTimeout = startTimeout;
+        this.storageMode = storageMode;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) return;
+
+        if (storageMode == ImplantLogStorageMode.TIMESERIES) {
+            log.warn("Alert subscriptions idle: MongoDB has no change streams on a time-series implant_logs "
+                    + "(app.implant-logs.storage=timeseries)");
+            return;
+        }
+        if (!supportsChangeStreams()) return;
+
+        subscriptionService.reload();
+
+        String collection = mongoTemplate.getCollectionName(ImplantMonitoringLog.class);
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("implant-log-change-stream").factory());
+        container = new DefaultMessageListenerContainer(mongoTemplate, executor, this::onError);
+
+        ChangeStreamRequest<ImplantMonitoringLog> request = ChangeStreamRequest.<ImplantMonitoringLog>builder(
+                        message -> subscriptionService.onSample(message.getBody()))
+                .collection(collection)
+                .filter(Aggregation.newAggregation(Aggregation.match(Criteria.where("operationType").is("insert"))))
+                .build();
+
+        container.start();
+        Subscription subscription = container.register(request, ImplantMonitoringLog.class, this::onError);
+        running = true;
+
+        // samples inserted before the cursor is open are never seen, so don't report started before it is
+        try {
+            if (subscription.await(startTimeout)) {
+                log.info("Alert subscriptions listening for inserts into {}", collection);
+            } else {
+                log.warn("Change stream on {} not active after {}; alert subscriptions may miss samples", collection, startTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (container != null) {
+            container.stop();
+            container = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isStreaming() {
+        MessageListenerContainer current = container;
+        return running && current != null && current.isRunning();
+    }
+
+    // Only replica set members and mongos serve change streams; a standalone server would leave start() waiting out
+    // the whole start-timeout for a cursor that never opens
+    private boolean supportsChangeStreams() {
+        try {
+            Document hello = mongoTemplate.getDb().runCommand(new Document("hello", 1));
+            if (hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"))) return true;
+
+            log.warn("Alert subscriptions idle: MongoDB is a standalone server, change streams need a replica set "
+                    + "(see compose.yaml)");
+        } catch (MongoException e) {
+            log.warn("Alert subscriptions idle: could not reach MongoDB to check for a replica set: {}", e.getMessage());
+        }
+        return false;
+    }
+
+    private void onError(Throwable error) {
+        log.warn("Implant log change stream failed, alert subscriptions get no samples "
+                + "(change streams need a replica set and a non time-series implant_logs): {}", error.getMessage());
+    }
+}
@@ -0,0 +1,79 @@
+package dev.cyberjar.embabeldemo.subscription.service;
+
+import dev.cyberjar.embabeldemo.incident.domain.RiskLevel;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Rolling state of one subscription: timestamps of exceeding samples and the last sample time of every implant seen
+// in the area within the window ending now (wall clock). Risk uses the same inputs as a triage (exceed count,
+// implants with samples in the window), each update is amortised O(1). Samples already older than the window, such
+// as seeded or backfilled history, are ignored: a subscription only alerts on what is happening now.
+final class RollingExceedWindow {
+
+    private final long windowMillis;
+    private final ArrayDeque<Long> exceeds = new ArrayDeque<>();
+    // insertion ordered: re-putting an implant moves it to the tail, so the head is the least recently seen
+    private final LinkedHashMap<String, Long> lastSeen = new LinkedHashMap<>();
+    private boolean atOrAboveTrigger;
+
+    RollingExceedWindow(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    // Returns true when this sample takes the risk to triggerLevel or above from below it
+    synchronized boolean record(String implantSerialNumber,
+                                long timestampMillis,
+                                boolean exceeded,
+                                RiskLevel triggerLevel,
+                                long nowMillis) {
+
+        long cutoff = nowMillis - windowMillis;
+        if (timestampMillis <= cutoff) return false;
+
+        lastSeen.remove(implantSerialNumber);
+        lastSeen.put(implantSerialNumber, timestampMillis);
+        if (exceeded) exceeds.addLast(timestampMillis);
+        expire(cutoff);
+
+        boolean above = risk().compareTo(triggerLevel) >= 0;
+        boolean crossed = above && !atOrAboveTrigger;
+        atOrAboveTrigger = above;
+        return crossed;
+    }
+
+    // The alert was not acted on: the next sample that keeps the risk up crosses again
+    synchronized void rearm() {
+        atOrAboveTrigger = false;
+    }
+
+    // Drops what fell out of the window since the last sample, for readers outside the sample path
+    synchronized void advance(long nowMillis) {
+        expire(nowMillis - windowMillis);
+    }
+
+    synchronized long exceedCount() {
+        return exceeds.size();
+    }
+
+    synchronized long distinctImplants() {
+        return lastSeen.size();
+    }
+
+    synchronized RiskLevel risk() {
+        return exceeds.isEmpty() ? RiskLevel.LOW : RiskLevel.classify(exceeds.size(), lastSeen.size());
+    }
+
+    private void expire(long cutoff) {
+        while (!exceeds.isEmpty() && exceeds.peekFirst() <= cutoff) {
+            exceeds.pollFirst();
+        }
+
+        Iterator<Map.Entry<String, Long>> oldest = lastSeen.entrySet().iterator();
+        while (oldest.hasNext() && oldest.next().getValue() <= cutoff) {
+            oldest.remove();
+        }
+    }
+}
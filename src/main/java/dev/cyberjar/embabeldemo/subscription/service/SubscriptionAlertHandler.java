@@ -0,0 +1,12 @@
+package dev.cyberjar.embabeldemo.subscription.service;
+
+import dev.cyberjar.embabeldemo.subscription.dto.SubscriptionAlert;
+
+// Acts on a subscription whose rolling risk just reached its trigger level. Called on the change stream thread, so
+// anything slow must be handed off. Returning false declines the alert: it fires again on the subscription's next
+// sample for as long as the risk stays up.
+public interface SubscriptionAlertHandler {
+
+    boolean onAlert(SubscriptionAlert alert);
+
+}
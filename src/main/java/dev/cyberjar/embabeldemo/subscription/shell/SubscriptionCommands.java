@@ -0,0 +1,98 @@
+package dev.cyberjar.embabeldemo.subscription.shell;
+
+import dev.cyberjar.embabeldemo.incident.domain.RiskLevel;
+import dev.cyberjar.embabeldemo.subscription.domain.AlertSubscription;
+import dev.cyberjar.embabeldemo.subscription.dto.SubscriptionStats;
+import dev.cyberjar.embabeldemo.subscription.dto.SubscriptionStatus;
+import dev.cyberjar.embabeldemo.subscription.service.AlertSubscriptionService;
+import dev.cyberjar.embabeldemo.subscription.service.ImplantLogChangeStream;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@ShellComponent
+public class SubscriptionCommands {
+
+    private final AlertSubscriptionService subscriptionService;
+    private final ImplantLogChangeStream changeStream;
+
+    public SubscriptionCommands(AlertSubscriptionService subscriptionService, ImplantLogChangeStream changeStream) {
+        this.subscriptionService = subscriptionService;
+        this.changeStream = changeStream;
+    }
+
+    @ShellMethod(key = "subscribe", value = "Watch an area and start a triage when its rolling risk reaches a level")
+    public String subscribe(String name,
+                            double lon,
+                            double lat,
+                            double radius,
+                            String metric,
+                            double threshold,
+                            @ShellOption(defaultValue = "PT1H") Duration window,
+                            @ShellOption(defaultValue = "HIGH") RiskLevel triggerLevel) {
+        AlertSubscription subscription = subscriptionService.subscribe(
+                name, lon, lat, radius, metric, threshold, window, triggerLevel);
+
+        return "Subscription %s: %s >= %s within %.0f m of (%s, %s) over %s, triage at %s".formatted(
+                subscription.id(),
+                subscription.metric(),
+                subscription.threshold(),
+                subscription.radiusMeters(),
+                subscription.longitude(),
+                subscription.latitude(),
+                subscription.window(),
+                subscription.triggerLevel());
+    }
+
+    @ShellMethod(key = "unsubscribe", value = "Remove an alert subscription")
+    public String unsubscribe(String id) {
+        return subscriptionService.unsubscribe(id)
+                ? "Subscription " + id + " removed"
+                : "No subscription " + id;
+    }
+
+    @ShellMethod(key = "subscriptions", value = "List alert subscriptions with their current rolling window")
+    public String subscriptions() {
+        List<SubscriptionStatus> statuses = subscriptionService.statuses();
+        if (statuses.isEmpty()) return "No alert subscriptions";
+
+        return statuses.stream()
+                .map(status -> "%s  %-16s %s >= %s, %.0f m, %s -> %s: %d exceeding / %d implants (%s)".formatted(
+                        status.subscription().id(),
+                        status.subscription().name(),
+                        status.subscription().metric(),
+                        status.subscription().threshold(),
+                        status.subscription().radiusMeters(),
+                        status.subscription().window(),
+                        status.subscription().triggerLevel(),
+                        status.exceedCount(),
+                        status.distinctImplants(),
+                        status.risk()))
+                .collect(Collectors.joining("\n"));
+    }
+
+    @ShellMethod(key = "subscription-stats", value = "Show change stream state and subscription match counts")
+    public String stats() {
+        SubscriptionStats stats = subscriptionService.stats(changeStream.isStreaming());
+        return """
+                Change stream:  %s
+                Subscriptions:  %d (%d cells, %d unindexed wide areas)
+                Samples:        %d (%d skipped: seeding or backfill)
+                Area matches:   %d
+                Alerts:         %d (%d declined, triage busy)
+                """.formatted(
+                stats.streaming() ? "running" : "stopped",
+                stats.subscriptions(),
+                stats.indexedCells(),
+                stats.wideAreas(),
+                stats.samples(),
+                stats.skippedSamples(),
+                stats.matches(),
+                stats.alerts(),
+                stats.declinedAlerts());
+    }
+}
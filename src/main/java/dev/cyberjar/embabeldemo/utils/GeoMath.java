@@ -0,0 +1,21 @@
+package dev.cyberjar.embabeldemo.utils;
+
+public final class GeoMath {
+
+    // Mean Earth radius, the same value MongoDB uses for spherical distances
+    public static final double EARTH_RADIUS_METERS = 6_378_100.0;
+
+    private GeoMath() {
+    }
+
+    public static double haversineMeters(double lon1, double lat1, double lon2, double lat2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,83 @@
+package dev.cyberjar.embabeldemo.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Structured fork/join on virtual threads: subtasks live inside the try-with-resources block that forked them,
+// the first failure cancels (interrupts) the siblings, and join() rethrows it.
+// Same shape as StructuredTaskScope with the all-successful joiner, which is still a preview API.
+public final class TaskScope implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final List<Future<?>> subtasks = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private TaskScope(String name) {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+    }
+
+    public static TaskScope open(String name) {
+        return new TaskScope(name);
+    }
+
+    // The returned supplier may only be called after join()
+    public <T> Supplier<T> fork(Callable<T> task) {
+        Future<T> future = executor.submit(() -> {
+            try {
+                return task.call();
+            } catch (Throwable t) {
+                if (failure.compareAndSet(null, t)) cancelAll();
+                throw t;
+            }
+        });
+
+        synchronized (subtasks) {
+            subtasks.add(future);
+        }
+        // forked after a sibling already failed
+        if (failure.get() != null) future.cancel(true);
+
+        return future::resultNow;
+    }
+
+    public void join() throws InterruptedException {
+        List<Future<?>> forked;
+        synchronized (subtasks) {
+            forked = List.copyOf(subtasks);
+        }
+
+        for (Future<?> subtask : forked) {
+            try {
+                subtask.get();
+            } catch (ExecutionException | CancellationException e) {
+                // the first failure is recorded by the subtask itself
+            }
+        }
+
+        Throwable cause = failure.get();
+        if (cause instanceof RuntimeException runtime) throw runtime;
+        if (cause instanceof Error error) throw error;
+        if (cause != null) throw new IllegalStateException(cause);
+    }
+
+    @Override
+    public void close() {
+        // leaving the block early (e.g. the caller was interrupted) must not leak running subtasks
+        cancelAll();
+        executor.close();
+    }
+
+    private void cancelAll() {
+        synchronized (subtasks) {
+            subtasks.forEach(subtask -> subtask.cancel(true));
+        }
+    }
+}
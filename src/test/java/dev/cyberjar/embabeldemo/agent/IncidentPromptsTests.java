@@ -0,0 +1,116 @@
+package dev.cyberjar.embabeldemo.agent;
+
+import dev.cyberjar.embabeldemo.incident.domain.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Prompt size regression check on a fixed, seeded incident
+class IncidentPromptsTests {
+
+    // Measured budgets with ~10% headroom; raise them only together with a reason in the commit
+    private static final int HYPOTHESIS_TOKEN_BUDGET = 245;
+    private static final int PLAN_TOKEN_BUDGET = 125;
+
+    private final IncidentPrompts prompts = new IncidentPrompts(new SimpleMeterRegistry());
+
+    @Test
+    void hypothesisPromptIsAtMostHalfTheRecordToStringPrompt() {
+        Incident incident = Incident.seeded(42);
+
+        String compact = prompts.rootCauseHypothesis(incident.signal, incident.assessment, incident.affected);
+        String legacy = """
+                Based on the incident details, choose a root cause hypothesis.
+                
+                Rules:
+                - type must be one of: FIRMWARE_REGRESSION, BAD_LOT, ATTACK_PATTERN, ENVIRONMENTAL
+                - confidence is 0..1
+                - evidence is a short bullet list of specific signals from the inputs
+                
+                IncidentSignal: %s
+                Triage: %s
+                Top affected implants: %s
+                """.formatted(incident.signal, incident.assessment, incident.affected.stream().limit(10).toList());
+
+        int compactTokens = IncidentPrompts.estimateTokens(compact);
+        int legacyTokens = IncidentPrompts.estimateTokens(legacy);
+
+        assertTrue(compactTokens * 2 <= legacyTokens, "compact %d vs legacy %d tokens".formatted(compactTokens, legacyTokens));
+        assertTrue(compactTokens <= HYPOTHESIS_TOKEN_BUDGET, "hypothesis prompt grew to " + compactTokens + " tokens");
+    }
+
+    @Test
+    void planPromptStaysWithinBudget() {
+        Incident incident = Incident.seeded(42);
+        RootCauseHypothesis hypothesis = new RootCauseHypothesis(HypothesisType.BAD_LOT, 0.7234,
+                List.of("7 of 10 top implants from lot 3", "latency exceedances cluster in one hour"));
+
+        String compact = prompts.containmentPlan(incident.assessment.riskLevel(), hypothesis, incident.blastRadius());
+
+        int compactTokens = IncidentPrompts.estimateTokens(compact);
+        assertTrue(compactTokens <= PLAN_TOKEN_BUDGET, "plan prompt grew to " + compactTokens + " tokens");
+    }
+
+    @Test
+    void evidenceDoesNotDependOnTheDefaultLocale() {
+        Incident incident = Incident.seeded(42);
+        Locale previous = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.GERMANY);
+            String signal = EvidenceEncoder.signal(incident.signal);
+            String plan = prompts.containmentPlan(incident.assessment.riskLevel(),
+                    new RootCauseHypothesis(HypothesisType.BAD_LOT, 0.7234, List.of("lot 3")), incident.blastRadius());
+
+            assertTrue(signal.startsWith("area: 40.75800,-73.98550 r=1200m"), signal);
+            assertTrue(plan.contains("Within 1200m of (40.75800, -73.98550)"), plan);
+            assertTrue(plan.contains("confidence .72"), plan);
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    private record Incident(IncidentSignal signal, IncidentAssessment assessment, List<AffectedImplant> affected) {
+
+        static Incident seeded(long seed) {
+            Random random = new Random(seed);
+
+            IncidentSignal signal = new IncidentSignal(-73.9855, 40.7580, 1200,
+                    LocalDateTime.of(2026, 2, 2, 13, 0), LocalDateTime.of(2026, 2, 2, 23, 0),
+                    List.of(new MetricCondition("neuralLatencyMs", 120), new MetricCondition("cpuUsagePct", 85)));
+
+            List<AffectedImplant> affected = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                double latency = random.nextDouble();
+                double cpu = random.nextDouble() * 0.5;
+                affected.add(new AffectedImplant(
+                        "NX-%04d".formatted(1000 + i),
+                        String.valueOf(1 + random.nextInt(3)),
+                        random.nextBoolean() ? "NeuroLink-X2" : "CortexPlus-7",
+                        "MechaMed",
+                        "CIV-%08d".formatted(random.nextInt(100_000_000)),
+                        Math.max(latency, cpu),
+                        List.of(new MetricScore("neuralLatencyMs", 120 * (1 + latency), latency),
+                                new MetricScore("cpuUsagePct", 85 * (1 + cpu), cpu))));
+            }
+            affected.sort(Comparator.comparingDouble(AffectedImplant::anomalyScore).reversed());
+
+            IncidentAssessment assessment = new IncidentAssessment(signal, 30, RiskLevel.HIGH, List.of(
+                    new MetricAssessment("neuralLatencyMs", 120, 48, 17, RiskLevel.HIGH),
+                    new MetricAssessment("cpuUsagePct", 85, 12, 6, RiskLevel.MEDIUM)));
+
+            return new Incident(signal, assessment, affected);
+        }
+
+        EstimatedBlastRadius blastRadius() {
+            return IncidentTriageAgent.estimateRadius(signal, affected);
+        }
+    }
+}
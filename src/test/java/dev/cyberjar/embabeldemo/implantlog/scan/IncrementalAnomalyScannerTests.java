@@ -0,0 +1,156 @@
+package dev.cyberjar.embabeldemo.implantlog.scan;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.TelemetryMetric;
+import dev.cyberjar.embabeldemo.implantlog.dto.ImplantAnomalySummary;
+import dev.cyberjar.embabeldemo.implantlog.dto.MetricThreshold;
+import dev.cyberjar.embabeldemo.implantlog.ingest.ImplantLogRewrites;
+import dev.cyberjar.embabeldemo.implantlog.ingest.ImplantLogsRewrittenEvent;
+import dev.cyberjar.embabeldemo.implantlog.service.ImplantMonitoringLogService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.geo.Point;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IncrementalAnomalyScannerTests {
+
+    private static final Point CENTER = new Point(-73.9780, 40.6782);
+    private static final LocalDateTime START = LocalDateTime.of(2026, 2, 2, 0, 0);
+    private static final List<MetricThreshold> THRESHOLDS = List.of(
+            new MetricThreshold(TelemetryMetric.NEURAL_LATENCY_MS, 120),
+            new MetricThreshold(TelemetryMetric.CPU_USAGE_PCT, 85));
+
+    private final List<Sample> samples = samples(new Random(42), 20, 24 * 60);
+    private final InMemoryLogService logService = new InMemoryLogService(samples);
+    // delivers rewrite events straight to the scanner, as the application context would
+    private final ImplantLogRewrites rewrites = new ImplantLogRewrites(event -> {
+        if (event instanceof ImplantLogsRewrittenEvent range) scanner().rewritten(range);
+    });
+    private final IncrementalAnomalyScanner scanner = new IncrementalAnomalyScanner(
+            logService, rewrites, new SimpleMeterRegistry(), Duration.ofMinutes(15), Duration.ofMinutes(5), 4096);
+
+    @Test
+    void repeatedAndSlidingWindowsMatchAFullRescan() {
+        LocalDateTime[][] windows = {
+                {START.plusHours(13), START.plusHours(23)},
+                {START.plusHours(13), START.plusHours(23).plusMinutes(40)},
+                {START.plusHours(14).plusMinutes(7), START.plusHours(23).plusMinutes(52).plusSeconds(30)},
+                {START.plusHours(13), START.plusHours(23)},
+        };
+
+        for (LocalDateTime[] window : windows) {
+            assertEquals(sorted(fullRescan(window[0], window[1])),
+                    sorted(scanner.summarize(CENTER, 1000, window[0], window[1], THRESHOLDS)));
+        }
+    }
+
+    @Test
+    void extendingAWindowOnlyScansTheNewSlices() {
+        scanner.summarize(CENTER, 1000, START.plusHours(13), START.plusHours(23), THRESHOLDS);
+        long scannedBefore = logService.scannedSamples;
+
+        long[] reported = new long[1];
+        scanner.summarize(CENTER, 1000, START.plusHours(13), START.plusHours(23).plusMinutes(30), THRESHOLDS,
+                samples -> reported[0] = samples);
+
+        // two new 15 minute slices plus the single sample at the inclusive end of the window
+        long expected = samples.stream()
+                .filter(s -> !s.timestamp().isBefore(START.plusHours(23)))
+                .filter(s -> !s.timestamp().isAfter(START.plusHours(23).plusMinutes(30)))
+                .count();
+        assertEquals(expected, logService.scannedSamples - scannedBefore);
+        assertEquals(expected, reported[0]);
+    }
+
+    @Test
+    void backdatedWritesDropTheKeptSlicesTheyLandIn() {
+        LocalDateTime from = START.plusHours(13);
+        LocalDateTime to = START.plusHours(23);
+        scanner.summarize(CENTER, 1000, from, to, THRESHOLDS);
+
+        // a backfill adds an exceeding sample to a slice that was already kept
+        LocalDateTime backdated = START.plusHours(15).plusSeconds(30);
+        try (ImplantLogRewrites.Rewrite ignored = rewrites.begin("test", backdated, backdated.plusSeconds(1))) {
+            samples.add(new Sample("IMP-LATE", backdated, new double[]{500, 99}));
+        }
+
+        assertEquals(sorted(fullRescan(from, to)), sorted(scanner.summarize(CENTER, 1000, from, to, THRESHOLDS)));
+    }
+
+    private IncrementalAnomalyScanner scanner() {
+        return scanner;
+    }
+
+    private List<ImplantAnomalySummary> fullRescan(LocalDateTime from, LocalDateTime to) {
+        Map<String, AnomalyAccumulator> accumulators = new HashMap<>();
+        for (Sample sample : samples) {
+            if (sample.timestamp().isBefore(from) || sample.timestamp().isAfter(to)) continue;
+            accumulators.computeIfAbsent(sample.serial(), s -> new AnomalyAccumulator(THRESHOLDS))
+                    .add(sample.values(), AnomalyAccumulator.toMillis(sample.timestamp()));
+        }
+
+        List<ImplantAnomalySummary> summaries = new ArrayList<>();
+        accumulators.forEach((serial, accumulator) -> summaries.add(accumulator.toSummary(serial)));
+        return summaries;
+    }
+
+    private static List<ImplantAnomalySummary> sorted(List<ImplantAnomalySummary> summaries) {
+        return summaries.stream().sorted(Comparator.comparing(ImplantAnomalySummary::implantSerialNumber)).toList();
+    }
+
+    // one sample per implant and minute, a few of them above the thresholds
+    private static List<Sample> samples(Random random, int implants, int minutes) {
+        List<Sample> samples = new ArrayList<>();
+        for (int minute = 0; minute < minutes; minute++) {
+            for (int implant = 0; implant < implants; implant++) {
+                samples.add(new Sample(
+                        "IMP-" + implant,
+                        START.plusMinutes(minute),
+                        new double[]{40 + random.nextDouble() * 100, 20 + random.nextDouble() * 75}));
+            }
+        }
+        return samples;
+    }
+
+    private record Sample(String serial, LocalDateTime timestamp, double[] values) {
+    }
+
+    // ignores the area: every sample is inside it
+    private static final class InMemoryLogService extends ImplantMonitoringLogService {
+
+        private final List<Sample> samples;
+        private long scannedSamples;
+
+        InMemoryLogService(List<Sample> samples) {
+            super(null, null, null, null);
+            this.samples = samples;
+        }
+
+        @Override
+        public Map<String, AnomalyAccumulator> accumulateAnomaliesByAreaAndTime(
+                Point center,
+                double maxDistanceMeters,
+                LocalDateTime from,
+                LocalDateTime toExclusive,
+                List<MetricThreshold> thresholds) {
+
+            Map<String, AnomalyAccumulator> accumulators = new HashMap<>();
+            for (Sample sample : samples) {
+                if (sample.timestamp().isBefore(from) || !sample.timestamp().isBefore(toExclusive)) continue;
+                scannedSamples++;
+                accumulators.computeIfAbsent(sample.serial(), s -> new AnomalyAccumulator(thresholds))
+                        .add(sample.values(), AnomalyAccumulator.toMillis(sample.timestamp()));
+            }
+            return accumulators;
+        }
+    }
+}
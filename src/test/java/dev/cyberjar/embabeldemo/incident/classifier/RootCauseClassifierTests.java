@@ -0,0 +1,70 @@
+package dev.cyberjar.embabeldemo.incident.classifier;
+
+import dev.cyberjar.embabeldemo.incident.domain.AffectedImplant;
+import dev.cyberjar.embabeldemo.incident.domain.HypothesisType;
+import dev.cyberjar.embabeldemo.incident.domain.MetricScore;
+import dev.cyberjar.embabeldemo.incident.domain.RootCauseHypothesis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RootCauseClassifierTests {
+
+    private final RootCauseClassifier classifier = new RootCauseClassifier(new SimpleMeterRegistry(), true, 0.8, 3);
+
+    @Test
+    void singleLotIsBadLot() {
+        // the seeded recall cluster: MechaMed lot 536, two models, latency and CPU both high
+        List<AffectedImplant> affected = List.of(
+                implant("MM-536-DVB-1001", "Model-Dvb688", "MechaMed", 536, 0.4, 0.1),
+                implant("MM-536-DVB-1002", "Model-Dvb688", "MechaMed", 536, 0.3, 0.1),
+                implant("MM-536-JTV-1001", "Model-Jtv413", "MechaMed", 536, 0.4, 0.2),
+                implant("SF-746-OCU-1001", "Model-gOq543", "SynthForge", 746, 0.0, 0.0));
+
+        RootCauseHypothesis hypothesis = classifier.evaluate(affected).orElseThrow();
+
+        assertEquals(HypothesisType.BAD_LOT, hypothesis.type());
+        assertEquals(1.0, hypothesis.confidence());
+        assertTrue(hypothesis.evidence().getFirst().contains("MechaMed lot 536"));
+    }
+
+    @Test
+    void cpuSpikesAcrossLotsAndModelsAreAnAttack() {
+        List<AffectedImplant> affected = List.of(
+                implant("SF-746-OCU-1001", "Model-gOq543", "SynthForge", 746, 0.0, 0.12),
+                implant("SF-746-OCU-1002", "Model-gOq543", "SynthForge", 746, 0.0, 0.14),
+                implant("NC-289-CAR-1001", "Model-Gkf965", "NeuroCore", 289, 0.05, 0.13),
+                implant("NC-289-CAR-1002", "Model-Gkf965", "NeuroCore", 289, 0.0, 0.11),
+                implant("NC-617-OCU-447327", "Model-fXX373", "NeuroCore", 617, 0.0, 0.15));
+
+        RootCauseHypothesis hypothesis = classifier.evaluate(affected).orElseThrow();
+
+        assertEquals(HypothesisType.ATTACK_PATTERN, hypothesis.type());
+        assertEquals(1.0, hypothesis.confidence());
+    }
+
+    @Test
+    void mixedEvidenceGoesToTheLlm() {
+        List<AffectedImplant> affected = List.of(
+                implant("SF-746-OCU-1001", "Model-gOq543", "SynthForge", 746, 0.3, 0.0),
+                implant("SF-746-OCU-1002", "Model-gOq543", "SynthForge", 746, 0.2, 0.0),
+                implant("NC-289-CAR-1001", "Model-Gkf965", "NeuroCore", 289, 0.0, 0.2),
+                implant("NC-617-OCU-447327", "Model-fXX373", "NeuroCore", 617, 0.4, 0.1));
+
+        assertEquals(Optional.empty(), classifier.evaluate(affected));
+        assertEquals(Optional.empty(), classifier.evaluate(affected.subList(0, 2)));
+    }
+
+    private static AffectedImplant implant(String serial, String model, String manufacturer, int lot,
+                                           double latencyScore, double cpuScore) {
+        return new AffectedImplant(serial, String.valueOf(lot), model, manufacturer, "CIV-" + serial,
+                Math.max(latencyScore, cpuScore),
+                List.of(new MetricScore("neuralLatencyMs", 120 * (1 + latencyScore), latencyScore),
+                        new MetricScore("cpuUsagePct", 85 * (1 + cpuScore), cpuScore)));
+    }
+}
@@ -0,0 +1,68 @@
+package dev.cyberjar.embabeldemo.incident.parser;
+
+import dev.cyberjar.embabeldemo.incident.domain.IncidentSignal;
+import dev.cyberjar.embabeldemo.incident.domain.MetricCondition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncidentSignalParserTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 2, 3);
+
+    private final IncidentSignalParser parser = new IncidentSignalParser(new SimpleMeterRegistry());
+
+    @Test
+    void parsesReadmePrompt() {
+        IncidentSignal signal = parser.parse(
+                "Center: lat 40.7580 lon -73.9855, radius 1200m, yesterday 13:00–23:00, metric neuralLatencyMs, threshold 120",
+                TODAY).orElseThrow();
+
+        assertEquals(-73.9855, signal.longitude());
+        assertEquals(40.7580, signal.latitude());
+        assertEquals(1200, signal.radiusMeters());
+        assertEquals(LocalDateTime.of(2026, 2, 2, 13, 0), signal.from());
+        assertEquals(LocalDateTime.of(2026, 2, 2, 23, 0), signal.to());
+        assertEquals(List.of(new MetricCondition("neuralLatencyMs", 120)), signal.metrics());
+    }
+
+    @Test
+    void parsesAbsoluteWindowAndSeveralMetrics() {
+        IncidentSignal signal = parser.parse(
+                "Center: lon -73.9780 lat 40.6782, radius 1.5km, from 2026-02-01T22:00 to 2026-02-02T02:30, "
+                        + "metrics neuralLatencyMs > 120, cpuUsagePct >= 85",
+                TODAY).orElseThrow();
+
+        assertEquals(1500, signal.radiusMeters());
+        assertEquals(LocalDateTime.of(2026, 2, 1, 22, 0), signal.from());
+        assertEquals(LocalDateTime.of(2026, 2, 2, 2, 30), signal.to());
+        assertEquals(List.of(new MetricCondition("neuralLatencyMs", 120), new MetricCondition("cpuUsagePct", 85)),
+                signal.metrics());
+    }
+
+    @Test
+    void windowPastMidnightEndsNextDay() {
+        IncidentSignal signal = parser.parse(
+                "lat 40.7 lon -73.9, radius 500m, 2 days ago 22:00-02:00, metric powerUsageUw, threshold 900",
+                TODAY).orElseThrow();
+
+        assertEquals(LocalDateTime.of(2026, 2, 1, 22, 0), signal.from());
+        assertEquals(LocalDateTime.of(2026, 2, 2, 2, 0), signal.to());
+    }
+
+    @Test
+    void leavesFreeFormAndIncompletePromptsToTheLlm() {
+        assertTrue(parser.parse("Something weird is going on in Brooklyn since last night", TODAY).isEmpty());
+        assertTrue(parser.parse("Center: lat 40.7 lon -73.9, radius 500m, yesterday 13:00–23:00", TODAY).isEmpty());
+        assertTrue(parser.parse("Center: lat 40.7 lon -73.9, radius 500m, yesterday 13:00–23:00, metric heartRate, threshold 3",
+                TODAY).isEmpty());
+        assertTrue(parser.parse("Center: lat 95 lon -73.9, radius 500m, yesterday 13:00–23:00, metric cpuUsagePct, threshold 80",
+                TODAY).isEmpty());
+    }
+}
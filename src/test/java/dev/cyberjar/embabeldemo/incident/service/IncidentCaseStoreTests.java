@@ -0,0 +1,63 @@
+package dev.cyberjar.embabeldemo.incident.service;
+
+import dev.cyberjar.embabeldemo.incident.domain.IncidentSignal;
+import dev.cyberjar.embabeldemo.incident.domain.MetricCondition;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncidentCaseStoreTests {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 2, 2, 2, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 2, 2, 4, 0);
+
+    @Test
+    void equivalentSignalsShareAFingerprint() {
+        IncidentSignal parsed = new IncidentSignal(-73.9780, 40.6782, 1500, FROM, TO, List.of(
+                new MetricCondition("neuralLatencyMs", 120),
+                new MetricCondition("cpuUsagePct", 85)));
+        IncidentSignal fromLlm = new IncidentSignal(-73.97800000001, 40.678199999999, 1500.000001, FROM, TO, List.of(
+                new MetricCondition("cpuUsagePct ", 85.0),
+                new MetricCondition("neuralLatencyMs", 120.0),
+                new MetricCondition("cpuUsagePct", 85)));
+
+        assertEquals(IncidentCaseStore.fingerprint(parsed), IncidentCaseStore.fingerprint(fromLlm));
+    }
+
+    @Test
+    void differentWindowOrThresholdIsADifferentInvestigation() {
+        IncidentSignal signal = new IncidentSignal(-73.9780, 40.6782, 1500, FROM, TO,
+                List.of(new MetricCondition("cpuUsagePct", 85)));
+
+        String fingerprint = IncidentCaseStore.fingerprint(signal);
+
+        assertNotEquals(fingerprint, IncidentCaseStore.fingerprint(new IncidentSignal(
+                -73.9780, 40.6782, 1500, FROM, TO.plusMinutes(30), signal.metrics())));
+        assertNotEquals(fingerprint, IncidentCaseStore.fingerprint(new IncidentSignal(
+                -73.9780, 40.6782, 2000, FROM, TO, signal.metrics())));
+        assertNotEquals(fingerprint, IncidentCaseStore.fingerprint(new IncidentSignal(
+                -73.9780, 40.6782, 1500, FROM, TO, List.of(new MetricCondition("cpuUsagePct", 90)))));
+    }
+
+    @Test
+    void aWindowStillReceivingSamplesIsNotSettled() {
+        LocalDateTime now = LocalDateTime.now();
+        List<MetricCondition> metrics = List.of(new MetricCondition("cpuUsagePct", 85));
+        Duration lateness = Duration.ofMinutes(5);
+
+        Instant live = IncidentCaseStore.settledAt(
+                new IncidentSignal(-73.9780, 40.6782, 1500, now.minusHours(1), now.minusMinutes(2), metrics), lateness);
+        Instant past = IncidentCaseStore.settledAt(
+                new IncidentSignal(-73.9780, 40.6782, 1500, now.minusHours(2), now.minusHours(1), metrics), lateness);
+
+        assertTrue(live.isAfter(Instant.now()), "a case created now must not be reused for a live window");
+        assertTrue(past.isBefore(Instant.now()));
+    }
+}
@@ -0,0 +1,72 @@
+package dev.cyberjar.embabeldemo.subscription.geo;
+
+import dev.cyberjar.embabeldemo.incident.domain.RiskLevel;
+import dev.cyberjar.embabeldemo.subscription.domain.AlertSubscription;
+import dev.cyberjar.embabeldemo.utils.GeoMath;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SubscriptionCellIndexTests {
+
+    @Test
+    void findsExactlyTheAreasABruteForceScanFinds() {
+        Random random = new Random(7);
+        List<AlertSubscription> subscriptions = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            subscriptions.add(subscription("s" + i,
+                    -74.2 + random.nextDouble() * 0.6,
+                    40.5 + random.nextDouble() * 0.4,
+                    100 + random.nextDouble() * 5000));
+        }
+        // one area far too large to post into cells
+        subscriptions.add(subscription("wide", -74.0, 40.7, 2_000_000));
+
+        SubscriptionCellIndex index = new SubscriptionCellIndex(subscriptions, 0.01, 4096);
+        assertEquals(1, index.wideAreaCount());
+
+        for (int i = 0; i < 2000; i++) {
+            double lon = -74.3 + random.nextDouble() * 0.8;
+            double lat = 40.4 + random.nextDouble() * 0.6;
+
+            assertEquals(bruteForce(subscriptions, lon, lat), covering(index, lon, lat));
+        }
+    }
+
+    @Test
+    void areasAcrossTheAntimeridianAreFoundFromBothSides() {
+        SubscriptionCellIndex index = new SubscriptionCellIndex(
+                List.of(subscription("fiji", 179.999, -17.7, 5000)), 0.01, 4096);
+
+        assertEquals(Set.of("fiji"), covering(index, 179.98, -17.7));
+        assertEquals(Set.of("fiji"), covering(index, -179.98, -17.7));
+        assertEquals(Set.of(), covering(index, -179.9, -17.7));
+    }
+
+    private static Set<String> covering(SubscriptionCellIndex index, double lon, double lat) {
+        Set<String> ids = new TreeSet<>();
+        index.forEachCovering(lon, lat, subscription -> ids.add(subscription.id()));
+        return ids;
+    }
+
+    private static Set<String> bruteForce(List<AlertSubscription> subscriptions, double lon, double lat) {
+        Set<String> ids = new TreeSet<>();
+        for (AlertSubscription subscription : subscriptions) {
+            double distance = GeoMath.haversineMeters(subscription.longitude(), subscription.latitude(), lon, lat);
+            if (distance <= subscription.radiusMeters()) ids.add(subscription.id());
+        }
+        return ids;
+    }
+
+    private static AlertSubscription subscription(String id, double lon, double lat, double radiusMeters) {
+        return new AlertSubscription(id, id, lon, lat, radiusMeters, "neuralLatencyMs", 120, 3600, RiskLevel.HIGH,
+                Instant.EPOCH);
+    }
+}
@@ -0,0 +1,171 @@
+package dev.cyberjar.embabeldemo.subscription.service;
+
+import dev.cyberjar.embabeldemo.implantlog.domain.ImplantMonitoringLog;
+import dev.cyberjar.embabeldemo.implantlog.ingest.ImplantLogRewrites;
+import dev.cyberjar.embabeldemo.incident.domain.RiskLevel;
+import dev.cyberjar.embabeldemo.seed.SeedingFinishedEvent;
+import dev.cyberjar.embabeldemo.subscription.domain.AlertSubscription;
+import dev.cyberjar.embabeldemo.subscription.dto.SubscriptionStats;
+import dev.cyberjar.embabeldemo.subscription.dto.SubscriptionAlert;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// MongoDBContainer runs a single-node replica set, which change streams need
+@DataMongoTest
+@Testcontainers(disabledWithoutDocker = true)
+@Import({AlertSubscriptionService.class, ImplantLogChangeStream.class, ImplantLogRewrites.class,
+        AlertSubscriptionChangeStreamTests.Config.class})
+class AlertSubscriptionChangeStreamTests {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    private static final Point CENTER = new Point(-73.9780, 40.6782);
+    private static final Point ELSEWHERE = new Point(-73.7949, 40.7282);
+
+    @Autowired
+    private AlertSubscriptionService subscriptionService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private RecordingAlertHandler alertHandler;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @BeforeEach
+    void reset() {
+        mongoTemplate.remove(new Query(), AlertSubscription.class);
+        subscriptionService.reload();
+        alertHandler.alerts.clear();
+        events.publishEvent(new SeedingFinishedEvent(true, "test", Duration.ZERO));
+    }
+
+    @Test
+    void insertsInsideTheAreaRaiseOneAlertWhenTheRiskReachesTheTriggerLevel() {
+        AlertSubscription subscription = subscriptionService.subscribe(
+                "brooklyn", CENTER.getX(), CENTER.getY(), 1500, "neuralLatencyMs", 120,
+                Duration.ofHours(1), RiskLevel.HIGH);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ImplantMonitoringLog> logs = new ArrayList<>();
+        // exceeding samples outside the area never count
+        for (int i = 0; i < 40; i++) {
+            logs.add(log("SN-FAR-" + (i % 5), now.minusMinutes(50).plusSeconds(i), 300, ELSEWHERE));
+        }
+        // 3 implants x 10 exceeding samples: exactly the HIGH thresholds on the 30th
+        for (int i = 0; i < 30; i++) {
+            logs.add(log("SN-" + (i % 3), now.minusMinutes(40).plusSeconds(i), 300, CENTER));
+        }
+        // still HIGH: no second alert
+        for (int i = 0; i < 10; i++) {
+            logs.add(log("SN-" + (i % 3), now.minusMinutes(30).plusSeconds(i), 300, CENTER));
+        }
+        SubscriptionStats before = subscriptionService.stats(true);
+        mongoTemplate.insert(logs, ImplantMonitoringLog.class);
+
+        awaitTrue(() -> subscriptionService.stats(true).samples() == before.samples() + logs.size());
+
+        assertEquals(1, alertHandler.alerts.size());
+        SubscriptionAlert alert = alertHandler.alerts.getFirst();
+        assertEquals(subscription.id(), alert.subscription().id());
+        assertEquals(RiskLevel.HIGH, alert.risk());
+        assertEquals(30, alert.exceedCount());
+        assertEquals(3, alert.distinctImplants());
+        assertEquals(CENTER.getX(), alert.signal().longitude());
+        assertEquals(Duration.ofHours(1), Duration.between(alert.signal().from(), alert.signal().to()));
+        assertEquals(before.matches() + 40, subscriptionService.stats(true).matches());
+    }
+
+    @Test
+    void backdatedInsertsOlderThanTheWindowRaiseNoAlert() {
+        subscriptionService.subscribe(
+                "brooklyn", CENTER.getX(), CENTER.getY(), 1500, "neuralLatencyMs", 120,
+                Duration.ofHours(1), RiskLevel.HIGH);
+
+        // what seeding or a backfill writes: well past the HIGH thresholds, but all of it hours ago
+        LocalDateTime hoursAgo = LocalDateTime.now().minusHours(3);
+        List<ImplantMonitoringLog> logs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            logs.add(log("SN-" + (i % 6), hoursAgo.plusSeconds(i), 300, CENTER));
+        }
+
+        SubscriptionStats before = subscriptionService.stats(true);
+        mongoTemplate.insert(logs, ImplantMonitoringLog.class);
+
+        awaitTrue(() -> subscriptionService.stats(true).samples() == before.samples() + logs.size());
+
+        assertTrue(alertHandler.alerts.isEmpty());
+        assertEquals(0, subscriptionService.statuses().getFirst().exceedCount());
+    }
+
+    private static ImplantMonitoringLog log(String serial, LocalDateTime timestamp, double neuralLatencyMs, Point location) {
+        return new ImplantMonitoringLog(null, serial, "NID-" + serial, timestamp, 5.0, 40.0, neuralLatencyMs, location);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the change stream");
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    static class RecordingAlertHandler implements SubscriptionAlertHandler {
+
+        final List<SubscriptionAlert> alerts = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean onAlert(SubscriptionAlert alert) {
+            alerts.add(alert);
+            return true;
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        RecordingAlertHandler recordingAlertHandler() {
+            return new RecordingAlertHandler();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package dev.cyberjar.embabeldemo.subscription.service;
+
+import dev.cyberjar.embabeldemo.incident.domain.RiskLevel;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollingExceedWindowTests {
+
+    private static final long WINDOW = Duration.ofHours(1).toMillis();
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void samplesOlderThanTheWindowAreIgnored() {
+        RollingExceedWindow window = new RollingExceedWindow(WINDOW);
+        long hoursAgo = NOW - Duration.ofHours(3).toMillis();
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(window.record("SN-" + (i % 6), hoursAgo + i * 1000L, true, RiskLevel.HIGH, NOW));
+        }
+
+        assertEquals(0, window.exceedCount());
+        assertEquals(0, window.distinctImplants());
+        assertEquals(RiskLevel.LOW, window.risk());
+    }
+
+    @Test
+    void liveSamplesCrossOnceAndExpireWithTheClock() {
+        RollingExceedWindow window = new RollingExceedWindow(WINDOW);
+        long start = NOW - Duration.ofMinutes(10).toMillis();
+
+        int crossings = 0;
+        for (int i = 0; i < 40; i++) {
+            if (window.record("SN-" + (i % 3), start + i * 1000L, true, RiskLevel.HIGH, NOW)) crossings++;
+        }
+        assertEquals(1, crossings);
+        assertEquals(RiskLevel.HIGH, window.risk());
+
+        window.advance(NOW + WINDOW);
+        assertEquals(0, window.exceedCount());
+        assertTrue(window.risk().compareTo(RiskLevel.HIGH) < 0);
+    }
+}